@@ -0,0 +1,137 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.bluegiga.internal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Splits the BlueGiga serial stream into frames. Data is read from the stream in bulk into a buffer, and the frames are
+ * located in place in the buffer. Only the bytes of a complete frame are copied out of the buffer.
+ *
+ * @author Markus Lindqvist - Initial contribution
+ *
+ */
+@NonNullByDefault
+class BlueGigaFrameParser {
+
+    private static final int HEADER_LENGTH = 4;
+
+    /**
+     * The BGAPI protocol has no packet framing, and no error detection, so we do a few sanity checks on the header to
+     * try and allow resyncronisation should there be an error.
+     * Byte 0: Check technology type is bluetooth and high length is 0
+     * Byte 1: Check length is less than 64 bytes
+     * Byte 2: Check class ID is less than 8
+     * The command ID in byte 3 is not checked.
+     */
+    private static final int[] FRAME_CHECK_PARAMS = new int[] { 0x7F, 0xC0, 0xF8 };
+
+    private final Logger logger = LoggerFactory.getLogger(BlueGigaFrameParser.class);
+
+    /**
+     * Received bytes not parsed yet, between position and limit. The buffer is compacted before each read, so only the
+     * bytes of an incomplete frame are moved.
+     */
+    private final ByteBuffer buffer;
+
+    private final AtomicLong framingErrors = new AtomicLong();
+
+    /**
+     * Constructor
+     *
+     * @param capacity size of the receive buffer, must be larger than the largest frame
+     */
+    BlueGigaFrameParser(int capacity) {
+        buffer = ByteBuffer.allocate(capacity);
+        buffer.flip();
+    }
+
+    /**
+     * Reads the bytes available from the stream, blocking until at least one byte is available.
+     *
+     * @param inputStream stream to read from
+     * @return number of bytes read, or -1 if the end of the stream has been reached
+     * @throws IOException if reading the stream fails
+     */
+    int readFrom(InputStream inputStream) throws IOException {
+        buffer.compact();
+        try {
+            int count = inputStream.read(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+            if (count > 0) {
+                buffer.position(buffer.position() + count);
+            }
+            return count;
+        } finally {
+            buffer.flip();
+        }
+    }
+
+    /**
+     * Gets the next complete frame from the received bytes. Bytes not starting a valid header are skipped.
+     *
+     * @return the frame, or null if no complete frame has been received yet
+     */
+    int @Nullable [] nextFrame() {
+        while (buffer.hasRemaining()) {
+            int start = buffer.position();
+            int headerBytes = Math.min(buffer.remaining(), HEADER_LENGTH);
+            boolean valid = true;
+            for (int cnt = 0; cnt < Math.min(headerBytes, FRAME_CHECK_PARAMS.length); cnt++) {
+                int val = buffer.get(start + cnt) & 0xFF;
+                if ((val & FRAME_CHECK_PARAMS[cnt]) != 0) {
+                    logger.debug("BlueGiga framing error byte {} = {}", cnt + 1, val);
+                    framingErrors.incrementAndGet();
+                    valid = false;
+                    break;
+                }
+            }
+            if (!valid) {
+                // Try to resynchronise from the next byte
+                buffer.position(start + 1);
+                continue;
+            }
+            if (headerBytes < HEADER_LENGTH) {
+                return null;
+            }
+
+            int length = (buffer.get(start + 1) & 0xFF) + HEADER_LENGTH;
+            if (buffer.remaining() < length) {
+                return null;
+            }
+            int[] frame = new int[length];
+            for (int cnt = 0; cnt < length; cnt++) {
+                frame[cnt] = buffer.get(start + cnt) & 0xFF;
+            }
+            buffer.position(start + length);
+            return frame;
+        }
+        return null;
+    }
+
+    /**
+     * Gets the number of framing errors detected since the parser was created.
+     *
+     * @return number of framing errors
+     */
+    long getFramingErrorCount() {
+        return framingErrors.get();
+    }
+}
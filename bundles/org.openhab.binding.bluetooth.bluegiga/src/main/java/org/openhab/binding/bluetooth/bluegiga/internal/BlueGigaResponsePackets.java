@@ -17,6 +17,7 @@ import java.lang.reflect.InvocationTargetException;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -105,6 +106,11 @@ class BlueGigaResponsePackets {
 
     private static final Map<Integer, Class<?>> packetMap = new HashMap<>();
 
+    /**
+     * Constructors of the packet classes, looked up once per class
+     */
+    private static final Map<Class<?>, Constructor<?>> constructorMap = new ConcurrentHashMap<>();
+
     static {
         packetMap.put(Objects.hash(0x00, 0x06, true), BlueGigaProtocolErrorEvent.class);
         packetMap.put(Objects.hash(0x00, 0x02, true), BlueGigaEndpointWatermarkRxEvent.class);
@@ -191,10 +197,12 @@ class BlueGigaResponsePackets {
             return null;
         }
 
-        Constructor<?> ctor;
-
         try {
-            ctor = bleClass.getConstructor(int[].class);
+            Constructor<?> ctor = constructorMap.get(bleClass);
+            if (ctor == null) {
+                ctor = bleClass.getConstructor(int[].class);
+                constructorMap.put(bleClass, ctor);
+            }
             BlueGigaResponse bleFrame = (BlueGigaResponse) ctor.newInstance(data);
             return bleFrame;
         } catch (NoSuchMethodException | SecurityException | InstantiationException | IllegalAccessException
@@ -0,0 +1,152 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.bluegiga.internal;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.bluetooth.bluegiga.internal.command.gap.BlueGigaScanResponseEvent;
+
+/**
+ * Lock free queue handing the received packets over from the serial reader to the thread notifying the listeners.
+ *
+ * Scan responses waiting in the queue are coalesced per advertiser and packet type, so only the latest one is delivered.
+ * When the queue is full, new scan responses are dropped. Other packets are never dropped, since they might complete
+ * a transaction or report a connection state change.
+ *
+ * Supports one producer and one consumer thread.
+ *
+ * @author Markus Lindqvist - Initial contribution
+ *
+ */
+@NonNullByDefault
+class BlueGigaResponseQueue {
+
+    private final int maxPending;
+
+    /**
+     * Packets in delivery order. Contains either a {@link BlueGigaResponse} or the key of a scan response waiting in
+     * {@link #pendingScanResponses}.
+     */
+    private final Queue<Object> queue = new ConcurrentLinkedQueue<>();
+    private final Map<String, BlueGigaScanResponseEvent> pendingScanResponses = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    private final AtomicLong droppedPackets = new AtomicLong();
+    private final AtomicLong coalescedPackets = new AtomicLong();
+
+    /**
+     * Constructor
+     *
+     * @param maxPending number of packets waiting in the queue above which scan responses are dropped
+     */
+    BlueGigaResponseQueue(int maxPending) {
+        this.maxPending = maxPending;
+    }
+
+    /**
+     * Adds a packet to the queue.
+     *
+     * @param response the packet received
+     * @return false if the packet was dropped
+     */
+    boolean offer(BlueGigaResponse response) {
+        if (!(response instanceof BlueGigaScanResponseEvent)) {
+            size.incrementAndGet();
+            queue.add(response);
+            return true;
+        }
+
+        BlueGigaScanResponseEvent scanResponse = (BlueGigaScanResponseEvent) response;
+        String key = scanResponse.getSender() + "/" + scanResponse.getPacketType();
+        if (size.get() >= maxPending) {
+            if (pendingScanResponses.replace(key, scanResponse) != null) {
+                coalescedPackets.incrementAndGet();
+                return true;
+            }
+            droppedPackets.incrementAndGet();
+            return false;
+        }
+        if (pendingScanResponses.put(key, scanResponse) != null) {
+            // The key is already queued, the consumer picks up the latest response
+            coalescedPackets.incrementAndGet();
+            return true;
+        }
+        size.incrementAndGet();
+        queue.add(key);
+        return true;
+    }
+
+    /**
+     * Removes the next packet from the queue.
+     *
+     * @return the packet, or null if the queue is empty
+     */
+    @Nullable
+    BlueGigaResponse poll() {
+        Object entry;
+        while ((entry = queue.poll()) != null) {
+            size.decrementAndGet();
+            if (entry instanceof BlueGigaResponse) {
+                return (BlueGigaResponse) entry;
+            }
+            BlueGigaScanResponseEvent scanResponse = pendingScanResponses.remove(entry);
+            if (scanResponse != null) {
+                return scanResponse;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Removes all packets from the queue.
+     */
+    void clear() {
+        queue.clear();
+        pendingScanResponses.clear();
+        size.set(0);
+    }
+
+    /**
+     * Gets the number of packets waiting in the queue.
+     *
+     * @return number of packets
+     */
+    int size() {
+        return size.get();
+    }
+
+    /**
+     * Gets the number of scan responses dropped because the queue was full.
+     *
+     * @return number of dropped packets
+     */
+    long getDroppedPacketCount() {
+        return droppedPackets.get();
+    }
+
+    /**
+     * Gets the number of scan responses replaced by a newer one from the same advertiser before being delivered.
+     *
+     * @return number of coalesced packets
+     */
+    long getCoalescedPacketCount() {
+        return coalescedPackets.get();
+    }
+}
@@ -17,6 +17,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.locks.LockSupport;
 
 import org.apache.commons.io.IOUtils;
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -35,7 +36,15 @@ import org.slf4j.LoggerFactory;
 @NonNullByDefault
 public class BlueGigaSerialHandler {
 
-    private static final int BLE_MAX_LENGTH = 64;
+    /**
+     * Size of the receive buffer. Large enough to take several frames from the serial port in one read.
+     */
+    private static final int RECEIVE_BUFFER_SIZE = 4096;
+
+    /**
+     * Number of received packets waiting for delivery to the listeners above which advertisements are dropped
+     */
+    private static final int MAX_PENDING_PACKETS = 1000;
 
     private final Logger logger = LoggerFactory.getLogger(BlueGigaSerialHandler.class);
 
@@ -53,17 +62,23 @@ public class BlueGigaSerialHandler {
      * Flag reflecting that parser has been closed and parser parserThread
      * should exit.
      */
-    private boolean close = false;
+    private volatile boolean close = false;
 
     private final OutputStream outputStream;
     private final InputStream inputStream;
+    private final BlueGigaFrameParser frameParser = new BlueGigaFrameParser(RECEIVE_BUFFER_SIZE);
+    private final BlueGigaResponseQueue responseQueue = new BlueGigaResponseQueue(MAX_PENDING_PACKETS);
     private final Thread parserThread;
+    private final Thread dispatcherThread;
 
     public BlueGigaSerialHandler(final InputStream inputStream, final OutputStream outputStream) {
         this.outputStream = outputStream;
         this.inputStream = inputStream;
 
         flush();
+        dispatcherThread = createBlueGigaBLEDispatcher();
+        dispatcherThread.setDaemon(true);
+        dispatcherThread.start();
         parserThread = createBlueGigaBLEHandler();
         parserThread.setDaemon(true);
         parserThread.start();
@@ -116,18 +131,22 @@ public class BlueGigaSerialHandler {
         close = true;
         try {
             parserThread.interrupt();
+            dispatcherThread.interrupt();
             // Give a fair chance to shutdown nicely
             Thread.sleep(50);
             IOUtils.closeQuietly(outputStream);
             IOUtils.closeQuietly(inputStream);
             parserThread.join(0);
+            dispatcherThread.join(0);
         } catch (InterruptedException e) {
             logger.warn("Interrupted in packet parser thread shutdown join.");
         }
 
+        responseQueue.clear();
         handlerListeners.clear();
         eventListeners.clear();
-        logger.debug("Closed");
+        logger.debug("Closed, framing errors: {}, dropped packets: {}, coalesced packets: {}",
+                getFramingErrorCount(), getDroppedPacketCount(), getCoalescedPacketCount());
     }
 
     /**
@@ -139,6 +158,34 @@ public class BlueGigaSerialHandler {
         return parserThread.isAlive() && !close;
     }
 
+    /**
+     * Gets the number of framing errors in the received serial stream.
+     *
+     * @return number of framing errors
+     */
+    public long getFramingErrorCount() {
+        return frameParser.getFramingErrorCount();
+    }
+
+    /**
+     * Gets the number of advertisements dropped because the listeners could not keep up with the received packets.
+     *
+     * @return number of dropped packets
+     */
+    public long getDroppedPacketCount() {
+        return responseQueue.getDroppedPacketCount();
+    }
+
+    /**
+     * Gets the number of advertisements replaced by a newer advertisement of the same device before being delivered to
+     * the listeners.
+     *
+     * @return number of coalesced packets
+     */
+    public long getCoalescedPacketCount() {
+        return responseQueue.getCoalescedPacketCount();
+    }
+
     public void sendFrame(BlueGigaCommand bleFrame) throws IllegalStateException {
         sendFrame(bleFrame, true);
     }
@@ -233,69 +280,34 @@ public class BlueGigaSerialHandler {
     }
 
     private Thread createBlueGigaBLEHandler() {
-        final int framecheckParams[] = new int[] { 0x00, 0x7F, 0xC0, 0xF8, 0xE0 };
         return new Thread("BlueGigaBLEHandler") {
             @Override
             public void run() {
                 int exceptionCnt = 0;
                 logger.trace("BlueGiga BLE thread started");
-                int[] inputBuffer = new int[BLE_MAX_LENGTH];
-                int inputCount = 0;
-                int inputLength = 0;
 
                 while (!close) {
                     try {
-                        int val = inputStream.read();
-                        if (val == -1) {
+                        if (frameParser.readFrom(inputStream) <= 0) {
                             continue;
                         }
 
-                        inputBuffer[inputCount++] = val;
-
-                        if (inputCount == 1) {
-                            if (inputStream.markSupported()) {
-                                inputStream.mark(BLE_MAX_LENGTH);
-                            }
-                        }
-
-                        if (inputCount < 4) {
-                            // The BGAPI protocol has no packet framing, and no error detection, so we do a few
-                            // sanity checks on the header to try and allow resyncronisation should there be an
-                            // error.
-                            // Byte 0: Check technology type is bluetooth and high length is 0
-                            // Byte 1: Check length is less than 64 bytes
-                            // Byte 2: Check class ID is less than 8
-                            // Byte 3: Check command ID is less than 16
-                            if ((val & framecheckParams[inputCount]) != 0) {
-                                logger.debug("BlueGiga framing error byte {} = {}", inputCount, val);
-                                if (inputStream.markSupported()) {
-                                    inputStream.reset();
-                                }
-                                inputCount = 0;
-                                continue;
-                            }
-                        } else if (inputCount == 4) {
-                            // Process the header to get the length
-                            inputLength = inputBuffer[1] + (inputBuffer[0] & 0x02 << 8) + 4;
-                            if (inputLength > 64) {
-                                logger.debug("BLE length larger than 64 bytes ({})", inputLength);
-                            }
-                        }
-                        if (inputCount == inputLength) {
-                            // End of packet reached - process
-                            BlueGigaResponse responsePacket = BlueGigaResponsePackets.getPacket(inputBuffer);
+                        int[] frame;
+                        while ((frame = frameParser.nextFrame()) != null) {
+                            BlueGigaResponse responsePacket = BlueGigaResponsePackets.getPacket(frame);
 
                             if (logger.isTraceEnabled()) {
-                                logger.trace("BLE RX: {}", printHex(inputBuffer, inputLength));
+                                logger.trace("BLE RX: {}", printHex(frame, frame.length));
                                 logger.trace("BLE RX: {}", responsePacket);
                             }
                             if (responsePacket != null) {
-                                notifyEventListeners(responsePacket);
+                                if (!responseQueue.offer(responsePacket)) {
+                                    logger.trace("BLE RX queue full, dropped: {}", responsePacket);
+                                }
+                                LockSupport.unpark(dispatcherThread);
                             }
-
-                            inputCount = 0;
-                            exceptionCnt = 0;
                         }
+                        exceptionCnt = 0;
 
                     } catch (final IOException e) {
                         logger.debug("BlueGiga BLE IOException: ", e);
@@ -311,4 +323,22 @@ public class BlueGigaSerialHandler {
             }
         };
     }
+
+    private Thread createBlueGigaBLEDispatcher() {
+        return new Thread("BlueGigaBLEDispatcher") {
+            @Override
+            public void run() {
+                logger.trace("BlueGiga BLE dispatcher thread started");
+                while (!close) {
+                    BlueGigaResponse response = responseQueue.poll();
+                    if (response == null) {
+                        LockSupport.park(this);
+                        continue;
+                    }
+                    notifyEventListeners(response);
+                }
+                logger.debug("BlueGiga BLE dispatcher exited.");
+            }
+        };
+    }
 }
@@ -12,12 +12,12 @@
  */
 package org.openhab.binding.bluetooth.bluegiga.internal;
 
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
 import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.ExecutionException;
@@ -65,7 +65,7 @@ public class BlueGigaTransactionManager implements BlueGigaSerialEventListener {
      */
     private final Set<BlueGigaEventListener> eventListeners = new CopyOnWriteArraySet<>();
 
-    private final Queue<BlueGigaUniqueCommand> sendQueue = new LinkedList<>();
+    private final Queue<BlueGigaUniqueCommand> sendQueue = new ConcurrentLinkedQueue<>();
     private final ScheduledExecutorService executor;
     private final BlueGigaSerialHandler serialHandler;
 
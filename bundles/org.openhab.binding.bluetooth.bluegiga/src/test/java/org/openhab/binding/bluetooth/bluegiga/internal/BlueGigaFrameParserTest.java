@@ -0,0 +1,107 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.bluegiga.internal;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.Test;
+
+/**
+ * Tests {@link BlueGigaFrameParser}.
+ *
+ * @author Markus Lindqvist - Initial contribution
+ */
+@NonNullByDefault
+public class BlueGigaFrameParserTest {
+
+    private static final int[] HELLO_RESPONSE = { 0x00, 0x00, 0x00, 0x01 };
+    private static final int[] BOOT_EVENT = { 0x80, 0x0C, 0x00, 0x00, 0x01, 0x00, 0x03, 0x00, 0x01, 0x00, 0x7A,
+            0x00, 0x01, 0x00, 0x01, 0x02 };
+
+    @Test
+    public void testSeveralFramesInOneRead() throws IOException {
+        BlueGigaFrameParser parser = new BlueGigaFrameParser(256);
+        parser.readFrom(stream(HELLO_RESPONSE, BOOT_EVENT, HELLO_RESPONSE));
+
+        assertArrayEquals(HELLO_RESPONSE, parser.nextFrame());
+        assertArrayEquals(BOOT_EVENT, parser.nextFrame());
+        assertArrayEquals(HELLO_RESPONSE, parser.nextFrame());
+        assertNull(parser.nextFrame());
+        assertEquals(0, parser.getFramingErrorCount());
+    }
+
+    @Test
+    public void testFrameSplitOverReads() throws IOException {
+        BlueGigaFrameParser parser = new BlueGigaFrameParser(256);
+        parser.readFrom(stream(new int[] { 0x80, 0x0C }));
+        assertNull(parser.nextFrame());
+
+        parser.readFrom(stream(new int[] { 0x00, 0x00, 0x01, 0x00, 0x03 }));
+        assertNull(parser.nextFrame());
+
+        int[] rest = new int[BOOT_EVENT.length - 7];
+        System.arraycopy(BOOT_EVENT, 7, rest, 0, rest.length);
+        parser.readFrom(stream(rest));
+        assertArrayEquals(BOOT_EVENT, parser.nextFrame());
+        assertNull(parser.nextFrame());
+    }
+
+    @Test
+    public void testResynchronisationAfterFramingError() throws IOException {
+        BlueGigaFrameParser parser = new BlueGigaFrameParser(256);
+        parser.readFrom(stream(new int[] { 0x55, 0xFF }, HELLO_RESPONSE));
+
+        assertArrayEquals(HELLO_RESPONSE, parser.nextFrame());
+        assertNull(parser.nextFrame());
+        assertEquals(2, parser.getFramingErrorCount());
+    }
+
+    @Test
+    public void testCommandIdIsNotChecked() throws IOException {
+        int[] frame = { 0x00, 0x01, 0x07, 0xFF, 0x00 };
+        BlueGigaFrameParser parser = new BlueGigaFrameParser(256);
+        parser.readFrom(stream(frame));
+
+        assertArrayEquals(frame, parser.nextFrame());
+        assertEquals(0, parser.getFramingErrorCount());
+    }
+
+    @Test
+    public void testBufferReusedAfterFrames() throws IOException {
+        BlueGigaFrameParser parser = new BlueGigaFrameParser(32);
+        for (int cnt = 0; cnt < 10; cnt++) {
+            parser.readFrom(stream(BOOT_EVENT));
+            assertArrayEquals(BOOT_EVENT, parser.nextFrame());
+            assertNull(parser.nextFrame());
+        }
+    }
+
+    private static ByteArrayInputStream stream(int[]... frames) {
+        int length = 0;
+        for (int[] frame : frames) {
+            length += frame.length;
+        }
+        byte[] data = new byte[length];
+        int position = 0;
+        for (int[] frame : frames) {
+            for (int val : frame) {
+                data[position++] = (byte) val;
+            }
+        }
+        return new ByteArrayInputStream(data);
+    }
+}
@@ -0,0 +1,72 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.bluegiga.internal;
+
+import static org.junit.Assert.*;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.Test;
+import org.openhab.binding.bluetooth.bluegiga.internal.command.gap.BlueGigaScanResponseEvent;
+import org.openhab.binding.bluetooth.bluegiga.internal.command.system.BlueGigaHelloResponse;
+
+/**
+ * Tests {@link BlueGigaResponseQueue}.
+ *
+ * @author Markus Lindqvist - Initial contribution
+ */
+@NonNullByDefault
+public class BlueGigaResponseQueueTest {
+
+    @Test
+    public void testScanResponsesCoalescedPerAddress() {
+        BlueGigaResponseQueue queue = new BlueGigaResponseQueue(100);
+        BlueGigaScanResponseEvent first = scanResponse(0x01, -80);
+        BlueGigaScanResponseEvent other = scanResponse(0x02, -70);
+        BlueGigaScanResponseEvent latest = scanResponse(0x01, -60);
+
+        assertTrue(queue.offer(first));
+        assertTrue(queue.offer(other));
+        assertTrue(queue.offer(latest));
+
+        assertEquals(2, queue.size());
+        assertSame(latest, queue.poll());
+        assertSame(other, queue.poll());
+        assertNull(queue.poll());
+        assertEquals(1, queue.getCoalescedPacketCount());
+        assertEquals(0, queue.getDroppedPacketCount());
+    }
+
+    @Test
+    public void testOnlyScanResponsesDroppedWhenFull() {
+        BlueGigaResponseQueue queue = new BlueGigaResponseQueue(1);
+        BlueGigaScanResponseEvent first = scanResponse(0x01, -80);
+        BlueGigaScanResponseEvent latest = scanResponse(0x01, -60);
+        BlueGigaHelloResponse response = new BlueGigaHelloResponse(new int[] { 0x00, 0x00, 0x00, 0x01 });
+
+        assertTrue(queue.offer(first));
+        assertFalse(queue.offer(scanResponse(0x02, -70)));
+        assertTrue(queue.offer(latest));
+        assertTrue(queue.offer(response));
+
+        assertSame(latest, queue.poll());
+        assertSame(response, queue.poll());
+        assertNull(queue.poll());
+        assertEquals(1, queue.getDroppedPacketCount());
+        assertEquals(1, queue.getCoalescedPacketCount());
+    }
+
+    private static BlueGigaScanResponseEvent scanResponse(int address, int rssi) {
+        return new BlueGigaScanResponseEvent(new int[] { 0x80, 0x0B, 0x06, 0x00, rssi & 0xFF, 0x00, address, 0x00,
+                0x00, 0x00, 0x00, 0x00, 0x00, 0xFF, 0x00 });
+    }
+}
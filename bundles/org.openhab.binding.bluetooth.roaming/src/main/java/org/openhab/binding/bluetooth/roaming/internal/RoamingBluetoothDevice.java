@@ -41,6 +41,11 @@ import org.openhab.binding.bluetooth.notification.BluetoothScanNotification;
 @NonNullByDefault
 public class RoamingBluetoothDevice extends DelegateBluetoothDevice {
 
+    /**
+     * The RSSI in dB by which another adapter must exceed the current delegate before it takes over
+     */
+    private static final int DELEGATE_RSSI_HYSTERESIS = 3;
+
     private final Map<BluetoothDevice, Listener> devices = new ConcurrentHashMap<>();
 
     private final List<BluetoothDeviceListener> eventListeners = new CopyOnWriteArrayList<>();
@@ -66,6 +71,7 @@ public class RoamingBluetoothDevice extends DelegateBluetoothDevice {
 
     @Override
     protected @Nullable BluetoothDevice getDelegate() {
+        BluetoothDevice currentDelegate = currentDelegateRef.get();
         BluetoothDevice newDelegate = null;
         int newRssi = Integer.MIN_VALUE;
         for (BluetoothDevice device : devices.keySet()) {
@@ -75,9 +81,13 @@ public class RoamingBluetoothDevice extends DelegateBluetoothDevice {
                 break;
             }
             Integer rssi = device.getRssi();
-            if (rssi != null && (newDelegate == null || rssi > newRssi)) {
-                newRssi = rssi;
-                newDelegate = device;
+            if (rssi != null) {
+                // the current delegate gets a head start so that similar signals don't make the delegate flap
+                int effectiveRssi = device == currentDelegate ? rssi + DELEGATE_RSSI_HYSTERESIS : rssi;
+                if (newDelegate == null || effectiveRssi > newRssi) {
+                    newRssi = effectiveRssi;
+                    newDelegate = device;
+                }
             }
         }
         BluetoothDevice oldDelegate = currentDelegateRef.getAndSet(newDelegate);
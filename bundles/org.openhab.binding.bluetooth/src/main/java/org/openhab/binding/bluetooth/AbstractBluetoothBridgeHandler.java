@@ -125,6 +125,9 @@ public abstract class AbstractBluetoothBridgeHandler<BD extends BaseBluetoothDev
     }
 
     protected void removeDevice(BD device) {
+        BluetoothAdvertisementFilter filter = device.getAdvertisementFilter();
+        logger.debug("Removing device '{}', dropped scan records: {} repeated, {} rate limited", device.getAddress(),
+                filter.getDroppedDuplicates(), filter.getDroppedRateLimited());
         device.dispose();
         synchronized (devices) {
             devices.remove(device.getAddress());
@@ -192,6 +195,16 @@ public abstract class AbstractBluetoothBridgeHandler<BD extends BaseBluetoothDev
 
     protected abstract BD createDevice(BluetoothAddress address);
 
+    @Override
+    public BluetoothAdvertisementFilter createAdvertisementFilter() {
+        try {
+            return new BluetoothAdvertisementFilter(config.rssiSmoothing, config.scanRecordInterval);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid scan record filter configuration, not smoothing RSSI: {}", e.getMessage());
+            return new BluetoothAdvertisementFilter();
+        }
+    }
+
     @Override
     public boolean hasHandlerForDevice(BluetoothAddress address) {
         String addrStr = address.toString();
@@ -22,6 +22,7 @@ import java.util.concurrent.CopyOnWriteArraySet;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.bluetooth.notification.BluetoothScanNotification;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -80,6 +81,11 @@ public abstract class BaseBluetoothDevice extends BluetoothDevice {
      */
     private final Set<BluetoothDeviceListener> eventListeners = new CopyOnWriteArraySet<>();
 
+    /**
+     * Filter applied to the scan records before notifying the listeners
+     */
+    private final BluetoothAdvertisementFilter advertisementFilter;
+
     /**
      * Construct a Bluetooth device taking the Bluetooth address
      *
@@ -88,6 +94,7 @@ public abstract class BaseBluetoothDevice extends BluetoothDevice {
      */
     public BaseBluetoothDevice(BluetoothAdapter adapter, BluetoothAddress address) {
         super(adapter, address);
+        advertisementFilter = adapter.createAdvertisementFilter();
     }
 
     /**
@@ -245,6 +252,15 @@ public abstract class BaseBluetoothDevice extends BluetoothDevice {
         return false;
     }
 
+    /**
+     * Returns the filter applied to the scan records of this device
+     *
+     * @return the {@link BluetoothAdvertisementFilter} of this device
+     */
+    public BluetoothAdvertisementFilter getAdvertisementFilter() {
+        return advertisementFilter;
+    }
+
     @Override
     protected Collection<BluetoothDeviceListener> getListeners() {
         return eventListeners;
@@ -262,6 +278,16 @@ public abstract class BaseBluetoothDevice extends BluetoothDevice {
     protected void notifyListeners(BluetoothEventType event, Object... args) {
         switch (event) {
             case SCAN_RECORD:
+                updateLastSeenTime();
+                boolean forward = advertisementFilter.filter((BluetoothScanNotification) args[0]);
+                Integer smoothedRssi = advertisementFilter.getRssi();
+                if (smoothedRssi != null) {
+                    rssi = smoothedRssi;
+                }
+                if (!forward) {
+                    return;
+                }
+                break;
             case CHARACTERISTIC_UPDATED:
             case DESCRIPTOR_UPDATED:
             case SERVICES_DISCOVERED:
@@ -99,4 +99,13 @@ public interface BluetoothAdapter extends Identifiable<ThingUID> {
      * @return true if this adapter has a {@link BluetoothDevice} with that address
      */
     boolean hasHandlerForDevice(BluetoothAddress address);
+
+    /**
+     * Creates the {@link BluetoothAdvertisementFilter} applied to the scan records of a device of this adapter.
+     *
+     * @return a new {@link BluetoothAdvertisementFilter}
+     */
+    default BluetoothAdvertisementFilter createAdvertisementFilter() {
+        return new BluetoothAdvertisementFilter();
+    }
 }
@@ -0,0 +1,168 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.bluetooth.notification.BluetoothScanNotification;
+import org.openhab.binding.bluetooth.notification.BluetoothScanNotification.BluetoothBeaconType;
+
+/**
+ * The {@link BluetoothAdvertisementFilter} reduces the scan records of a device before they reach the listeners of the
+ * device.
+ * <p>
+ * The RSSI of the scan records is smoothed with an exponential moving average. Scan records repeating the data of the
+ * last forwarded record are dropped unless the smoothed RSSI moved by at least {@link #RSSI_CHANGE_THRESHOLD} dBm.
+ * Optionally, such scan records with a changed RSSI only are forwarded at most once per minimum interval. Scan records
+ * with changed data are always forwarded, so the last state of a device that stops advertising is never lost.
+ *
+ * @author Markus Lindqvist - Initial contribution
+ */
+@NonNullByDefault
+public class BluetoothAdvertisementFilter {
+
+    /**
+     * Minimum change of the smoothed RSSI in dBm for forwarding a scan record with unchanged data
+     */
+    public static final int RSSI_CHANGE_THRESHOLD = 2;
+
+    private final double rssiSmoothing;
+    private final long minIntervalNanos;
+
+    private double smoothedRssi = Double.NaN;
+
+    private boolean forwarded = false;
+    private long lastForwardTime;
+    private int lastRssi = Integer.MIN_VALUE;
+    private byte @Nullable [] lastData;
+    private byte @Nullable [] lastManufacturerData;
+    private @Nullable BluetoothBeaconType lastBeaconType;
+    private @Nullable String lastDeviceName;
+
+    private long droppedDuplicates = 0;
+    private long droppedRateLimited = 0;
+
+    /**
+     * Creates a filter that only drops repeated scan records, without RSSI smoothing.
+     */
+    public BluetoothAdvertisementFilter() {
+        this(1.0, 0);
+    }
+
+    /**
+     * Creates a filter
+     *
+     * @param rssiSmoothing weight of a new RSSI value in the smoothed RSSI, between 0 (exclusive) and 1. A value of 1
+     *            disables smoothing.
+     * @param minInterval minimum interval between forwarded scan records with unchanged data in milliseconds, 0 for
+     *            no limit
+     */
+    public BluetoothAdvertisementFilter(double rssiSmoothing, long minInterval) {
+        if (!(rssiSmoothing > 0 && rssiSmoothing <= 1)) {
+            throw new IllegalArgumentException("RSSI smoothing must be greater than 0 and at most 1: " + rssiSmoothing);
+        }
+        if (minInterval < 0) {
+            throw new IllegalArgumentException("Minimum interval must not be negative: " + minInterval);
+        }
+        this.rssiSmoothing = rssiSmoothing;
+        this.minIntervalNanos = minInterval * 1000000L;
+    }
+
+    /**
+     * Applies the filter to a scan record. The RSSI of the scan record is replaced by the smoothed RSSI.
+     *
+     * @param notification the scan record received from the device
+     * @return true if the scan record should be forwarded to the listeners, false if it should be dropped
+     */
+    public synchronized boolean filter(BluetoothScanNotification notification) {
+        int rssi = notification.getRssi();
+        if (rssi != Integer.MIN_VALUE) {
+            rssi = smoothRssi(rssi);
+            notification.setRssi(rssi);
+        }
+
+        boolean sameData = forwarded && isSameData(notification);
+        if (sameData && !isRssiChanged(rssi)) {
+            droppedDuplicates++;
+            return false;
+        }
+
+        long now = System.nanoTime();
+        if (sameData && minIntervalNanos > 0 && now - lastForwardTime < minIntervalNanos) {
+            droppedRateLimited++;
+            return false;
+        }
+
+        forwarded = true;
+        lastForwardTime = now;
+        lastRssi = rssi;
+        lastData = notification.getData();
+        lastManufacturerData = notification.getManufacturerData();
+        lastBeaconType = notification.getBeaconType();
+        lastDeviceName = notification.getDeviceName();
+        return true;
+    }
+
+    private int smoothRssi(int rssi) {
+        if (Double.isNaN(smoothedRssi)) {
+            smoothedRssi = rssi;
+        } else {
+            smoothedRssi += rssiSmoothing * (rssi - smoothedRssi);
+        }
+        return (int) Math.round(smoothedRssi);
+    }
+
+    private boolean isSameData(BluetoothScanNotification notification) {
+        return Arrays.equals(lastData, notification.getData())
+                && Arrays.equals(lastManufacturerData, notification.getManufacturerData())
+                && lastBeaconType == notification.getBeaconType()
+                && Objects.equals(lastDeviceName, notification.getDeviceName());
+    }
+
+    private boolean isRssiChanged(int rssi) {
+        if (rssi == Integer.MIN_VALUE || lastRssi == Integer.MIN_VALUE) {
+            return rssi != lastRssi;
+        }
+        return Math.abs(rssi - lastRssi) >= RSSI_CHANGE_THRESHOLD;
+    }
+
+    /**
+     * Returns the smoothed RSSI
+     *
+     * @return the smoothed RSSI in dBm, or null if no RSSI has been received
+     */
+    public synchronized @Nullable Integer getRssi() {
+        return Double.isNaN(smoothedRssi) ? null : (int) Math.round(smoothedRssi);
+    }
+
+    /**
+     * Returns the number of scan records dropped because they repeated the last forwarded one
+     *
+     * @return the number of dropped scan records
+     */
+    public synchronized long getDroppedDuplicates() {
+        return droppedDuplicates;
+    }
+
+    /**
+     * Returns the number of scan records with unchanged data dropped because of the minimum interval
+     *
+     * @return the number of dropped scan records
+     */
+    public synchronized long getDroppedRateLimited() {
+        return droppedRateLimited;
+    }
+}
@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth;
+
+import static org.junit.Assert.*;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.Test;
+import org.openhab.binding.bluetooth.notification.BluetoothScanNotification;
+
+/**
+ * Tests {@link BluetoothAdvertisementFilter}.
+ *
+ * @author Markus Lindqvist - Initial contribution
+ */
+@NonNullByDefault
+public class BluetoothAdvertisementFilterTest {
+
+    private static BluetoothScanNotification scanRecord(int rssi, byte... data) {
+        BluetoothScanNotification notification = new BluetoothScanNotification();
+        notification.setRssi(rssi);
+        notification.setData(data);
+        return notification;
+    }
+
+    @Test
+    public void testRepeatedScanRecordDropped() {
+        BluetoothAdvertisementFilter filter = new BluetoothAdvertisementFilter();
+
+        assertTrue(filter.filter(scanRecord(-60, (byte) 1, (byte) 2)));
+        assertFalse(filter.filter(scanRecord(-60, (byte) 1, (byte) 2)));
+        assertFalse(filter.filter(scanRecord(-61, (byte) 1, (byte) 2)));
+        assertEquals(2, filter.getDroppedDuplicates());
+    }
+
+    @Test
+    public void testRssiChangeForwarded() {
+        BluetoothAdvertisementFilter filter = new BluetoothAdvertisementFilter();
+
+        assertTrue(filter.filter(scanRecord(-60, (byte) 1)));
+        assertTrue(filter.filter(scanRecord(-60 - BluetoothAdvertisementFilter.RSSI_CHANGE_THRESHOLD, (byte) 1)));
+    }
+
+    @Test
+    public void testDataChangeForwarded() {
+        BluetoothAdvertisementFilter filter = new BluetoothAdvertisementFilter();
+
+        assertTrue(filter.filter(scanRecord(-60, (byte) 1)));
+        assertTrue(filter.filter(scanRecord(-60, (byte) 2)));
+        assertEquals(0, filter.getDroppedDuplicates());
+    }
+
+    @Test
+    public void testMinimumInterval() {
+        BluetoothAdvertisementFilter filter = new BluetoothAdvertisementFilter(1.0, 60000);
+
+        assertTrue(filter.filter(scanRecord(-60, (byte) 1)));
+        assertFalse(filter.filter(scanRecord(-60 - BluetoothAdvertisementFilter.RSSI_CHANGE_THRESHOLD, (byte) 1)));
+        assertEquals(1, filter.getDroppedRateLimited());
+    }
+
+    @Test
+    public void testDataChangeForwardedWithinInterval() {
+        BluetoothAdvertisementFilter filter = new BluetoothAdvertisementFilter(1.0, 60000);
+
+        assertTrue(filter.filter(scanRecord(-60, (byte) 1)));
+        assertTrue(filter.filter(scanRecord(-60, (byte) 2)));
+        assertTrue(filter.filter(scanRecord(-60, (byte) 3)));
+        assertFalse(filter.filter(scanRecord(-60 - BluetoothAdvertisementFilter.RSSI_CHANGE_THRESHOLD, (byte) 3)));
+        assertEquals(0, filter.getDroppedDuplicates());
+        assertEquals(1, filter.getDroppedRateLimited());
+    }
+
+    @Test
+    public void testRssiSmoothing() {
+        BluetoothAdvertisementFilter filter = new BluetoothAdvertisementFilter(0.5, 0);
+        assertNull(filter.getRssi());
+
+        BluetoothScanNotification first = scanRecord(-60, (byte) 1);
+        filter.filter(first);
+        assertEquals(-60, first.getRssi());
+
+        BluetoothScanNotification second = scanRecord(-80, (byte) 1);
+        filter.filter(second);
+        assertEquals(-70, second.getRssi());
+        assertEquals(-70, (int) filter.getRssi());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidSmoothing() {
+        new BluetoothAdvertisementFilter(0, 0);
+    }
+}
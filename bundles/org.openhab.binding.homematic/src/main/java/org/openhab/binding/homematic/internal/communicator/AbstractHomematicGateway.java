@@ -14,6 +14,7 @@ package org.openhab.binding.homematic.internal.communicator;
 
 import static org.openhab.binding.homematic.internal.misc.HomematicConstants.*;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -31,6 +32,7 @@ import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang.StringUtils;
 import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.smarthome.config.core.ConfigConstants;
 import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.openhab.binding.homematic.internal.common.HomematicConfig;
 import org.openhab.binding.homematic.internal.communicator.client.BinRpcClient;
@@ -90,6 +92,7 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
     public static final double DEFAULT_DISABLE_DELAY = 2.0;
     private static final long CONNECTION_TRACKER_INTERVAL_SECONDS = 15;
     private static final String GATEWAY_POOL_NAME = "homematicGateway";
+    private static final String METADATA_CACHE_FOLDER = "homematic";
 
     private final Map<TransferMode, RpcClient<?>> rpcClients = new HashMap<>();
     private final Map<TransferMode, RpcServer> rpcServers = new HashMap<>();
@@ -371,6 +374,11 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
         // load all device descriptions
         List<HmDevice> deviceDescriptions = getDeviceDescriptions();
 
+        // paramset descriptions of known device types and firmware versions are restored from the metadata cache
+        HomematicMetadataCache metadataCache = new HomematicMetadataCache(getMetadataCacheFile());
+        metadataCache.load();
+        metadataCache.retainDevices(deviceDescriptions);
+
         // loading datapoints for all channels
         Set<String> loadedDevices = new HashSet<>();
         Map<String, Collection<HmDatapoint>> datapointsByChannelIdCache = new HashMap<>();
@@ -397,6 +405,8 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
                                 if (cachedDatapoints != null) {
                                     // clone all datapoints
                                     cloneAllDatapointsIntoChannel(channel, cachedDatapoints);
+                                } else if (metadataCache.restoreDatapoints(channel)) {
+                                    datapointsByChannelIdCache.put(channelId, channel.getDatapoints());
                                 } else {
                                     logger.trace("    Loading datapoints into channel {}", channel);
                                     addChannelDatapoints(channel, HmParamsetType.MASTER);
@@ -406,6 +416,7 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
                                     // the data point set might change depending on the selected mode.
                                     if (!channel.isReconfigurable()) {
                                         datapointsByChannelIdCache.put(channelId, channel.getDatapoints());
+                                        metadataCache.putDatapoints(channel);
                                     }
                                 }
                             }
@@ -423,9 +434,18 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
         if (!cancelLoadAllMetadata) {
             devices.keySet().retainAll(loadedDevices);
         }
+        metadataCache.save();
         initialized = true;
     }
 
+    /**
+     * Returns the file of the metadata cache of this gateway.
+     */
+    protected File getMetadataCacheFile() {
+        return new File(ConfigConstants.getUserDataFolder() + File.separator + METADATA_CACHE_FOLDER + File.separator
+                + id.replaceAll("[^\\w-]", "_") + ".json");
+    }
+
     /**
      * Loads all datapoints from the gateway.
      */
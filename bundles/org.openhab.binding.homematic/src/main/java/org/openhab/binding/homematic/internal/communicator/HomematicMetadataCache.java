@@ -0,0 +1,281 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.openhab.binding.homematic.internal.model.HmChannel;
+import org.openhab.binding.homematic.internal.model.HmDatapoint;
+import org.openhab.binding.homematic.internal.model.HmDevice;
+import org.openhab.binding.homematic.internal.model.HmParamsetType;
+import org.openhab.binding.homematic.internal.model.HmValueType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+
+/**
+ * Persistent cache for the datapoint metadata of the channels, keyed by device type and firmware version.
+ * <p>
+ * The paramset descriptions of a device only change with its type and firmware, so they are loaded once from the
+ * gateway and restored from the cache file on later starts. Entries of device types and firmware versions no longer
+ * listed by the gateway are removed. Only channels without a channel function are cached, because the datapoints of
+ * reconfigurable channels depend on the selected function. This class is not thread safe.
+ *
+ * @author Markus Lindqvist - Initial contribution
+ */
+public class HomematicMetadataCache {
+    private final Logger logger = LoggerFactory.getLogger(HomematicMetadataCache.class);
+    private static final int VERSION = 1;
+
+    private final Gson gson = new GsonBuilder().create();
+    private final File file;
+    private Map<String, Map<Integer, List<CachedDatapoint>>> channelsByDevice = new HashMap<>();
+    private boolean modified;
+
+    public HomematicMetadataCache(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Loads the cache from the file. An empty cache is used if the file does not exist or can't be read.
+     */
+    public void load() {
+        channelsByDevice = new HashMap<>();
+        modified = false;
+        if (!file.exists()) {
+            return;
+        }
+        try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            CacheFile cacheFile = gson.fromJson(reader, CacheFile.class);
+            if (cacheFile != null && cacheFile.version == VERSION && cacheFile.devices != null) {
+                channelsByDevice = cacheFile.devices;
+                logger.debug("Loaded metadata of {} device type(s) from '{}'", channelsByDevice.size(), file);
+            } else {
+                logger.debug("Ignoring metadata cache '{}' with unknown version", file);
+            }
+        } catch (IOException | JsonParseException ex) {
+            logger.warn("Can't read Homematic metadata cache '{}': {}", file, ex.getMessage());
+        }
+    }
+
+    /**
+     * Saves the cache to the file, if it has been modified since loading.
+     */
+    public void save() {
+        if (!modified) {
+            return;
+        }
+        CacheFile cacheFile = new CacheFile();
+        cacheFile.version = VERSION;
+        cacheFile.devices = channelsByDevice;
+        try {
+            File folder = file.getAbsoluteFile().getParentFile();
+            if (folder != null && !folder.exists() && !folder.mkdirs()) {
+                throw new IOException("Can't create folder " + folder);
+            }
+            // write a temporary file first, an interrupted write must not leave a truncated cache behind
+            File tempFile = new File(file.getPath() + ".tmp");
+            try (Writer writer = Files.newBufferedWriter(tempFile.toPath(), StandardCharsets.UTF_8)) {
+                gson.toJson(cacheFile, writer);
+            }
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            modified = false;
+            logger.debug("Saved metadata of {} device type(s) to '{}'", channelsByDevice.size(), file);
+        } catch (IOException ex) {
+            logger.warn("Can't write Homematic metadata cache '{}': {}", file, ex.getMessage());
+        }
+    }
+
+    /**
+     * Removes the metadata of all device types and firmware versions which are not used by the given devices.
+     */
+    public void retainDevices(Collection<HmDevice> devices) {
+        Set<String> deviceKeys = new HashSet<>();
+        for (HmDevice device : devices) {
+            deviceKeys.add(getDeviceKey(device));
+        }
+        if (channelsByDevice.keySet().retainAll(deviceKeys)) {
+            modified = true;
+        }
+    }
+
+    /**
+     * Adds the cached datapoints to the channel.
+     *
+     * @return true, if the datapoints of the channel were found in the cache
+     */
+    public boolean restoreDatapoints(HmChannel channel) {
+        Map<Integer, List<CachedDatapoint>> channels = channelsByDevice.get(getDeviceKey(channel.getDevice()));
+        List<CachedDatapoint> cachedDatapoints = channels == null ? null : channels.get(channel.getNumber());
+        if (cachedDatapoints == null) {
+            return false;
+        }
+        List<HmDatapoint> datapoints = new ArrayList<>();
+        try {
+            for (CachedDatapoint cachedDp : cachedDatapoints) {
+                datapoints.add(cachedDp.toDatapoint());
+            }
+        } catch (RuntimeException ex) {
+            logger.debug("Ignoring invalid cached metadata of channel {}: {}", channel, ex.getMessage());
+            channels.remove(channel.getNumber());
+            modified = true;
+            return false;
+        }
+        logger.trace("    Restoring {} datapoints into channel {}", datapoints.size(), channel);
+        for (HmDatapoint dp : datapoints) {
+            channel.addDatapoint(dp);
+        }
+        return true;
+    }
+
+    /**
+     * Stores the datapoints of the channel in the cache. Reconfigurable channels are not cached.
+     */
+    public void putDatapoints(HmChannel channel) {
+        if (channel.isReconfigurable()) {
+            return;
+        }
+        List<CachedDatapoint> cachedDatapoints = new ArrayList<>();
+        for (HmDatapoint dp : channel.getDatapoints()) {
+            if (!dp.isVirtual()) {
+                cachedDatapoints.add(new CachedDatapoint(dp));
+            }
+        }
+        channelsByDevice.computeIfAbsent(getDeviceKey(channel.getDevice()), key -> new HashMap<>())
+                .put(channel.getNumber(), cachedDatapoints);
+        modified = true;
+    }
+
+    private static String getDeviceKey(HmDevice device) {
+        return String.format("%s:%s", device.getType(), device.getFirmware());
+    }
+
+    /**
+     * Content of the cache file.
+     */
+    private static class CacheFile {
+        int version;
+        Map<String, Map<Integer, List<CachedDatapoint>>> devices;
+    }
+
+    /**
+     * Metadata of a datapoint. Numbers and the default value are stored together with their Java type, e.g.
+     * <code>Integer:5</code>, so that they are restored with the same type as received from the gateway.
+     */
+    private static class CachedDatapoint {
+        String name;
+        String description;
+        HmValueType type;
+        HmParamsetType paramsetType;
+        String minValue;
+        String maxValue;
+        String step;
+        String[] options;
+        boolean readOnly;
+        boolean readable;
+        String info;
+        String unit;
+        boolean trigger;
+        String defaultValue;
+
+        CachedDatapoint() {
+            // used by Gson
+        }
+
+        CachedDatapoint(HmDatapoint dp) {
+            name = dp.getName();
+            description = dp.getDescription();
+            type = dp.getType();
+            paramsetType = dp.getParamsetType();
+            minValue = encode(dp.getMinValue());
+            maxValue = encode(dp.getMaxValue());
+            step = encode(dp.getStep());
+            options = dp.getOptions();
+            readOnly = dp.isReadOnly();
+            readable = dp.isReadable();
+            info = dp.getInfo();
+            unit = dp.getUnit();
+            trigger = dp.isTrigger();
+            defaultValue = encode(dp.getDefaultValue());
+        }
+
+        HmDatapoint toDatapoint() {
+            HmDatapoint dp = new HmDatapoint(name, description, type, null, readOnly, paramsetType);
+            dp.setMinValue((Number) decode(minValue));
+            dp.setMaxValue((Number) decode(maxValue));
+            dp.setStep((Number) decode(step));
+            dp.setOptions(options);
+            dp.setReadable(readable);
+            dp.setInfo(info);
+            dp.setUnit(unit);
+            dp.setTrigger(trigger);
+            dp.setDefaultValue(decode(defaultValue));
+            return dp;
+        }
+
+        private static String encode(Object value) {
+            if (value == null) {
+                return null;
+            } else if (value instanceof Boolean || value instanceof Integer || value instanceof Long
+                    || value instanceof Float || value instanceof Double) {
+                return value.getClass().getSimpleName() + ":" + value;
+            } else if (value instanceof Number) {
+                return "Double:" + ((Number) value).doubleValue();
+            } else {
+                return "String:" + value;
+            }
+        }
+
+        private static Object decode(String value) {
+            if (value == null) {
+                return null;
+            }
+            int separator = value.indexOf(':');
+            if (separator < 0) {
+                return value;
+            }
+            String valueType = value.substring(0, separator);
+            String text = value.substring(separator + 1);
+            switch (valueType) {
+                case "Boolean":
+                    return Boolean.valueOf(text);
+                case "Integer":
+                    return Integer.valueOf(text);
+                case "Long":
+                    return Long.valueOf(text);
+                case "Float":
+                    return Float.valueOf(text);
+                case "Double":
+                    return Double.valueOf(text);
+                default:
+                    return text;
+            }
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.homematic.internal.misc.HomematicConstants;
+import org.openhab.binding.homematic.internal.model.HmChannel;
+import org.openhab.binding.homematic.internal.model.HmDatapoint;
+import org.openhab.binding.homematic.internal.model.HmDevice;
+import org.openhab.binding.homematic.internal.model.HmInterface;
+import org.openhab.binding.homematic.internal.model.HmParamsetType;
+import org.openhab.binding.homematic.internal.model.HmValueType;
+
+/**
+ * Tests for {@link HomematicMetadataCache}.
+ *
+ * @author Markus Lindqvist - Initial contribution
+ */
+public class HomematicMetadataCacheTest {
+
+    private File file;
+
+    @Before
+    public void setup() throws IOException {
+        file = File.createTempFile("homematic", ".json");
+        file.delete();
+    }
+
+    @After
+    public void cleanup() {
+        file.delete();
+    }
+
+    @Test
+    public void testDatapointsRestoredAfterReload() {
+        HmChannel channel = createChannel("HM-LC-Dim1T-FM", "2.9");
+        HmDatapoint level = new HmDatapoint("LEVEL", "LEVEL", HmValueType.FLOAT, 0.0, false, HmParamsetType.VALUES);
+        level.setMinValue(0);
+        level.setMaxValue(1.01);
+        level.setDefaultValue(0.0);
+        level.setUnit("100%");
+        channel.addDatapoint(level);
+        HmDatapoint mode = new HmDatapoint("MODE", "MODE", HmValueType.ENUM, 1, true, HmParamsetType.MASTER);
+        mode.setOptions(new String[] { "OFF", "ON" });
+        mode.setDefaultValue(1);
+        channel.addDatapoint(mode);
+
+        HomematicMetadataCache cache = new HomematicMetadataCache(file);
+        cache.load();
+        cache.putDatapoints(channel);
+        cache.save();
+
+        HmChannel restoredChannel = createChannel("HM-LC-Dim1T-FM", "2.9");
+        HomematicMetadataCache reloadedCache = new HomematicMetadataCache(file);
+        reloadedCache.load();
+        assertThat(reloadedCache.restoreDatapoints(restoredChannel), is(true));
+
+        HmDatapoint restoredLevel = restoredChannel.getDatapoint(HmParamsetType.VALUES, "LEVEL");
+        assertThat(restoredLevel.getType(), is(HmValueType.FLOAT));
+        assertThat(restoredLevel.getMinValue(), is((Number) 0));
+        assertThat(restoredLevel.getMaxValue(), is((Number) 1.01));
+        assertThat(restoredLevel.getDefaultValue(), is((Object) 0.0));
+        assertThat(restoredLevel.getUnit(), is("100%"));
+        assertThat(restoredLevel.getValue(), is(nullValue()));
+        assertThat(restoredLevel.getChannel(), is(restoredChannel));
+
+        HmDatapoint restoredMode = restoredChannel.getDatapoint(HmParamsetType.MASTER, "MODE");
+        assertThat(restoredMode.isReadOnly(), is(true));
+        assertThat(restoredMode.getOptions(), is(new String[] { "OFF", "ON" }));
+        assertThat(restoredMode.getDefaultValue(), is((Object) 1));
+    }
+
+    @Test
+    public void testChangedFirmwareIsNotRestored() {
+        HomematicMetadataCache cache = new HomematicMetadataCache(file);
+        cache.load();
+        HmChannel channel = createChannel("HM-Sec-SC-2", "2.6");
+        channel.addDatapoint(new HmDatapoint("STATE", "STATE", HmValueType.BOOL, null, true, HmParamsetType.VALUES));
+        cache.putDatapoints(channel);
+        cache.save();
+
+        HmChannel updatedChannel = createChannel("HM-Sec-SC-2", "2.7");
+        cache.load();
+        cache.retainDevices(Collections.singletonList(updatedChannel.getDevice()));
+        assertThat(cache.restoreDatapoints(updatedChannel), is(false));
+        assertThat(cache.restoreDatapoints(createChannel("HM-Sec-SC-2", "2.6")), is(false));
+    }
+
+    @Test
+    public void testRetainedDeviceIsRestored() {
+        HomematicMetadataCache cache = new HomematicMetadataCache(file);
+        cache.load();
+        HmChannel channel = createChannel("HM-Sec-SC-2", "2.6");
+        channel.addDatapoint(new HmDatapoint("STATE", "STATE", HmValueType.BOOL, null, true, HmParamsetType.VALUES));
+        cache.putDatapoints(channel);
+
+        HmChannel otherChannel = createChannel("HM-CC-RT-DN", "1.4");
+        cache.retainDevices(Arrays.asList(channel.getDevice(), otherChannel.getDevice()));
+        assertThat(cache.restoreDatapoints(createChannel("HM-Sec-SC-2", "2.6")), is(true));
+        assertThat(cache.restoreDatapoints(otherChannel), is(false));
+    }
+
+    @Test
+    public void testReconfigurableChannelIsNotCached() {
+        HomematicMetadataCache cache = new HomematicMetadataCache(file);
+        cache.load();
+        HmChannel channel = createChannel("HmIP-DRSI1", "1.4.2");
+        channel.addDatapoint(new HmDatapoint(HomematicConstants.DATAPOINT_NAME_CHANNEL_FUNCTION,
+                HomematicConstants.DATAPOINT_NAME_CHANNEL_FUNCTION, HmValueType.ENUM, 0, false,
+                HmParamsetType.MASTER));
+        cache.putDatapoints(channel);
+        cache.save();
+
+        assertThat(file.exists(), is(false));
+        assertThat(cache.restoreDatapoints(createChannel("HmIP-DRSI1", "1.4.2")), is(false));
+    }
+
+    private HmChannel createChannel(String type, String firmware) {
+        HmDevice device = new HmDevice("ABC1234567", HmInterface.RF, type, "ccu", null, firmware);
+        HmChannel channel = new HmChannel(type, 1);
+        device.addChannel(channel);
+        return channel;
+    }
+}
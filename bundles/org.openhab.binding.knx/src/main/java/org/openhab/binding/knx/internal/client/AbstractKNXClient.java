@@ -12,12 +12,17 @@
  */
 package org.openhab.binding.knx.internal.client;
 
+import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CopyOnWriteArraySet;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -64,6 +69,7 @@ import tuwien.auto.calimero.process.ProcessListener;
 public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClient {
 
     private static final int MAX_SEND_ATTEMPTS = 2;
+    private static final int MAX_TELEGRAMS_PER_DISPATCH = 100;
 
     private final Logger logger = LoggerFactory.getLogger(AbstractKNXClient.class);
     private final KNXTypeMapper typeHelper = new KNXCoreTypeMapper();
@@ -86,13 +92,34 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
     private @Nullable ScheduledFuture<?> connectJob;
 
     private final Set<GroupAddressListener> groupAddressListeners = new CopyOnWriteArraySet<>();
-    private final LinkedBlockingQueue<ReadDatapoint> readDatapoints = new LinkedBlockingQueue<>();
+    // Listeners by the group addresses they listen to, and the listeners which did not tell their group addresses
+    private final Map<GroupAddress, Set<GroupAddressListener>> listenersByGroupAddress = new ConcurrentHashMap<>();
+    private final Map<GroupAddressListener, Set<GroupAddress>> indexedGroupAddresses = new ConcurrentHashMap<>();
+    private final Set<GroupAddressListener> unindexedListeners = new CopyOnWriteArraySet<>();
+    private final ReadDatapointQueue readDatapoints = new ReadDatapointQueue();
+
+    private final Queue<Telegram> pendingTelegrams = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean dispatchScheduled = new AtomicBoolean();
 
     @FunctionalInterface
     private interface ListenerNotification {
         void apply(BusMessageListener listener, IndividualAddress source, GroupAddress destination, byte[] asdu);
     }
 
+    private static class Telegram {
+        final ListenerNotification action;
+        final IndividualAddress source;
+        final GroupAddress destination;
+        final byte[] asdu;
+
+        Telegram(ListenerNotification action, IndividualAddress source, GroupAddress destination, byte[] asdu) {
+            this.action = action;
+            this.source = source;
+            this.destination = destination;
+            this.asdu = asdu;
+        }
+    }
+
     @NonNullByDefault({})
     private final ProcessListener processListener = new ProcessListener() {
 
@@ -246,18 +273,71 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
         return null;
     }
 
+    /**
+     * Queues the telegram for the listeners. The queued telegrams are dispatched in batches by a single task, in the
+     * order they were received.
+     */
     private void processEvent(String task, ProcessEvent event, ListenerNotification action) {
         GroupAddress destination = event.getDestination();
         IndividualAddress source = event.getSourceAddr();
         byte[] asdu = event.getASDU();
         logger.trace("Received a {} telegram from '{}' to '{}' with value '{}'", task, source, destination, asdu);
-        for (GroupAddressListener listener : groupAddressListeners) {
-            if (listener.listensTo(destination)) {
-                knxScheduler.schedule(() -> action.apply(listener, source, destination, asdu), 0, TimeUnit.SECONDS);
+        pendingTelegrams.add(new Telegram(action, source, destination, asdu));
+        scheduleDispatch();
+    }
+
+    private void scheduleDispatch() {
+        if (dispatchScheduled.compareAndSet(false, true)) {
+            try {
+                knxScheduler.execute(this::dispatchTelegrams);
+            } catch (RejectedExecutionException e) {
+                dispatchScheduled.set(false);
+                logger.debug("Could not dispatch received telegrams: {}", e.getMessage());
             }
         }
     }
 
+    private void dispatchTelegrams() {
+        try {
+            Telegram telegram;
+            int count = 0;
+            while (count < MAX_TELEGRAMS_PER_DISPATCH && (telegram = pendingTelegrams.poll()) != null) {
+                dispatch(telegram);
+                count++;
+            }
+        } finally {
+            dispatchScheduled.set(false);
+        }
+        // Telegrams might have been queued after the last poll, or the batch was full
+        if (!pendingTelegrams.isEmpty()) {
+            scheduleDispatch();
+        }
+    }
+
+    private void dispatch(Telegram telegram) {
+        Set<GroupAddressListener> listeners = listenersByGroupAddress.get(telegram.destination);
+        if (listeners != null) {
+            for (GroupAddressListener listener : listeners) {
+                notify(listener, telegram);
+            }
+        }
+        for (GroupAddressListener listener : unindexedListeners) {
+            notify(listener, telegram);
+        }
+    }
+
+    private void notify(GroupAddressListener listener, Telegram telegram) {
+        if (!listener.listensTo(telegram.destination)) {
+            return;
+        }
+        try {
+            telegram.action.apply(listener, telegram.source, telegram.destination, telegram.asdu);
+        } catch (RuntimeException e) {
+            logger.warn("Listener failed to process a telegram to '{}': {}", telegram.destination, e.getMessage(),
+                    e);
+        }
+    }
+
     /**
      * Transforms a {@link Type} into a datapoint type value for the KNX bus.
      *
@@ -281,6 +361,8 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
         }
         ReadDatapoint datapoint = readDatapoints.poll();
         if (datapoint != null) {
+            logger.trace("Reading datapoint {}, {} more queued", datapoint.getDatapoint().getMainAddress(),
+                    readDatapoints.size());
             datapoint.incrementRetries();
             try {
                 logger.trace("Sending a Group Read Request telegram for {}", datapoint.getDatapoint().getMainAddress());
@@ -366,23 +448,52 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
     }
 
     @Override
-    public void readDatapoint(Datapoint datapoint) {
-        synchronized (this) {
-            ReadDatapoint retryDatapoint = new ReadDatapoint(datapoint, readRetriesLimit);
-            if (!readDatapoints.contains(retryDatapoint)) {
-                readDatapoints.add(retryDatapoint);
-            }
-        }
+    public void readDatapoint(Datapoint datapoint, boolean priority) {
+        readDatapoints.add(new ReadDatapoint(datapoint, readRetriesLimit, priority));
     }
 
+    /**
+     * Registers the listener, or updates the group addresses it listens to if it was registered before.
+     */
     @Override
     public final boolean registerGroupAddressListener(GroupAddressListener listener) {
-        return groupAddressListeners.add(listener);
+        synchronized (groupAddressListeners) {
+            boolean added = groupAddressListeners.add(listener);
+            removeFromIndex(listener);
+            Set<GroupAddress> groupAddresses = listener.getGroupAddresses();
+            if (groupAddresses == null) {
+                unindexedListeners.add(listener);
+            } else {
+                indexedGroupAddresses.put(listener, groupAddresses);
+                for (GroupAddress groupAddress : groupAddresses) {
+                    listenersByGroupAddress.computeIfAbsent(groupAddress, ga -> new CopyOnWriteArraySet<>())
+                            .add(listener);
+                }
+            }
+            return added;
+        }
     }
 
     @Override
     public final boolean unregisterGroupAddressListener(GroupAddressListener listener) {
-        return groupAddressListeners.remove(listener);
+        synchronized (groupAddressListeners) {
+            removeFromIndex(listener);
+            return groupAddressListeners.remove(listener);
+        }
+    }
+
+    private void removeFromIndex(GroupAddressListener listener) {
+        unindexedListeners.remove(listener);
+        Set<GroupAddress> groupAddresses = indexedGroupAddresses.remove(listener);
+        if (groupAddresses == null) {
+            return;
+        }
+        for (GroupAddress groupAddress : groupAddresses) {
+            listenersByGroupAddress.computeIfPresent(groupAddress, (ga, listeners) -> {
+                listeners.remove(listener);
+                return listeners.isEmpty() ? null : listeners;
+            });
+        }
     }
 
     @Override
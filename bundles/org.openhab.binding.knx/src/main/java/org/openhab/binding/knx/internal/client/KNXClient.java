@@ -81,7 +81,18 @@ public interface KNXClient {
      *
      * @param datapoint the datapoint
      */
-    void readDatapoint(Datapoint datapoint);
+    default void readDatapoint(Datapoint datapoint) {
+        readDatapoint(datapoint, false);
+    }
+
+    /**
+     * Schedule the given data point for asynchronous reading. A data point which is already scheduled is not scheduled
+     * again.
+     *
+     * @param datapoint the datapoint
+     * @param priority {@code true} to read it before the periodic refreshes, like the initial read of a channel
+     */
+    void readDatapoint(Datapoint datapoint, boolean priority);
 
     /**
      * Write a command to the KNX bus.
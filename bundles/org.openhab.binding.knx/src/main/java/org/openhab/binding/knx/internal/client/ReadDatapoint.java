@@ -24,11 +24,22 @@ public class ReadDatapoint {
     private final Datapoint datapoint;
     private int retries;
     private final int limit;
+    private final boolean priority;
 
     public ReadDatapoint(Datapoint datapoint, int limit) {
+        this(datapoint, limit, false);
+    }
+
+    /**
+     * @param datapoint the datapoint to read
+     * @param limit the maximum number of read attempts
+     * @param priority whether the read goes before the periodic refreshes, like the initial read of a channel
+     */
+    public ReadDatapoint(Datapoint datapoint, int limit, boolean priority) {
         this.datapoint = datapoint;
         this.retries = 0;
         this.limit = limit;
+        this.priority = priority;
     }
 
     public Datapoint getDatapoint() {
@@ -47,6 +58,10 @@ public class ReadDatapoint {
         return limit;
     }
 
+    public boolean isPriority() {
+        return priority;
+    }
+
     @Override
     public int hashCode() {
         final int prime = 31;
@@ -0,0 +1,94 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.internal.client;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+import tuwien.auto.calimero.GroupAddress;
+
+/**
+ * Queue of data points to be read from the KNX bus.
+ *
+ * Each group address is queued at most once. Priority reads, like the initial reads of the channels, are taken before
+ * the periodic refreshes. A priority read of a group address which is already queued for refresh moves it ahead.
+ *
+ * @author Markus Lindqvist - Initial contribution
+ */
+@NonNullByDefault
+class ReadDatapointQueue {
+
+    private final Map<GroupAddress, ReadDatapoint> queued = new HashMap<>();
+    private final Queue<ReadDatapoint> priorityReads = new ArrayDeque<>();
+    // May contain reads which have been moved to the priority reads, those are skipped
+    private final Queue<ReadDatapoint> refreshReads = new ArrayDeque<>();
+
+    /**
+     * Add a data point to the queue, unless its group address is queued already.
+     *
+     * @param datapoint the data point to read
+     * @return {@code true} if the data point was added
+     */
+    synchronized boolean add(ReadDatapoint datapoint) {
+        GroupAddress address = datapoint.getDatapoint().getMainAddress();
+        ReadDatapoint existing = queued.get(address);
+        if (existing != null && (existing.isPriority() || !datapoint.isPriority())) {
+            return false;
+        }
+        queued.put(address, datapoint);
+        if (datapoint.isPriority()) {
+            priorityReads.add(datapoint);
+        } else {
+            refreshReads.add(datapoint);
+        }
+        return true;
+    }
+
+    /**
+     * Take the next data point to read.
+     *
+     * @return the data point, or {@code null} if the queue is empty
+     */
+    synchronized @Nullable ReadDatapoint poll() {
+        ReadDatapoint datapoint = poll(priorityReads);
+        return datapoint != null ? datapoint : poll(refreshReads);
+    }
+
+    private @Nullable ReadDatapoint poll(Queue<ReadDatapoint> reads) {
+        ReadDatapoint datapoint;
+        while ((datapoint = reads.poll()) != null) {
+            GroupAddress address = datapoint.getDatapoint().getMainAddress();
+            // ReadDatapoint equality is by address only, so compare identity
+            if (queued.get(address) == datapoint) {
+                queued.remove(address);
+                return datapoint;
+            }
+        }
+        return null;
+    }
+
+    synchronized int size() {
+        return queued.size();
+    }
+
+    synchronized void clear() {
+        queued.clear();
+        priorityReads.clear();
+        refreshReads.clear();
+    }
+}
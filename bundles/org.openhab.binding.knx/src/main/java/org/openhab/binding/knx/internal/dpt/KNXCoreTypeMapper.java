@@ -13,8 +13,6 @@
 package org.openhab.binding.knx.internal.dpt;
 
 import java.math.BigDecimal;
-import java.text.DecimalFormat;
-import java.text.NumberFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Arrays;
@@ -24,6 +22,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.smarthome.core.library.types.DateTimeType;
 import org.eclipse.smarthome.core.library.types.DecimalType;
@@ -107,6 +106,32 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
     /** stores the default KNX DPT to use for each openHAB type */
     private final Map<Class<? extends Type>, String> defaultDptMap;
 
+    /** stores the precomputed decoding information for each datapoint type seen by {@link #toType} */
+    private final Map<String, DecodingInfo> decodingInfoMap = new ConcurrentHashMap<>();
+
+    /**
+     * stores the translators used by {@link #toType}, per datapoint type. Translators are not thread safe, but can be
+     * reused for every telegram of their datapoint type while being locked.
+     */
+    private final Map<String, DPTXlator> translators = new ConcurrentHashMap<>();
+
+    /**
+     * Decoding information of a datapoint type, resolved once from the id of its translator.
+     */
+    private static class DecodingInfo {
+        private final String id;
+        private final int mainNumber;
+        private final int subNumber;
+        private final Class<? extends Type> typeClass;
+
+        private DecodingInfo(String id, int mainNumber, int subNumber, Class<? extends Type> typeClass) {
+            this.id = id;
+            this.mainNumber = mainNumber;
+            this.subNumber = subNumber;
+            this.typeClass = typeClass;
+        }
+    }
+
     public KNXCoreTypeMapper() {
         @SuppressWarnings("unused")
         final List<Class<?>> xlators = Arrays.<Class<?>> asList(DPTXlator1BitControlled.class,
@@ -673,177 +698,149 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
     @Override
     public Type toType(Datapoint datapoint, byte[] data) {
         try {
-            DPTXlator translator = TranslatorTypes.createTranslator(datapoint.getMainNumber(), datapoint.getDPT());
-            translator.setData(data);
-            String value = translator.getValue();
-
-            String id = translator.getType().getID();
+            DecodingInfo info = getDecodingInfo(datapoint);
             logger.trace("toType datapoint DPT = {}", datapoint.getDPT());
 
-            int mainNumber = getMainNumber(id);
-            if (mainNumber == -1) {
-                logger.debug("toType: couldn't identify mainnumber in dptID: {}.", id);
+            if (info.mainNumber == -1) {
+                logger.debug("toType: couldn't identify mainnumber in dptID: {}.", info.id);
                 return null;
             }
-            int subNumber = getSubNumber(id);
-            if (subNumber == -1) {
-                logger.debug("toType: couldn't identify sub number in dptID: {}.", id);
+            if (info.subNumber == -1) {
+                logger.debug("toType: couldn't identify sub number in dptID: {}.", info.id);
                 return null;
             }
-            /*
-             * Following code section deals with specific mapping of values from KNX to openHAB types were the String
-             * received from the DPTXlator is not sufficient to set the openHAB type or has bugs
-             */
-            switch (mainNumber) {
-                case 1:
-                    DPTXlatorBoolean translatorBoolean = (DPTXlatorBoolean) translator;
-                    switch (subNumber) {
-                        case 8:
-                            return translatorBoolean.getValueBoolean() ? UpDownType.DOWN : UpDownType.UP;
-                        case 9:
-                            return translatorBoolean.getValueBoolean() ? OpenClosedType.OPEN : OpenClosedType.CLOSED;
-                        case 10:
-                            return translatorBoolean.getValueBoolean() ? StopMoveType.MOVE : StopMoveType.STOP;
-                        case 19:
-                            return translatorBoolean.getValueBoolean() ? OpenClosedType.OPEN : OpenClosedType.CLOSED;
-                        case 22:
-                            return DecimalType.valueOf(translatorBoolean.getValueBoolean() ? "1" : "0");
-                        default:
-                            return translatorBoolean.getValueBoolean() ? OnOffType.ON : OnOffType.OFF;
-                    }
-                case 2:
-                    DPTXlator1BitControlled translator1BitControlled = (DPTXlator1BitControlled) translator;
-                    int decValue = (translator1BitControlled.getControlBit() ? 2 : 0)
-                            + (translator1BitControlled.getValueBit() ? 1 : 0);
-                    return new DecimalType(decValue);
-                case 3:
-                    DPTXlator3BitControlled translator3BitControlled = (DPTXlator3BitControlled) translator;
-                    if (translator3BitControlled.getStepCode() == 0) {
-                        logger.debug("toType: KNX DPT_Control_Dimming: break received.");
-                        return UnDefType.UNDEF;
-                    }
-                    switch (subNumber) {
-                        case 7:
-                            return translator3BitControlled.getControlBit() ? IncreaseDecreaseType.INCREASE
-                                    : IncreaseDecreaseType.DECREASE;
-                        case 8:
-                            return translator3BitControlled.getControlBit() ? UpDownType.DOWN : UpDownType.UP;
-                    }
-                case 14:
-                    /*
-                     * FIXME: Workaround for a bug in Calimero / Openhab DPTXlator4ByteFloat.makeString(): is using a
-                     * locale when
-                     * translating a Float to String. It could happen the a ',' is used as separator, such as
-                     * 3,14159E20.
-                     * Openhab's DecimalType expects this to be in US format and expects '.': 3.14159E20.
-                     * There is no issue with DPTXlator2ByteFloat since calimero is using a non-localized translation
-                     * there.
-                     */
-                    DPTXlator4ByteFloat translator4ByteFloat = (DPTXlator4ByteFloat) translator;
-                    Float f = translator4ByteFloat.getValueFloat();
-                    if (Math.abs(f) < 100000) {
-                        value = String.valueOf(f);
-                    } else {
-                        NumberFormat dcf = NumberFormat.getInstance(Locale.US);
-                        if (dcf instanceof DecimalFormat) {
-                            ((DecimalFormat) dcf).applyPattern("0.#####E0");
-                        }
-                        value = dcf.format(f);
-                    }
-                    break;
-                case 18:
-                    DPTXlatorSceneControl translatorSceneControl = (DPTXlatorSceneControl) translator;
-                    int decimalValue = translatorSceneControl.getSceneNumber();
-                    if (value.startsWith("learn")) {
-                        decimalValue += 0x80;
-                    }
-                    value = String.valueOf(decimalValue);
-
-                    break;
-                case 19:
-                    DPTXlatorDateTime translatorDateTime = (DPTXlatorDateTime) translator;
-                    if (translatorDateTime.isFaultyClock()) {
-                        // Not supported: faulty clock
-                        logger.debug("toType: KNX clock msg ignored: clock faulty bit set, which is not supported");
-                        return null;
-                    } else if (!translatorDateTime.isValidField(DPTXlatorDateTime.YEAR)
-                            && translatorDateTime.isValidField(DPTXlatorDateTime.DATE)) {
-                        // Not supported: "/1/1" (month and day without year)
-                        logger.debug(
-                                "toType: KNX clock msg ignored: no year, but day and month, which is not supported");
-                        return null;
-                    } else if (translatorDateTime.isValidField(DPTXlatorDateTime.YEAR)
-                            && !translatorDateTime.isValidField(DPTXlatorDateTime.DATE)) {
-                        // Not supported: "1900" (year without month and day)
-                        logger.debug(
-                                "toType: KNX clock msg ignored: no day and month, but year, which is not supported");
-                        return null;
-                    } else if (!translatorDateTime.isValidField(DPTXlatorDateTime.YEAR)
-                            && !translatorDateTime.isValidField(DPTXlatorDateTime.DATE)
-                            && !translatorDateTime.isValidField(DPTXlatorDateTime.TIME)) {
-                        // Not supported: No year, no date and no time
-                        logger.debug("toType: KNX clock msg ignored: no day and month or year, which is not supported");
-                        return null;
-                    }
 
-                    Calendar cal = Calendar.getInstance();
-                    if (translatorDateTime.isValidField(DPTXlatorDateTime.YEAR)
-                            && !translatorDateTime.isValidField(DPTXlatorDateTime.TIME)) {
-                        // Pure date format, no time information
-                        cal.setTimeInMillis(translatorDateTime.getValueMilliseconds());
-                        value = new SimpleDateFormat(DateTimeType.DATE_PATTERN).format(cal.getTime());
-                        return DateTimeType.valueOf(value);
-                    } else if (!translatorDateTime.isValidField(DPTXlatorDateTime.YEAR)
-                            && translatorDateTime.isValidField(DPTXlatorDateTime.TIME)) {
-                        // Pure time format, no date information
-                        cal.clear();
-                        cal.set(Calendar.HOUR_OF_DAY, translatorDateTime.getHour());
-                        cal.set(Calendar.MINUTE, translatorDateTime.getMinute());
-                        cal.set(Calendar.SECOND, translatorDateTime.getSecond());
-                        value = new SimpleDateFormat(DateTimeType.DATE_PATTERN).format(cal.getTime());
-                        return DateTimeType.valueOf(value);
-                    } else if (translatorDateTime.isValidField(DPTXlatorDateTime.YEAR)
-                            && translatorDateTime.isValidField(DPTXlatorDateTime.TIME)) {
-                        // Date format and time information
-                        cal.setTimeInMillis(translatorDateTime.getValueMilliseconds());
-                        value = new SimpleDateFormat(DateTimeType.DATE_PATTERN).format(cal.getTime());
-                        return DateTimeType.valueOf(value);
-                    }
-                    break;
+            Type type = decodeDirectly(info, data);
+            if (type != null) {
+                return type;
             }
 
-            Class<? extends Type> typeClass = toTypeClass(id);
-            if (typeClass == null) {
-                return null;
-            }
+            DPTXlator translator = getTranslator(datapoint);
+            // Translators are not thread safe
+            synchronized (translator) {
+                translator.setData(data);
+                int subNumber = info.subNumber;
+                /*
+                 * Following code section deals with specific mapping of values from KNX to openHAB types were the
+                 * String received from the DPTXlator is not sufficient to set the openHAB type or has bugs
+                 */
+                switch (info.mainNumber) {
+                    case 1:
+                        DPTXlatorBoolean translatorBoolean = (DPTXlatorBoolean) translator;
+                        return toBooleanType(subNumber, translatorBoolean.getValueBoolean());
+                    case 2:
+                        DPTXlator1BitControlled translator1BitControlled = (DPTXlator1BitControlled) translator;
+                        int decValue = (translator1BitControlled.getControlBit() ? 2 : 0)
+                                + (translator1BitControlled.getValueBit() ? 1 : 0);
+                        return new DecimalType(decValue);
+                    case 3:
+                        DPTXlator3BitControlled translator3BitControlled = (DPTXlator3BitControlled) translator;
+                        if (translator3BitControlled.getStepCode() == 0) {
+                            logger.debug("toType: KNX DPT_Control_Dimming: break received.");
+                            return UnDefType.UNDEF;
+                        }
+                        switch (subNumber) {
+                            case 7:
+                                return translator3BitControlled.getControlBit() ? IncreaseDecreaseType.INCREASE
+                                        : IncreaseDecreaseType.DECREASE;
+                            case 8:
+                                return translator3BitControlled.getControlBit() ? UpDownType.DOWN : UpDownType.UP;
+                        }
+                        break;
+                    case 18:
+                        DPTXlatorSceneControl translatorSceneControl = (DPTXlatorSceneControl) translator;
+                        int decimalValue = translatorSceneControl.getSceneNumber();
+                        if (translator.getValue().startsWith("learn")) {
+                            decimalValue += 0x80;
+                        }
+                        return new DecimalType(decimalValue);
+                    case 19:
+                        DPTXlatorDateTime translatorDateTime = (DPTXlatorDateTime) translator;
+                        if (translatorDateTime.isFaultyClock()) {
+                            // Not supported: faulty clock
+                            logger.debug("toType: KNX clock msg ignored: clock faulty bit set, which is not supported");
+                            return null;
+                        } else if (!translatorDateTime.isValidField(DPTXlatorDateTime.YEAR)
+                                && translatorDateTime.isValidField(DPTXlatorDateTime.DATE)) {
+                            // Not supported: "/1/1" (month and day without year)
+                            logger.debug(
+                                    "toType: KNX clock msg ignored: no year, but day and month, which is not supported");
+                            return null;
+                        } else if (translatorDateTime.isValidField(DPTXlatorDateTime.YEAR)
+                                && !translatorDateTime.isValidField(DPTXlatorDateTime.DATE)) {
+                            // Not supported: "1900" (year without month and day)
+                            logger.debug(
+                                    "toType: KNX clock msg ignored: no day and month, but year, which is not supported");
+                            return null;
+                        } else if (!translatorDateTime.isValidField(DPTXlatorDateTime.YEAR)
+                                && !translatorDateTime.isValidField(DPTXlatorDateTime.DATE)
+                                && !translatorDateTime.isValidField(DPTXlatorDateTime.TIME)) {
+                            // Not supported: No year, no date and no time
+                            logger.debug(
+                                    "toType: KNX clock msg ignored: no day and month or year, which is not supported");
+                            return null;
+                        }
 
-            if (typeClass.equals(PercentType.class)) {
-                return new PercentType(BigDecimal.valueOf(Math.round(translator.getNumericValue())));
-            }
-            if (typeClass.equals(DecimalType.class)) {
-                return new DecimalType(translator.getNumericValue());
-            }
-            if (typeClass.equals(StringType.class)) {
-                return StringType.valueOf(value);
-            }
+                        Calendar cal = Calendar.getInstance();
+                        if (translatorDateTime.isValidField(DPTXlatorDateTime.YEAR)
+                                && !translatorDateTime.isValidField(DPTXlatorDateTime.TIME)) {
+                            // Pure date format, no time information
+                            cal.setTimeInMillis(translatorDateTime.getValueMilliseconds());
+                            String date = new SimpleDateFormat(DateTimeType.DATE_PATTERN).format(cal.getTime());
+                            return DateTimeType.valueOf(date);
+                        } else if (!translatorDateTime.isValidField(DPTXlatorDateTime.YEAR)
+                                && translatorDateTime.isValidField(DPTXlatorDateTime.TIME)) {
+                            // Pure time format, no date information
+                            cal.clear();
+                            cal.set(Calendar.HOUR_OF_DAY, translatorDateTime.getHour());
+                            cal.set(Calendar.MINUTE, translatorDateTime.getMinute());
+                            cal.set(Calendar.SECOND, translatorDateTime.getSecond());
+                            String date = new SimpleDateFormat(DateTimeType.DATE_PATTERN).format(cal.getTime());
+                            return DateTimeType.valueOf(date);
+                        } else if (translatorDateTime.isValidField(DPTXlatorDateTime.YEAR)
+                                && translatorDateTime.isValidField(DPTXlatorDateTime.TIME)) {
+                            // Date format and time information
+                            cal.setTimeInMillis(translatorDateTime.getValueMilliseconds());
+                            String date = new SimpleDateFormat(DateTimeType.DATE_PATTERN).format(cal.getTime());
+                            return DateTimeType.valueOf(date);
+                        }
+                        break;
+                }
 
-            if (typeClass.equals(DateTimeType.class)) {
-                String date = formatDateTime(value, datapoint.getDPT());
-                if ((date == null) || (date.isEmpty())) {
-                    logger.debug("toType: KNX clock msg ignored: date object null or empty {}.", date);
+                Class<? extends Type> typeClass = info.typeClass;
+                if (typeClass == null) {
                     return null;
-                } else {
-                    return DateTimeType.valueOf(date);
                 }
-            }
 
-            if (typeClass.equals(HSBType.class)) {
-                // value has format of "r:<red value> g:<green value> b:<blue value>"
-                int r = Integer.parseInt(value.split(" ")[0].split(":")[1]);
-                int g = Integer.parseInt(value.split(" ")[1].split(":")[1]);
-                int b = Integer.parseInt(value.split(" ")[2].split(":")[1]);
+                if (typeClass.equals(PercentType.class)) {
+                    return new PercentType(BigDecimal.valueOf(Math.round(translator.getNumericValue())));
+                }
+                if (typeClass.equals(DecimalType.class)) {
+                    return new DecimalType(translator.getNumericValue());
+                }
+                if (typeClass.equals(StringType.class)) {
+                    return StringType.valueOf(translator.getValue());
+                }
+
+                if (typeClass.equals(DateTimeType.class)) {
+                    String date = formatDateTime(translator.getValue(), datapoint.getDPT());
+                    if ((date == null) || (date.isEmpty())) {
+                        logger.debug("toType: KNX clock msg ignored: date object null or empty {}.", date);
+                        return null;
+                    } else {
+                        return DateTimeType.valueOf(date);
+                    }
+                }
 
-                return HSBType.fromRGB(r, g, b);
+                if (typeClass.equals(HSBType.class)) {
+                    // value has format of "r:<red value> g:<green value> b:<blue value>"
+                    String value = translator.getValue();
+                    int r = Integer.parseInt(value.split(" ")[0].split(":")[1]);
+                    int g = Integer.parseInt(value.split(" ")[1].split(":")[1]);
+                    int b = Integer.parseInt(value.split(" ")[2].split(":")[1]);
+
+                    return HSBType.fromRGB(r, g, b);
+                }
             }
 
         } catch (KNXFormatException kfe) {
@@ -859,6 +856,68 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
         return null;
     }
 
+    private DecodingInfo getDecodingInfo(Datapoint datapoint) throws KNXException {
+        DecodingInfo info = decodingInfoMap.get(datapoint.getDPT());
+        if (info == null) {
+            String id = getTranslator(datapoint).getType().getID();
+            int mainNumber = getMainNumber(id);
+            int subNumber = getSubNumber(id);
+            info = new DecodingInfo(id, mainNumber, subNumber,
+                    mainNumber == -1 || subNumber == -1 ? null : toTypeClass(id));
+            decodingInfoMap.put(datapoint.getDPT(), info);
+        }
+        return info;
+    }
+
+    private DPTXlator getTranslator(Datapoint datapoint) throws KNXException {
+        DPTXlator translator = translators.get(datapoint.getDPT());
+        if (translator == null) {
+            translator = TranslatorTypes.createTranslator(datapoint.getMainNumber(), datapoint.getDPT());
+            translators.put(datapoint.getDPT(), translator);
+        }
+        return translator;
+    }
+
+    /**
+     * Decodes the most common datapoint types straight from the ASDU, without setting up a translator.
+     *
+     * @return the openHAB type, or {@code null} if the datapoint type or data has to go through the translator
+     */
+    private Type decodeDirectly(DecodingInfo info, byte[] data) {
+        switch (info.mainNumber) {
+            case 1:
+                if (data.length >= 1) {
+                    return toBooleanType(info.subNumber, (data[0] & 0x01) != 0);
+                }
+                break;
+            case 14:
+                if (data.length >= 4 && DecimalType.class.equals(info.typeClass)) {
+                    int bits = (data[0] & 0xff) << 24 | (data[1] & 0xff) << 16 | (data[2] & 0xff) << 8
+                            | (data[3] & 0xff);
+                    return new DecimalType(Float.intBitsToFloat(bits));
+                }
+                break;
+        }
+        return null;
+    }
+
+    private Type toBooleanType(int subNumber, boolean value) {
+        switch (subNumber) {
+            case 8:
+                return value ? UpDownType.DOWN : UpDownType.UP;
+            case 9:
+                return value ? OpenClosedType.OPEN : OpenClosedType.CLOSED;
+            case 10:
+                return value ? StopMoveType.MOVE : StopMoveType.STOP;
+            case 19:
+                return value ? OpenClosedType.OPEN : OpenClosedType.CLOSED;
+            case 22:
+                return DecimalType.valueOf(value ? "1" : "0");
+            default:
+                return value ? OnOffType.ON : OnOffType.OFF;
+        }
+    }
+
     /**
      * Converts a datapoint type id into an openHAB type class
      *
@@ -12,7 +12,10 @@
  */
 package org.openhab.binding.knx.internal.handler;
 
+import java.util.Set;
+
 import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.binding.knx.internal.client.BusMessageListener;
 
 import tuwien.auto.calimero.GroupAddress;
@@ -33,4 +36,14 @@ public interface GroupAddressListener extends BusMessageListener {
      * @param destination
      */
     public boolean listensTo(GroupAddress destination);
+
+    /**
+     * Called on registration to get the Group Addresses the GroupAddressListener has an interest in, so that it is
+     * only notified about telegrams to those
+     *
+     * @return the Group Addresses, or null to be asked by {@link #listensTo(GroupAddress)} for every telegram
+     */
+    public default @Nullable Set<GroupAddress> getGroupAddresses() {
+        return null;
+    }
 }
@@ -0,0 +1,83 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.internal.client;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import tuwien.auto.calimero.GroupAddress;
+import tuwien.auto.calimero.datapoint.CommandDP;
+
+/**
+ *
+ * @author Markus Lindqvist - Initial contribution
+ *
+ */
+public class ReadDatapointQueueTest {
+
+    private final ReadDatapointQueue queue = new ReadDatapointQueue();
+
+    private static ReadDatapoint read(int subGroup, boolean priority) {
+        return new ReadDatapoint(new CommandDP(new GroupAddress(1, 2, subGroup), "test", 0, "1.001"), 3, priority);
+    }
+
+    private static int subGroup(ReadDatapoint datapoint) {
+        return datapoint.getDatapoint().getMainAddress().getRawAddress() & 0xff;
+    }
+
+    @Test
+    public void testDeduplication() {
+        assertTrue(queue.add(read(1, false)));
+        assertFalse(queue.add(read(1, false)));
+        assertTrue(queue.add(read(2, true)));
+        assertFalse(queue.add(read(2, true)));
+        assertFalse(queue.add(read(2, false)));
+        assertEquals(2, queue.size());
+    }
+
+    @Test
+    public void testPriorityReadsFirst() {
+        queue.add(read(1, false));
+        queue.add(read(2, false));
+        queue.add(read(3, true));
+
+        assertEquals(3, subGroup(queue.poll()));
+        assertEquals(1, subGroup(queue.poll()));
+        assertEquals(2, subGroup(queue.poll()));
+        assertNull(queue.poll());
+    }
+
+    @Test
+    public void testPriorityReadMovesRefreshAhead() {
+        queue.add(read(1, false));
+        queue.add(read(2, false));
+        assertTrue(queue.add(read(2, true)));
+        assertEquals(2, queue.size());
+
+        ReadDatapoint first = queue.poll();
+        assertEquals(2, subGroup(first));
+        assertTrue(first.isPriority());
+        assertEquals(1, subGroup(queue.poll()));
+        assertNull(queue.poll());
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void testRequeueAfterPoll() {
+        queue.add(read(1, true));
+        ReadDatapoint datapoint = queue.poll();
+        assertTrue(queue.add(datapoint));
+        assertSame(datapoint, queue.poll());
+    }
+}
@@ -15,8 +15,17 @@ package org.openhab.binding.knx.internal.dpt;
 import static org.junit.Assert.assertEquals;
 
 import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.library.types.OpenClosedType;
+import org.eclipse.smarthome.core.library.types.PercentType;
+import org.eclipse.smarthome.core.library.types.UpDownType;
+import org.eclipse.smarthome.core.types.Type;
 import org.junit.Test;
 
+import tuwien.auto.calimero.GroupAddress;
+import tuwien.auto.calimero.KNXFormatException;
+import tuwien.auto.calimero.datapoint.CommandDP;
+
 /**
  *
  * @author Simon Kaufmann - initial contribution and API
@@ -29,4 +38,50 @@ public class KNXCoreTypeMapperTest {
         assertEquals("3", new KNXCoreTypeMapper().toDPTValue(new DecimalType("3"), "17.001"));
         assertEquals("3", new KNXCoreTypeMapper().toDPTValue(new DecimalType("3.0"), "17.001"));
     }
+
+    @Test
+    public void testToType_boolean() throws KNXFormatException {
+        KNXCoreTypeMapper mapper = new KNXCoreTypeMapper();
+        assertEquals(OnOffType.ON, toType(mapper, "1.001", 0x01));
+        assertEquals(OnOffType.OFF, toType(mapper, "1.001", 0x00));
+        assertEquals(UpDownType.DOWN, toType(mapper, "1.008", 0x01));
+        assertEquals(OpenClosedType.CLOSED, toType(mapper, "1.009", 0x00));
+        assertEquals(new DecimalType(1), toType(mapper, "1.022", 0x01));
+    }
+
+    @Test
+    public void testToType_numeric() throws KNXFormatException {
+        KNXCoreTypeMapper mapper = new KNXCoreTypeMapper();
+        assertEquals(new PercentType(100), toType(mapper, "5.001", 0xff));
+        assertEquals(21.0, ((DecimalType) toType(mapper, "9.001", 0x0c, 0x1a)).doubleValue(), 0.001);
+        assertEquals(new DecimalType("1.5"), toType(mapper, "14.019", 0x3f, 0xc0, 0x00, 0x00));
+    }
+
+    @Test
+    public void testToType_sceneControl() throws KNXFormatException {
+        KNXCoreTypeMapper mapper = new KNXCoreTypeMapper();
+        assertEquals(new DecimalType(5), toType(mapper, "18.001", 0x05));
+        // The learn bit is set in the value, as expected by toDPTValue
+        assertEquals(new DecimalType(0x85), toType(mapper, "18.001", 0x85));
+        assertEquals("learn 5", mapper.toDPTValue(new DecimalType(0x85), "18.001"));
+        assertEquals("activate 5", mapper.toDPTValue(new DecimalType(5), "18.001"));
+    }
+
+    @Test
+    public void testToType_translatorReused() throws KNXFormatException {
+        KNXCoreTypeMapper mapper = new KNXCoreTypeMapper();
+        for (int i = 0; i < 3; i++) {
+            assertEquals(new PercentType(0), toType(mapper, "5.001", 0x00));
+            assertEquals(new PercentType(100), toType(mapper, "5.001", 0xff));
+            assertEquals(-1.0, ((DecimalType) toType(mapper, "9.001", 0x87, 0x9c)).doubleValue(), 0.001);
+        }
+    }
+
+    private static Type toType(KNXCoreTypeMapper mapper, String dpt, int... data) throws KNXFormatException {
+        byte[] bytes = new byte[data.length];
+        for (int i = 0; i < data.length; i++) {
+            bytes[i] = (byte) data[i];
+        }
+        return mapper.toType(new CommandDP(new GroupAddress("1/2/3"), "test", 0, dpt), bytes);
+    }
 }
@@ -37,6 +37,9 @@ public class ModbusSerialConfiguration {
     private int timeBetweenTransactionsMillis;
     private int connectMaxTries;
     private int connectTimeoutMillis;
+    private int pollCoalescingWindowMillis;
+    private int pollCoalescingMaxGap;
+    private boolean adaptivePollScheduling;
     private boolean enableDiscovery;
 
     public @Nullable String getPort() {
@@ -151,6 +154,30 @@ public class ModbusSerialConfiguration {
         this.connectTimeoutMillis = connectTimeoutMillis;
     }
 
+    public int getPollCoalescingWindowMillis() {
+        return pollCoalescingWindowMillis;
+    }
+
+    public void setPollCoalescingWindowMillis(int pollCoalescingWindowMillis) {
+        this.pollCoalescingWindowMillis = pollCoalescingWindowMillis;
+    }
+
+    public int getPollCoalescingMaxGap() {
+        return pollCoalescingMaxGap;
+    }
+
+    public void setPollCoalescingMaxGap(int pollCoalescingMaxGap) {
+        this.pollCoalescingMaxGap = pollCoalescingMaxGap;
+    }
+
+    public boolean isAdaptivePollScheduling() {
+        return adaptivePollScheduling;
+    }
+
+    public void setAdaptivePollScheduling(boolean adaptivePollScheduling) {
+        this.adaptivePollScheduling = adaptivePollScheduling;
+    }
+
     public boolean isDiscoveryEnabled() {
         return enableDiscovery;
     }
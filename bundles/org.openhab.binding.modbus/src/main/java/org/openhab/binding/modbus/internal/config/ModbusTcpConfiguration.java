@@ -31,6 +31,10 @@ public class ModbusTcpConfiguration {
     private int connectMaxTries;
     private int reconnectAfterMillis;
     private int connectTimeoutMillis;
+    private int pollCoalescingWindowMillis;
+    private int pollCoalescingMaxGap;
+    private int maxPipelinedTransactions = 1;
+    private boolean adaptivePollScheduling;
     private boolean enableDiscovery;
 
     public @Nullable String getHost() {
@@ -97,6 +101,38 @@ public class ModbusTcpConfiguration {
         this.connectTimeoutMillis = connectTimeoutMillis;
     }
 
+    public int getPollCoalescingWindowMillis() {
+        return pollCoalescingWindowMillis;
+    }
+
+    public void setPollCoalescingWindowMillis(int pollCoalescingWindowMillis) {
+        this.pollCoalescingWindowMillis = pollCoalescingWindowMillis;
+    }
+
+    public int getPollCoalescingMaxGap() {
+        return pollCoalescingMaxGap;
+    }
+
+    public void setPollCoalescingMaxGap(int pollCoalescingMaxGap) {
+        this.pollCoalescingMaxGap = pollCoalescingMaxGap;
+    }
+
+    public int getMaxPipelinedTransactions() {
+        return maxPipelinedTransactions;
+    }
+
+    public void setMaxPipelinedTransactions(int maxPipelinedTransactions) {
+        this.maxPipelinedTransactions = maxPipelinedTransactions;
+    }
+
+    public boolean isAdaptivePollScheduling() {
+        return adaptivePollScheduling;
+    }
+
+    public void setAdaptivePollScheduling(boolean adaptivePollScheduling) {
+        this.adaptivePollScheduling = adaptivePollScheduling;
+    }
+
     public boolean isDiscoveryEnabled() {
         return enableDiscovery;
     }
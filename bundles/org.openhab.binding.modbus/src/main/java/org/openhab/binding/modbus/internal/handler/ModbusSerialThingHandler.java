@@ -64,6 +64,9 @@ public class ModbusSerialThingHandler
         poolConfiguration.setConnectMaxTries(config.getConnectMaxTries());
         poolConfiguration.setConnectTimeoutMillis(config.getConnectTimeoutMillis());
         poolConfiguration.setInterTransactionDelayMillis(config.getTimeBetweenTransactionsMillis());
+        poolConfiguration.setPollCoalescingWindowMillis(config.getPollCoalescingWindowMillis());
+        poolConfiguration.setPollCoalescingMaxGap(config.getPollCoalescingMaxGap());
+        poolConfiguration.setAdaptivePollScheduling(config.isAdaptivePollScheduling());
 
         // Never reconnect serial connections "automatically"
         poolConfiguration.setInterConnectDelayMillis(1000);
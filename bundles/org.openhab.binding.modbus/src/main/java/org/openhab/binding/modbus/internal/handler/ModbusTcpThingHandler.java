@@ -60,6 +60,10 @@ public class ModbusTcpThingHandler
         poolConfiguration.setInterConnectDelayMillis(config.getTimeBetweenReconnectMillis());
         poolConfiguration.setInterTransactionDelayMillis(config.getTimeBetweenTransactionsMillis());
         poolConfiguration.setReconnectAfterMillis(config.getReconnectAfterMillis());
+        poolConfiguration.setPollCoalescingWindowMillis(config.getPollCoalescingWindowMillis());
+        poolConfiguration.setPollCoalescingMaxGap(config.getPollCoalescingMaxGap());
+        poolConfiguration.setMaxPipelinedTransactions(config.getMaxPipelinedTransactions());
+        poolConfiguration.setAdaptivePollScheduling(config.isAdaptivePollScheduling());
     }
 
     @SuppressWarnings("null") // since Optional.map is always called with NonNull argument
@@ -72,6 +72,10 @@ import org.slf4j.LoggerFactory;
  * While setting up your {@link ChannelState} you would set the callback to your thing handler,
  * because this base class implements {@link ChannelStateUpdateListener}.
  *
+ * <p>
+ * Many devices publish a single payload on one topic that is used by several channels. Pass {@link #payloadCache}
+ * to your {@link ChannelState}s, so that such a payload is decoded and transformed only once.
+ *
  * @author David Graeff - Initial contribution
  */
 @NonNullByDefault
@@ -85,6 +89,8 @@ public abstract class AbstractMQTTThingHandler extends BaseThingHandler
 
     private AtomicBoolean messageReceived = new AtomicBoolean(false);
     private Map<String, @Nullable ChannelState> availabilityStates = new ConcurrentHashMap<>();
+    // Payloads shared by all channel states of this thing subscribed to the same topic
+    protected final TopicPayloadCache payloadCache = new TopicPayloadCache();
 
     public AbstractMQTTThingHandler(Thing thing, int subscribeTimeout) {
         super(thing);
@@ -115,6 +121,7 @@ public abstract class AbstractMQTTThingHandler extends BaseThingHandler
     protected void stop() {
         clearAllAvailabilityTopics();
         resetMessageReceived();
+        payloadCache.clear();
     }
 
     @Override
@@ -322,6 +329,7 @@ public abstract class AbstractMQTTThingHandler extends BaseThingHandler
                         public void postChannelCommand(ChannelUID channelUID, Command value) {
                         }
                     });
+            state.setPayloadCache(payloadCache);
             MqttBrokerConnection connection = getConnection();
             if (connection != null) {
                 state.start(connection, scheduler, 0);
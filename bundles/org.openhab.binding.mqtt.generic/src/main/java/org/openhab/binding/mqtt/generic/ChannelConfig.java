@@ -37,6 +37,8 @@ public class ChannelConfig {
      * Instead a postCommand() call is performed.
      */
     public boolean postCommand = false;
+    /** If true, received values that do not change the channel state do not update the state again. */
+    public boolean skipUnchanged = false;
     public @Nullable Integer qos;
     public boolean retained = false;
     /** If true, the state topic will not update a state, but trigger a channel instead. */
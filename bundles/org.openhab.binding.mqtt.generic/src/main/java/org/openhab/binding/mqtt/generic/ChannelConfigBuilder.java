@@ -69,6 +69,11 @@ public class ChannelConfigBuilder {
         return this;
     }
 
+    public ChannelConfigBuilder withSkipUnchanged(boolean skipUnchanged) {
+        config.skipUnchanged = skipUnchanged;
+        return this;
+    }
+
     public ChannelConfigBuilder makeTrigger(boolean trigger) {
         config.trigger = trigger;
         return this;
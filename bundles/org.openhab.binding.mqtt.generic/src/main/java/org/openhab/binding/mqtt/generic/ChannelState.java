@@ -12,7 +12,6 @@
  */
 package org.openhab.binding.mqtt.generic;
 
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.IllegalFormatException;
 import java.util.List;
@@ -27,6 +26,7 @@ import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.library.types.StringType;
 import org.eclipse.smarthome.core.thing.ChannelUID;
 import org.eclipse.smarthome.core.types.Command;
+import org.eclipse.smarthome.core.types.State;
 import org.eclipse.smarthome.core.types.TypeParser;
 import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
 import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
@@ -58,6 +58,7 @@ public class ChannelState implements MqttMessageSubscriber {
     protected final List<ChannelStateTransformation> transformationsIn = new ArrayList<>();
     protected final List<ChannelStateTransformation> transformationsOut = new ArrayList<>();
     private @Nullable ChannelStateUpdateListener channelStateUpdateListener;
+    private @Nullable TopicPayloadCache payloadCache;
     protected boolean hasSubscribed = false;
     private @Nullable ScheduledFuture<?> scheduledFuture;
     private CompletableFuture<@Nullable Void> future = CompletableFuture.completedFuture(null);
@@ -113,6 +114,16 @@ public class ChannelState implements MqttMessageSubscriber {
         transformationsOut.clear();
     }
 
+    /**
+     * Share received payloads with other channel states subscribed to the same topic. The payload is then decoded and
+     * transformed only once for all of them.
+     *
+     * @param payloadCache The payload cache of the thing, or null to not share payloads
+     */
+    public void setPayloadCache(@Nullable TopicPayloadCache payloadCache) {
+        this.payloadCache = payloadCache;
+    }
+
     /**
      * Returns the cached value state object of this message subscriber.
      * <p>
@@ -147,16 +158,23 @@ public class ChannelState implements MqttMessageSubscriber {
         }
 
         if (cachedValue.isBinary()) {
+            State oldState = cachedValue.getChannelState();
             cachedValue.update(payload);
-            channelStateUpdateListener.updateChannelState(channelUID, cachedValue.getChannelState());
+            if (!isUnchanged(oldState)) {
+                channelStateUpdateListener.updateChannelState(channelUID, cachedValue.getChannelState());
+            }
             receivedOrTimeout();
             return;
         }
 
-        // String value: Apply transformations
-        String strValue = new String(payload, StandardCharsets.UTF_8);
+        // String value: Apply transformations. The decoded payload and transformation results are shared with other
+        // channels on the same topic.
+        final TopicPayloadCache payloadCache = this.payloadCache;
+        final SharedPayload sharedPayload = payloadCache != null ? payloadCache.get(topic, payload)
+                : new SharedPayload(payload);
+        String strValue = sharedPayload.getString();
         for (ChannelStateTransformation t : transformationsIn) {
-            String transformedValue = t.processValue(strValue);
+            String transformedValue = sharedPayload.transform(t, strValue);
             if (transformedValue != null) {
                 strValue = transformedValue;
             } else {
@@ -189,6 +207,7 @@ public class ChannelState implements MqttMessageSubscriber {
         }
 
         // Map the string to an ESH command, update the cached value and post the command to the framework
+        State oldState = cachedValue.getChannelState();
         try {
             cachedValue.update(command);
         } catch (IllegalArgumentException | IllegalStateException e) {
@@ -200,12 +219,25 @@ public class ChannelState implements MqttMessageSubscriber {
 
         if (config.postCommand) {
             channelStateUpdateListener.postChannelCommand(channelUID, (Command) cachedValue.getChannelState());
-        } else {
+        } else if (!isUnchanged(oldState)) {
             channelStateUpdateListener.updateChannelState(channelUID, cachedValue.getChannelState());
         }
         receivedOrTimeout();
     }
 
+    /**
+     * Returns true if state updates with an unchanged value should be skipped and the value did not change.
+     *
+     * @param oldState The state before the cached value was updated
+     */
+    private boolean isUnchanged(State oldState) {
+        if (config.skipUnchanged && oldState.equals(cachedValue.getChannelState())) {
+            logger.trace("Value of channel {} did not change, skipping state update", channelUID);
+            return true;
+        }
+        return false;
+    }
+
     /**
      * Returns the state topic. Might be an empty string if this is a stateless channel (TRIGGER kind channel).
      */
@@ -0,0 +1,105 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.generic;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * A received MQTT payload that is shared by all {@link ChannelState}s subscribed to the same topic.
+ * <p>
+ * The payload is decoded into a string only once, and the results of the incoming transformations are remembered,
+ * so that channels with the same transformation on the same input do not transform the payload again.
+ *
+ * @author Markus Lindqvist - Initial contribution
+ */
+@NonNullByDefault
+public class SharedPayload {
+    private final byte[] payload;
+    private @Nullable String decoded;
+    private final List<TransformationResult> transformationResults = new ArrayList<>();
+
+    private static class TransformationResult {
+        final String serviceName;
+        final String pattern;
+        final String input;
+        final @Nullable String output;
+
+        TransformationResult(ChannelStateTransformation transformation, String input, @Nullable String output) {
+            this.serviceName = transformation.serviceName;
+            this.pattern = transformation.pattern;
+            this.input = input;
+            this.output = output;
+        }
+
+        boolean matches(ChannelStateTransformation transformation, String input) {
+            return serviceName.equals(transformation.serviceName) && pattern.equals(transformation.pattern)
+                    && this.input.equals(input);
+        }
+    }
+
+    /**
+     * Creates a new shared payload.
+     *
+     * @param payload The byte payload as received from the broker connection.
+     */
+    public SharedPayload(byte[] payload) {
+        this.payload = payload;
+    }
+
+    /**
+     * Returns the raw payload.
+     */
+    public byte[] getBytes() {
+        return payload;
+    }
+
+    /**
+     * Returns the payload decoded as UTF8 string. The payload is decoded on the first call only.
+     */
+    public synchronized String getString() {
+        String decoded = this.decoded;
+        if (decoded == null) {
+            decoded = new String(payload, StandardCharsets.UTF_8);
+            this.decoded = decoded;
+        }
+        return decoded;
+    }
+
+    /**
+     * Applies the transformation to the given value, unless the same transformation has already been applied to the
+     * same value of this payload.
+     *
+     * @param transformation The transformation
+     * @param value The payload string or the result of a previous transformation
+     * @return The transformed value or null if the transformation failed
+     */
+    public @Nullable String transform(ChannelStateTransformation transformation, String value) {
+        synchronized (transformationResults) {
+            for (TransformationResult result : transformationResults) {
+                if (result.matches(transformation, value)) {
+                    return result.output;
+                }
+            }
+        }
+        String output = transformation.processValue(value);
+        synchronized (transformationResults) {
+            transformationResults.add(new TransformationResult(transformation, value, output));
+        }
+        return output;
+    }
+}
@@ -0,0 +1,54 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.generic;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
+
+/**
+ * Shares received payloads between the {@link ChannelState}s of a thing that are subscribed to the same topic.
+ * <p>
+ * Devices often publish one JSON document on a single topic that feeds many channels. The broker connection
+ * notifies every subscriber of a topic with the same payload array one after another, so the last
+ * {@link SharedPayload} of each topic is kept and handed out again as long as the payload array is the same. Any
+ * other payload array starts a new {@link SharedPayload}. The subscriptions on the {@link MqttBrokerConnection} are
+ * not changed by this, each channel still subscribes on its own.
+ *
+ * @author Markus Lindqvist - Initial contribution
+ */
+@NonNullByDefault
+public class TopicPayloadCache {
+    private final Map<String, SharedPayload> lastPayloads = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the shared form of the given payload.
+     *
+     * @param topic The topic the payload was received on.
+     * @param payload The payload as received from the broker connection.
+     * @return The shared payload
+     */
+    public SharedPayload get(String topic, byte[] payload) {
+        return lastPayloads.compute(topic, (t, last) -> last != null && last.getBytes() == payload ? last
+                : new SharedPayload(payload));
+    }
+
+    /**
+     * Forget all payloads, for example because the connection has been lost.
+     */
+    public void clear() {
+        lastPayloads.clear();
+    }
+}
@@ -13,11 +13,15 @@
 package org.openhab.binding.mqtt.generic.tools;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 
@@ -25,8 +29,14 @@ import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 
 /**
- * Collects objects over time until a specified delay passed by.
+ * Collects objects over time until a specified delay passed by without a new object.
  * Then call the user back with a list of accumulated objects and start over again.
+ * <p>
+ * A steady stream of objects cannot postpone the delivery forever: A batch is delivered at the latest after
+ * a maximum delay, counted from its first object, or as soon as it reached a maximum size.
+ * <p>
+ * Objects are accumulated without locking. The timer is only scheduled once per batch and then rescheduled
+ * at most once per delay, instead of once per object.
  *
  * @author David Graeff - Initial contribution
  *
@@ -34,38 +44,102 @@ import org.eclipse.jdt.annotation.Nullable;
  */
 @NonNullByDefault
 public class DelayedBatchProcessing<T> implements Consumer<T> {
-    private final int delay;
+    /** The maximum delay is this factor times the delay, if not given explicitly */
+    public static final int DEFAULT_MAX_DELAY_FACTOR = 10;
+
+    /**
+     * Reasons for delivering a batch to the target consumer
+     */
+    public enum FlushReason {
+        /** No object has been added for the delay */
+        DELAY,
+        /** The maximum delay since the first object of the batch passed by */
+        MAX_DELAY,
+        /** The batch reached the maximum size */
+        MAX_SIZE,
+        /** {@link DelayedBatchProcessing#forceProcessNow()} has been called */
+        FORCED
+    }
+
+    private final long delayNanos;
+    private final long maxDelayNanos;
+    private final int maxSize;
     private final Consumer<List<T>> consumer;
-    private final List<T> queue = Collections.synchronizedList(new ArrayList<>());
+    private final Queue<T> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queueSize = new AtomicInteger();
     private final ScheduledExecutorService executor;
     protected final AtomicReference<@Nullable ScheduledFuture<?>> futureRef = new AtomicReference<>();
+    // True while a timer is scheduled or running for the current batch
+    private final AtomicBoolean armed = new AtomicBoolean();
+    private final Object flushLock = new Object();
+    // nanoTime() of the last added object and of the start of the current batch
+    private volatile long lastObjectTime;
+    private volatile long batchStartTime;
+
+    // Statistics
+    private final AtomicLong batchCount = new AtomicLong();
+    private final AtomicLong objectCount = new AtomicLong();
+    private final AtomicInteger largestBatchSize = new AtomicInteger();
+    private final AtomicLong[] flushCounts = new AtomicLong[FlushReason.values().length];
 
     /**
-     * Creates a {@link DelayedBatchProcessing}.
+     * Creates a {@link DelayedBatchProcessing} with a maximum delay of {@link #DEFAULT_MAX_DELAY_FACTOR} times the
+     * delay and without a maximum batch size.
      *
      * @param delay A delay in milliseconds
      * @param consumer A consumer of the list of collected objects
      * @param executor A scheduled executor service
      */
     public DelayedBatchProcessing(int delay, Consumer<List<T>> consumer, ScheduledExecutorService executor) {
-        this.delay = delay;
-        this.consumer = consumer;
-        this.executor = executor;
+        this(delay, delay * DEFAULT_MAX_DELAY_FACTOR, Integer.MAX_VALUE, consumer, executor);
+    }
+
+    /**
+     * Creates a {@link DelayedBatchProcessing}.
+     *
+     * @param delay A delay in milliseconds
+     * @param maxDelay The maximum delay in milliseconds between the first object of a batch and its delivery. Must
+     *            not be smaller than the delay.
+     * @param maxSize The maximum number of objects in a batch
+     * @param consumer A consumer of the list of collected objects
+     * @param executor A scheduled executor service
+     */
+    public DelayedBatchProcessing(int delay, int maxDelay, int maxSize, Consumer<List<T>> consumer,
+            ScheduledExecutorService executor) {
         if (delay <= 0) {
             throw new IllegalArgumentException("Delay need to be greater than 0!");
         }
+        if (maxDelay < delay) {
+            throw new IllegalArgumentException("Maximum delay must not be smaller than the delay!");
+        }
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Maximum size need to be greater than 0!");
+        }
+        this.delayNanos = TimeUnit.MILLISECONDS.toNanos(delay);
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelay);
+        this.maxSize = maxSize;
+        this.consumer = consumer;
+        this.executor = executor;
+        for (int i = 0; i < flushCounts.length; i++) {
+            flushCounts[i] = new AtomicLong();
+        }
     }
 
     /**
      * Add new object to the batch process list. Every time a new object is received,
-     * the delay timer is rescheduled.
+     * the delivery is delayed, but not beyond the maximum delay.
      *
      * @param t An object
      */
     @Override
     public void accept(T t) {
+        lastObjectTime = nanoTime();
         queue.add(t);
-        cancel(futureRef.getAndSet(executor.schedule(this::run, delay, TimeUnit.MILLISECONDS)));
+        int size = queueSize.incrementAndGet();
+        arm();
+        if (size == maxSize) {
+            executor.execute(() -> flush(FlushReason.MAX_SIZE));
+        }
     }
 
     /**
@@ -75,11 +149,11 @@ public class DelayedBatchProcessing<T> implements Consumer<T> {
      */
     public List<T> join() {
         cancel(futureRef.getAndSet(null));
-        List<T> lqueue = new ArrayList<>();
-        synchronized (queue) {
-            lqueue.addAll(queue);
-            queue.clear();
+        List<T> lqueue;
+        synchronized (flushLock) {
+            lqueue = drain();
         }
+        disarm();
         return lqueue;
     }
 
@@ -96,19 +170,122 @@ public class DelayedBatchProcessing<T> implements Consumer<T> {
      */
     public void forceProcessNow() {
         cancel(futureRef.getAndSet(null));
-        run();
+        flush(FlushReason.FORCED);
+        disarm();
+    }
+
+    /**
+     * Returns the number of batches delivered to the target consumer.
+     */
+    public long getBatchCount() {
+        return batchCount.get();
+    }
+
+    /**
+     * Returns the number of objects delivered to the target consumer.
+     */
+    public long getObjectCount() {
+        return objectCount.get();
+    }
+
+    /**
+     * Returns the size of the largest batch delivered to the target consumer.
+     */
+    public int getLargestBatchSize() {
+        return largestBatchSize.get();
+    }
+
+    /**
+     * Returns the number of batches delivered for the given reason.
+     *
+     * @param reason A flush reason
+     */
+    public long getFlushCount(FlushReason reason) {
+        return flushCounts[reason.ordinal()].get();
+    }
+
+    /**
+     * Returns the number of objects waiting for delivery.
+     */
+    public int getQueueSize() {
+        return queueSize.get();
+    }
+
+    private void arm() {
+        if (armed.compareAndSet(false, true)) {
+            batchStartTime = nanoTime();
+            schedule(delayNanos);
+        }
+    }
+
+    private void disarm() {
+        armed.set(false);
+        // Objects might have been added while the timer was still considered armed
+        if (queueSize.get() > 0) {
+            arm();
+        }
+    }
+
+    private void schedule(long delayNanos) {
+        cancel(futureRef.getAndSet(executor.schedule(this::run, delayNanos, TimeUnit.NANOSECONDS)));
     }
 
     private void run() {
-        List<T> lqueue = new ArrayList<>();
-        synchronized (queue) {
-            lqueue.addAll(queue);
-            queue.clear();
+        long now = nanoTime();
+        long sinceLastObject = now - lastObjectTime;
+        long sinceBatchStart = now - batchStartTime;
+        if (queueSize.get() > 0 && sinceLastObject < delayNanos) {
+            if (sinceBatchStart < maxDelayNanos) {
+                // New objects arrived in the meantime: Wait for the rest of the delay, but not beyond the maximum
+                schedule(Math.min(delayNanos - sinceLastObject, maxDelayNanos - sinceBatchStart));
+                return;
+            }
+            flush(FlushReason.MAX_DELAY);
+        } else {
+            flush(FlushReason.DELAY);
+        }
+        disarm();
+    }
+
+    private void flush(FlushReason reason) {
+        synchronized (flushLock) {
+            if (reason == FlushReason.MAX_SIZE && queueSize.get() < maxSize) {
+                // The batch has been delivered by a concurrent flush in the meantime
+                return;
+            }
+            List<T> lqueue = drain();
+            // Objects added from now on belong to a new batch. The timer might stay armed, e.g. after a flush
+            // because of the maximum size, so the maximum delay is counted from here.
+            batchStartTime = nanoTime();
+            if (!lqueue.isEmpty()) {
+                // A timer flush can race with the flush triggered by the maximum size and drain the full batch
+                FlushReason batchReason = reason != FlushReason.FORCED && lqueue.size() >= maxSize
+                        ? FlushReason.MAX_SIZE
+                        : reason;
+                batchCount.incrementAndGet();
+                objectCount.addAndGet(lqueue.size());
+                largestBatchSize.accumulateAndGet(lqueue.size(), Math::max);
+                flushCounts[batchReason.ordinal()].incrementAndGet();
+                consumer.accept(lqueue);
+            }
         }
+    }
 
-        if (!lqueue.isEmpty()) {
-            consumer.accept(lqueue);
+    private List<T> drain() {
+        List<T> lqueue = new ArrayList<>();
+        T t;
+        while ((t = queue.poll()) != null) {
+            lqueue.add(t);
         }
+        queueSize.addAndGet(-lqueue.size());
+        return lqueue;
+    }
+
+    /**
+     * Returns the current value of the time source, in nanoseconds. Can be overridden by tests.
+     */
+    long nanoTime() {
+        return System.nanoTime();
     }
 
     private static void cancel(@Nullable ScheduledFuture<?> future) {
@@ -35,6 +35,7 @@ import org.eclipse.smarthome.core.library.types.HSBType;
 import org.eclipse.smarthome.core.library.types.RawType;
 import org.eclipse.smarthome.core.library.types.StringType;
 import org.eclipse.smarthome.core.thing.ChannelUID;
+import org.eclipse.smarthome.core.transform.TransformationService;
 import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
 import org.junit.After;
 import org.junit.Before;
@@ -156,6 +157,52 @@ public class ChannelStateTests {
         verify(channelStateUpdateListener).updateChannelState(eq(channelUID), any());
     }
 
+    @Test
+    public void receiveUnchangedTest() {
+        ChannelConfig skipConfig = ChannelConfigBuilder.create("state", "command").withSkipUnchanged(true).build();
+        ChannelState c = spy(new ChannelState(skipConfig, channelUID, textValue, channelStateUpdateListener));
+        c.start(connection, mock(ScheduledExecutorService.class), 100);
+
+        c.processMessage("state", "A TEST".getBytes());
+        c.processMessage("state", "A TEST".getBytes());
+        verify(channelStateUpdateListener, times(1)).updateChannelState(eq(channelUID), any());
+
+        c.processMessage("state", "ANOTHER TEST".getBytes());
+        verify(channelStateUpdateListener, times(2)).updateChannelState(eq(channelUID), any());
+    }
+
+    @Test
+    public void receiveSharedPayloadTest() throws Exception {
+        TransformationService service = mock(TransformationService.class);
+        doReturn("23.2").when(service).transform(eq("$.temperature"), eq("{\"temperature\":23.2}"));
+        TransformationServiceProvider provider = mock(TransformationServiceProvider.class);
+        doReturn(service).when(provider).getTransformationService(anyString());
+        TopicPayloadCache payloadCache = new TopicPayloadCache();
+
+        NumberValue value1 = new NumberValue(null, null, null, null);
+        ChannelState c1 = new ChannelState(config, channelUID, value1, channelStateUpdateListener);
+        c1.addTransformation(new ChannelStateTransformation("JSONPATH:$.temperature", provider));
+        c1.setPayloadCache(payloadCache);
+        TextValue value2 = new TextValue();
+        ChannelState c2 = new ChannelState(config, channelUID, value2, channelStateUpdateListener);
+        c2.addTransformation(new ChannelStateTransformation("JSONPATH:$.temperature", provider));
+        c2.setPayloadCache(payloadCache);
+        c1.start(connection, mock(ScheduledExecutorService.class), 100);
+        c2.start(connection, mock(ScheduledExecutorService.class), 100);
+
+        // The connection hands the same payload to all subscribers of a topic
+        byte[] payload = "{\"temperature\":23.2}".getBytes();
+        c1.processMessage("state", payload);
+        c2.processMessage("state", payload);
+        assertThat(value1.getChannelState().toString(), is("23.2"));
+        assertThat(value2.getChannelState().toString(), is("23.2"));
+        verify(service, times(1)).transform(any(), any());
+
+        // A new message is transformed again
+        c1.processMessage("state", "{\"temperature\":23.2}".getBytes());
+        verify(service, times(2)).transform(any(), any());
+    }
+
     @Test
     public void receiveDecimalTest() {
         NumberValue value = new NumberValue(null, null, new BigDecimal(10), null);
@@ -0,0 +1,205 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.generic.tools;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.openhab.binding.mqtt.generic.tools.DelayedBatchProcessing.FlushReason;
+
+/**
+ * Tests the {@link DelayedBatchProcessing} class.
+ * <p>
+ * The scheduler is mocked and the time is advanced manually, so the tests do not depend on the wall clock.
+ *
+ * @author Markus Lindqvist - Initial contribution
+ */
+public class DelayedBatchProcessingTests {
+    private ScheduledExecutorService scheduler;
+
+    private ScheduledFuture<?> scheduledFuture;
+
+    private Consumer<List<Integer>> consumer;
+
+    // Current time in milliseconds, the scheduled timer and its due time
+    private long now;
+    private Runnable timer;
+    private long timerDue;
+
+    /**
+     * Uses the manually advanced time of the test
+     */
+    private class TestProcessing extends DelayedBatchProcessing<Integer> {
+        TestProcessing(int delay, int maxDelay, int maxSize) {
+            super(delay, maxDelay, maxSize, consumer, scheduler);
+        }
+
+        @Override
+        long nanoTime() {
+            return TimeUnit.MILLISECONDS.toNanos(now);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Before
+    public void setUp() {
+        scheduler = mock(ScheduledExecutorService.class);
+        scheduledFuture = mock(ScheduledFuture.class);
+        consumer = mock(Consumer.class);
+        now = 0;
+        timer = null;
+
+        doReturn(false).when(scheduledFuture).isDone();
+        doAnswer(invocation -> {
+            timer = invocation.getArgument(0);
+            timerDue = now + TimeUnit.MILLISECONDS.convert(invocation.getArgument(1), invocation.getArgument(2));
+            return scheduledFuture;
+        }).when(scheduler).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(0)).run();
+            return null;
+        }).when(scheduler).execute(any(Runnable.class));
+    }
+
+    /**
+     * Advances the time and runs the timer at the time it is due.
+     */
+    private void advance(long millis) {
+        long target = now + millis;
+        while (timer != null && timerDue <= target) {
+            now = timerDue;
+            Runnable due = timer;
+            timer = null;
+            due.run();
+        }
+        now = target;
+    }
+
+    @Test
+    public void deliverAfterDelay() {
+        DelayedBatchProcessing<Integer> processing = new TestProcessing(50, 500, Integer.MAX_VALUE);
+        processing.accept(1);
+        processing.accept(2);
+        assertTrue(processing.isArmed());
+
+        advance(49);
+        verify(consumer, never()).accept(anyList());
+        advance(1);
+        verify(consumer).accept(eq(Arrays.asList(1, 2)));
+        assertThat(processing.getFlushCount(FlushReason.DELAY), is(1L));
+        assertThat(processing.getObjectCount(), is(2L));
+    }
+
+    @Test
+    public void steadyStreamIsDeliveredAfterMaxDelay() {
+        DelayedBatchProcessing<Integer> processing = new TestProcessing(100, 300, Integer.MAX_VALUE);
+        // Add objects faster than the delay for longer than the maximum delay
+        for (int i = 0; i < 30; i++) {
+            processing.accept(i);
+            advance(10);
+        }
+
+        verify(consumer).accept(eq(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18,
+                19, 20, 21, 22, 23, 24, 25, 26, 27, 28, 29)));
+        assertThat(processing.getFlushCount(FlushReason.MAX_DELAY), is(1L));
+    }
+
+    @Test
+    public void deliverAtMaxSize() {
+        DelayedBatchProcessing<Integer> processing = new TestProcessing(10000, 10000, 3);
+        processing.accept(1);
+        processing.accept(2);
+        processing.accept(3);
+
+        verify(consumer).accept(eq(Arrays.asList(1, 2, 3)));
+        assertThat(processing.getFlushCount(FlushReason.MAX_SIZE), is(1L));
+        assertThat(processing.getLargestBatchSize(), is(3));
+    }
+
+    @Test
+    public void fullBatchDrainedByTimerCountsAsMaxSize() {
+        // The flush because of the maximum size is queued behind the timer
+        doNothing().when(scheduler).execute(any(Runnable.class));
+        DelayedBatchProcessing<Integer> processing = new TestProcessing(50, 500, 2);
+        processing.accept(1);
+        processing.accept(2);
+        ArgumentCaptor<Runnable> sizeFlush = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).execute(sizeFlush.capture());
+
+        advance(50);
+        sizeFlush.getValue().run();
+
+        verify(consumer, times(1)).accept(anyList());
+        verify(consumer).accept(eq(Arrays.asList(1, 2)));
+        assertThat(processing.getFlushCount(FlushReason.MAX_SIZE), is(1L));
+        assertThat(processing.getFlushCount(FlushReason.DELAY), is(0L));
+        assertThat(processing.getBatchCount(), is(1L));
+    }
+
+    @Test
+    public void maxDelayRestartsAfterMaxSize() {
+        DelayedBatchProcessing<Integer> processing = new TestProcessing(200, 400, 3);
+        processing.accept(1);
+        advance(120);
+        processing.accept(2);
+        advance(120);
+        // Delivered because of the size, the timer stays armed
+        processing.accept(3);
+        advance(60);
+        processing.accept(4);
+
+        // The maximum delay of the second batch is counted from the size flush, not from the first object
+        advance(199);
+        verify(consumer, never()).accept(eq(Arrays.asList(4)));
+        advance(1);
+        verify(consumer).accept(eq(Arrays.asList(4)));
+        assertThat(processing.getFlushCount(FlushReason.MAX_SIZE), is(1L));
+        assertThat(processing.getFlushCount(FlushReason.MAX_DELAY), is(0L));
+        assertThat(processing.getFlushCount(FlushReason.DELAY), is(1L));
+    }
+
+    @Test
+    public void forceProcessNow() {
+        DelayedBatchProcessing<Integer> processing = new TestProcessing(10000, 10000, Integer.MAX_VALUE);
+        processing.accept(1);
+        processing.forceProcessNow();
+
+        verify(consumer).accept(eq(Arrays.asList(1)));
+        verify(scheduledFuture).cancel(false);
+        assertThat(processing.getFlushCount(FlushReason.FORCED), is(1L));
+        assertThat(processing.getBatchCount(), is(1L));
+    }
+
+    @Test
+    public void joinDoesNotDeliver() {
+        DelayedBatchProcessing<Integer> processing = new TestProcessing(10000, 10000, Integer.MAX_VALUE);
+        processing.accept(1);
+
+        assertThat(processing.join(), is(Arrays.asList(1)));
+        assertThat(processing.getQueueSize(), is(0));
+        verify(scheduledFuture).cancel(false);
+        verify(consumer, never()).accept(anyList());
+    }
+}
@@ -14,8 +14,11 @@ package org.openhab.binding.mqtt.homeassistant.internal;
 
 import java.lang.ref.WeakReference;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -23,6 +26,7 @@ import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.eclipse.smarthome.core.thing.ThingUID;
 import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
 import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
@@ -38,11 +42,17 @@ import com.google.gson.Gson;
 /**
  * Responsible for subscribing to the HomeAssistant MQTT components wildcard topic, either
  * in a time limited discovery mode or as a background discovery.
+ * <p>
+ * Component configurations that did not change compared to an already known component are skipped. The other
+ * configurations are parsed on a bounded thread pool, so that the burst of retained configurations after a
+ * (re-)connect is not processed on the MQTT client thread one after another.
  *
  * @author David Graeff - Initial contribution
  */
 @NonNullByDefault
 public class DiscoverComponents implements MqttMessageSubscriber {
+    private static final String THREADPOOL_NAME = "mqtt-homeassistant-discovery";
+
     private final Logger logger = LoggerFactory.getLogger(DiscoverComponents.class);
     private final ThingUID thingUID;
     private final ScheduledExecutorService scheduler;
@@ -58,12 +68,24 @@ public class DiscoverComponents implements MqttMessageSubscriber {
     protected @NonNullByDefault({}) ComponentDiscovered discoveredListener;
     private int discoverTime;
     private Set<String> topics = new HashSet<>();
+    private final ExecutorService executor = ThreadPoolManager.getPool(THREADPOOL_NAME);
+    // Hash of the most recently received configuration per topic
+    private final Map<String, Integer> receivedConfigHashes = new ConcurrentHashMap<>();
 
     /**
      * Implement this to get notified of new components
      */
     public static interface ComponentDiscovered {
         void componentDiscovered(HaID homeAssistantTopicID, AbstractComponent<?> component);
+
+        /**
+         * Return true if a component with the given ID and configuration is already known.
+         * The configuration is then not parsed again.
+         *
+         * @param homeAssistantTopicID The HomeAssistant ID of the component
+         * @param configHash The hash code ({@link String#hashCode()}) of the configuration string
+         */
+        boolean isKnownComponent(HaID homeAssistantTopicID, int configHash);
     }
 
     /**
@@ -92,7 +114,20 @@ public class DiscoverComponents implements MqttMessageSubscriber {
 
         HaID haID = new HaID(topic);
         String config = new String(payload);
+        int configHash = config.hashCode();
+        receivedConfigHashes.put(topic, configHash);
+
+        final ComponentDiscovered discoveredListener = this.discoveredListener;
+        if (config.length() > 0 && discoveredListener != null
+                && discoveredListener.isKnownComponent(haID, configHash)) {
+            logger.trace("HomeAssistant thing {} component {} unchanged", haID.objectID, haID.component);
+            return;
+        }
+
+        executor.execute(() -> createComponent(topic, haID, config, configHash));
+    }
 
+    private void createComponent(String topic, HaID haID, String config, int configHash) {
         AbstractComponent<?> component = null;
 
         if (config.length() > 0) {
@@ -100,9 +135,15 @@ public class DiscoverComponents implements MqttMessageSubscriber {
                     transformationServiceProvider);
         }
         if (component != null) {
+            Integer receivedConfigHash = receivedConfigHashes.get(topic);
+            if (receivedConfigHash == null || receivedConfigHash != configHash) {
+                // A newer configuration has been received in the meantime
+                return;
+            }
             component.setConfigSeen();
 
             logger.trace("Found HomeAssistant thing {} component {}", haID.objectID, haID.component);
+            final ComponentDiscovered discoveredListener = this.discoveredListener;
             if (discoveredListener != null) {
                 discoveredListener.componentDiscovered(haID, component);
             }
@@ -66,6 +66,8 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
     protected final Map<String, Set<HaID>> componentsPerThingID = new TreeMap<>();
     protected final Map<String, ThingUID> thingIDPerTopic = new TreeMap<>();
     protected final Map<String, DiscoveryResult> results = new ConcurrentHashMap<>();
+    // Parsed configurations per topic, to not parse the retained configurations again on every reconnect
+    private final Map<String, ParsedConfiguration> parsedConfigurations = new ConcurrentHashMap<>();
 
     private @Nullable ScheduledFuture<?> future;
     private final Gson gson;
@@ -86,6 +88,16 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
 
     static final String BASE_TOPIC = "homeassistant";
 
+    private static class ParsedConfiguration {
+        final String json;
+        final BaseChannelConfiguration config;
+
+        ParsedConfiguration(String json, BaseChannelConfiguration config) {
+            this.json = json;
+            this.config = config;
+        }
+    }
+
     @NonNullByDefault({})
     protected MqttChannelTypeProvider typeProvider;
 
@@ -147,8 +159,13 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
         }
         this.future = scheduler.schedule(this::publishResults, 2, TimeUnit.SECONDS);
 
-        BaseChannelConfiguration config = BaseChannelConfiguration
-                .fromString(new String(payload, StandardCharsets.UTF_8), gson);
+        String json = new String(payload, StandardCharsets.UTF_8);
+        ParsedConfiguration parsed = parsedConfigurations.get(topic);
+        if (parsed == null || !parsed.json.equals(json)) {
+            parsed = new ParsedConfiguration(json, BaseChannelConfiguration.fromString(json, gson));
+            parsedConfigurations.put(topic, parsed);
+        }
+        BaseChannelConfiguration config = parsed.config;
 
         // We will of course find multiple of the same unique Thing IDs, for each different component another one.
         // Therefore the components are assembled into a list and given to the DiscoveryResult label for the user to
@@ -205,6 +222,7 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
         if (!topic.endsWith("/config")) {
             return;
         }
+        parsedConfigurations.remove(topic);
         if (thingIDPerTopic.containsKey(topic)) {
             ThingUID thingUID = thingIDPerTopic.remove(topic);
             final String thingID = thingUID.getId();
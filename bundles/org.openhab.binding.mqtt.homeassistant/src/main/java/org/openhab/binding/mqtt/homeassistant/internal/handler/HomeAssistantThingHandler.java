@@ -249,6 +249,22 @@ public class HomeAssistantThingHandler extends AbstractMQTTThingHandler
         delayedProcessing.accept(component);
     }
 
+    /**
+     * Callback of {@link DiscoverComponents}. Known components with an unchanged configuration are not created again.
+     */
+    @Override
+    public boolean isKnownComponent(HaID homeAssistantTopicID, int configHash) {
+        synchronized (haComponents) { // sync whenever discoverComponents is started
+            for (AbstractComponent<?> known : haComponents.values()) {
+                if (known.getConfigHash() == configHash && known.getHaID().equals(homeAssistantTopicID)) {
+                    known.setConfigSeen();
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     /**
      * Callback of {@link DelayedBatchProcessing}.
      * Add all newly discovered components to the Thing and start the components.
@@ -0,0 +1,101 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.homeassistant.internal;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+import org.eclipse.smarthome.core.thing.ThingUID;
+import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.openhab.binding.mqtt.generic.AvailabilityTracker;
+import org.openhab.binding.mqtt.generic.ChannelStateUpdateListener;
+import org.openhab.binding.mqtt.generic.TransformationServiceProvider;
+import org.openhab.binding.mqtt.homeassistant.internal.DiscoverComponents.ComponentDiscovered;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ * Tests the {@link DiscoverComponents} class.
+ *
+ * @author Markus Lindqvist - Initial contribution
+ */
+public class DiscoverComponentsTests {
+    private static final String TOPIC = "homeassistant/switch/node/object/config";
+    private static final String CONFIG = "{\"name\":\"Switch\",\"state_topic\":\"switch/state\",\"command_topic\":\"switch/set\"}";
+
+    @Mock
+    private MqttBrokerConnection connection;
+
+    @Mock
+    private ChannelStateUpdateListener updateListener;
+
+    @Mock
+    private AvailabilityTracker tracker;
+
+    @Mock
+    private TransformationServiceProvider transformationServiceProvider;
+
+    @Mock
+    private ComponentDiscovered discoveredListener;
+
+    private ScheduledExecutorService scheduler;
+
+    private DiscoverComponents discover;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        scheduler = new ScheduledThreadPoolExecutor(1);
+        doReturn(CompletableFuture.completedFuture(true)).when(connection).subscribe(any(), any());
+
+        Gson gson = new GsonBuilder().registerTypeAdapterFactory(new ChannelConfigurationTypeAdapterFactory())
+                .create();
+        discover = new DiscoverComponents(new ThingUID("mqtt:homeassistant:broker:thing"), scheduler, updateListener,
+                tracker, gson, transformationServiceProvider);
+        discover.startDiscovery(connection, 0, Collections.singleton(new HaID(TOPIC)), discoveredListener);
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void newComponentIsCreated() {
+        discover.processMessage(TOPIC, CONFIG.getBytes());
+
+        verify(discoveredListener, timeout(1000)).componentDiscovered(eq(new HaID(TOPIC)), any());
+    }
+
+    @Test
+    public void knownComponentIsSkipped() {
+        doReturn(true).when(discoveredListener).isKnownComponent(new HaID(TOPIC), CONFIG.hashCode());
+
+        discover.processMessage(TOPIC, CONFIG.getBytes());
+
+        // Skipped before the configuration is handed to the parsing thread pool
+        verify(discoveredListener).isKnownComponent(new HaID(TOPIC), CONFIG.hashCode());
+        verify(discoveredListener, never()).componentDiscovered(any(), any());
+    }
+}
@@ -0,0 +1,179 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.discovery;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Index of values registered for MQTT topic filters. The filters may contain the single-level wildcard "+" and the
+ * multi-level wildcard "#".
+ * <p>
+ * The filters are stored as a tree of their topic levels, so finding all values whose filter matches a topic only
+ * visits the nodes along the topic levels instead of matching the topic against every registered filter.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @author Markus Lindqvist - Initial contribution
+ *
+ * @param <T> The type of the registered values
+ */
+@NonNullByDefault
+public class TopicTrie<T> {
+    private static final String SINGLE_LEVEL_WILDCARD = "+";
+    private static final String MULTI_LEVEL_WILDCARD = "#";
+
+    private final Node<T> root = new Node<>();
+
+    private static class Node<T> {
+        final Map<String, Node<T>> children = new HashMap<>();
+        final Set<T> values = new LinkedHashSet<>();
+
+        boolean isEmpty() {
+            return children.isEmpty() && values.isEmpty();
+        }
+    }
+
+    /**
+     * Register a value for the topic filter.
+     *
+     * @param filter The topic filter, wildcards supported
+     * @param value The value
+     * @return True if the value was not registered for the filter before
+     */
+    public boolean add(String filter, T value) {
+        Node<T> node = root;
+        for (String level : filter.split("/", -1)) {
+            node = node.children.computeIfAbsent(level, l -> new Node<>());
+        }
+        return node.values.add(value);
+    }
+
+    /**
+     * Remove a value registered for the topic filter.
+     *
+     * @param filter The topic filter as used with {@link #add(String, Object)}
+     * @param value The value
+     * @return True if the value was registered for the filter
+     */
+    public boolean remove(String filter, T value) {
+        return remove(root, filter.split("/", -1), 0, value);
+    }
+
+    private boolean remove(Node<T> node, String[] levels, int index, T value) {
+        if (index == levels.length) {
+            return node.values.remove(value);
+        }
+        Node<T> child = node.children.get(levels[index]);
+        if (child == null || !remove(child, levels, index + 1, value)) {
+            return false;
+        }
+        if (child.isEmpty()) {
+            node.children.remove(levels[index]);
+        }
+        return true;
+    }
+
+    /**
+     * Returns true if any value is registered for exactly this topic filter.
+     *
+     * @param filter The topic filter as used with {@link #add(String, Object)}
+     */
+    public boolean containsFilter(String filter) {
+        Node<T> node = root;
+        for (String level : filter.split("/", -1)) {
+            node = node.children.get(level);
+            if (node == null) {
+                return false;
+            }
+        }
+        return !node.values.isEmpty();
+    }
+
+    /**
+     * Returns all values whose topic filter matches the topic. Filters starting with a wildcard do not match topics
+     * starting with "$".
+     *
+     * @param topic A topic without wildcards
+     * @return The matching values, each value only once
+     */
+    public Set<T> match(String topic) {
+        Set<T> result = new LinkedHashSet<>();
+        String[] levels = topic.split("/", -1);
+        boolean systemTopic = topic.startsWith("$");
+        collect(root, levels, 0, systemTopic, result);
+        return result;
+    }
+
+    private void collect(Node<T> node, String[] levels, int index, boolean systemTopic, Set<T> result) {
+        boolean wildcardsAllowed = !(systemTopic && index == 0);
+        if (wildcardsAllowed) {
+            // "#" also matches the parent level, so "a/#" matches "a"
+            Node<T> multiLevel = node.children.get(MULTI_LEVEL_WILDCARD);
+            if (multiLevel != null) {
+                result.addAll(multiLevel.values);
+            }
+        }
+        if (index == levels.length) {
+            result.addAll(node.values);
+            return;
+        }
+        Node<T> exact = node.children.get(levels[index]);
+        if (exact != null) {
+            collect(exact, levels, index + 1, systemTopic, result);
+        }
+        if (wildcardsAllowed) {
+            Node<T> singleLevel = node.children.get(SINGLE_LEVEL_WILDCARD);
+            if (singleLevel != null) {
+                collect(singleLevel, levels, index + 1, systemTopic, result);
+            }
+        }
+    }
+
+    /**
+     * Returns true if the topic filter matches the topic, with the same rules as {@link #match(String)}.
+     *
+     * @param filter The topic filter, wildcards supported
+     * @param topic A topic without wildcards
+     */
+    public static boolean matches(String filter, String topic) {
+        String[] filterLevels = filter.split("/", -1);
+        String[] levels = topic.split("/", -1);
+        boolean systemTopic = topic.startsWith("$");
+        for (int i = 0; i < filterLevels.length; i++) {
+            String level = filterLevels[i];
+            boolean wildcardsAllowed = !(systemTopic && i == 0);
+            if (MULTI_LEVEL_WILDCARD.equals(level)) {
+                return wildcardsAllowed;
+            }
+            if (i == levels.length) {
+                return false;
+            }
+            if (!level.equals(levels[i]) && !(wildcardsAllowed && SINGLE_LEVEL_WILDCARD.equals(level))) {
+                return false;
+            }
+        }
+        return filterLevels.length == levels.length;
+    }
+
+    /**
+     * Returns true if no values are registered.
+     */
+    public boolean isEmpty() {
+        return root.isEmpty();
+    }
+}
@@ -12,10 +12,14 @@
  */
 package org.openhab.binding.mqtt.handler;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeoutException;
 
@@ -28,10 +32,11 @@ import org.eclipse.smarthome.core.types.Command;
 import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
 import org.eclipse.smarthome.io.transport.mqtt.MqttConnectionObserver;
 import org.eclipse.smarthome.io.transport.mqtt.MqttConnectionState;
+import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
 import org.eclipse.smarthome.io.transport.mqtt.MqttService;
 import org.openhab.binding.mqtt.action.MQTTActions;
 import org.openhab.binding.mqtt.discovery.MQTTTopicDiscoveryParticipant;
-import org.openhab.binding.mqtt.discovery.TopicSubscribe;
+import org.openhab.binding.mqtt.discovery.TopicTrie;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -48,7 +53,15 @@ public abstract class AbstractBrokerHandler extends BaseBridgeHandler implements
     private final Logger logger = LoggerFactory.getLogger(AbstractBrokerHandler.class);
 
     final Map<ChannelUID, PublishTriggerChannel> channelStateByChannelUID = new HashMap<>();
-    private final Map<String, @Nullable Map<MQTTTopicDiscoveryParticipant, @Nullable TopicSubscribe>> discoveryTopics = new HashMap<>();
+    // Discovery participants by topic filter. Guarded by itself, as are the fields below.
+    private final TopicTrie<MQTTTopicDiscoveryParticipant> discoveryParticipants = new TopicTrie<>();
+    // One broker subscription per topic filter, shared by all participants of that filter
+    private final Set<String> discoveryFilters = new HashSet<>();
+    // The connection the discovery filters are subscribed on, null if not subscribed
+    private @Nullable MqttBrokerConnection discoveryConnection;
+    // Last payload received per discovery topic, replayed to participants joining a subscribed filter
+    private final Map<String, byte[]> discoveryPayloads = new HashMap<>();
+    private final DiscoveryDispatcher discoveryDispatcher = new DiscoveryDispatcher();
 
     protected @Nullable MqttBrokerConnection connection;
     protected CompletableFuture<MqttBrokerConnection> connectionFuture = new CompletableFuture<>();
@@ -116,28 +129,13 @@ public abstract class AbstractBrokerHandler extends BaseBridgeHandler implements
         });
         connectionFuture.complete(connection);
 
-        discoveryTopics.forEach((topic, listenerMap) -> {
-            listenerMap.replaceAll((listener, oldTopicSubscribe) -> {
-                if (oldTopicSubscribe.isStarted()) {
-                    oldTopicSubscribe.stop();
-                }
-
-                TopicSubscribe topicSubscribe = new TopicSubscribe(connection, topic, listener, thing.getUID());
-                if (discoveryEnabled()) {
-                    topicSubscribe.start().handle((result, ex) -> {
-                        if (ex != null) {
-                            logger.warn("Failed to subscribe {} to discovery topic {} on broker {}", listener, topic,
-                                    thing.getUID());
-                        } else {
-                            logger.trace("Subscribed {} to discovery topic {} on broker {}", listener, topic,
-                                    thing.getUID());
-                        }
-                        return null;
-                    });
-                }
-                return topicSubscribe;
-            });
-        });
+        synchronized (discoveryParticipants) {
+            stopDiscoverySubscriptions();
+            if (discoveryEnabled()) {
+                discoveryConnection = connection;
+                discoveryFilters.forEach(this::startDiscoverySubscription);
+            }
+        }
     }
 
     @Override
@@ -169,11 +167,9 @@ public abstract class AbstractBrokerHandler extends BaseBridgeHandler implements
         channelStateByChannelUID.clear();
 
         // keep topics, but stop subscriptions
-        discoveryTopics.forEach((topic, listenerMap) -> {
-            listenerMap.forEach((listener, topicSubscribe) -> {
-                topicSubscribe.stop();
-            });
-        });
+        synchronized (discoveryParticipants) {
+            stopDiscoverySubscriptions();
+        }
 
         if (connection != null) {
             connection.removeConnectionObserver(this);
@@ -193,30 +189,26 @@ public abstract class AbstractBrokerHandler extends BaseBridgeHandler implements
      * @param topic the topic (wildcards supported)
      */
     public final void registerDiscoveryListener(MQTTTopicDiscoveryParticipant listener, String topic) {
-        Map<MQTTTopicDiscoveryParticipant, @Nullable TopicSubscribe> topicListeners = discoveryTopics
-                .computeIfAbsent(topic, t -> new HashMap<>());
-        topicListeners.compute(listener, (k, v) -> {
-            if (v != null) {
+        final MqttBrokerConnection connection;
+        final List<Map.Entry<String, byte[]>> replay = new ArrayList<>();
+        synchronized (discoveryParticipants) {
+            if (!discoveryParticipants.add(topic, listener)) {
                 logger.warn("Duplicate subscription for {} to discovery topic {} on broker {}. Check discovery logic!",
                         listener, topic, thing.getUID());
-                v.stop();
             }
-
-            TopicSubscribe topicSubscribe = new TopicSubscribe(connection, topic, listener, thing.getUID());
-            if (discoveryEnabled()) {
-                topicSubscribe.start().handle((result, ex) -> {
-                    if (ex != null) {
-                        logger.warn("Failed to subscribe {} to discovery topic {} on broker {}", listener, topic,
-                                thing.getUID());
-                    } else {
-                        logger.trace("Subscribed {} to discovery topic {} on broker {}", listener, topic,
-                                thing.getUID());
-                    }
-                    return null;
-                });
+            connection = discoveryConnection;
+            if (discoveryFilters.add(topic)) {
+                startDiscoverySubscription(topic);
+            } else if (connection != null) {
+                // The filter is already subscribed. Re-subscribing would make the broker send the retained messages
+                // to all participants again, so only the new listener gets the last known messages.
+                discoveryPayloads.entrySet().stream().filter(e -> TopicTrie.matches(topic, e.getKey()))
+                        .forEach(replay::add);
             }
-            return topicSubscribe;
-        });
+        }
+        if (connection != null) {
+            replay.forEach(e -> listener.receivedMessage(thing.getUID(), connection, e.getKey(), e.getValue()));
+        }
     }
 
     /**
@@ -226,28 +218,85 @@ public abstract class AbstractBrokerHandler extends BaseBridgeHandler implements
      * @param topic the topic (as specified during registration)
      */
     public final void unregisterDiscoveryListener(MQTTTopicDiscoveryParticipant listener, String topic) {
-        Map<MQTTTopicDiscoveryParticipant, @Nullable TopicSubscribe> topicListeners = discoveryTopics.compute(topic,
-                (k, v) -> {
-                    if (v == null) {
-                        logger.warn(
-                                "Tried to unsubscribe {} from  discovery topic {} on broker {} but topic not registered at all. Check discovery logic!",
-                                listener, topic, thing.getUID());
-                        return null;
-                    }
-                    v.compute(listener, (l, w) -> {
-                        if (w == null) {
-                            logger.warn(
-                                    "Tried to unsubscribe {} from  discovery topic {} on broker {} but topic not registered for listener. Check discovery logic!",
-                                    listener, topic, thing.getUID());
-                        } else {
-                            w.stop();
-                            logger.trace("Unsubscribed {} from discovery topic {} on broker {}", listener, topic,
-                                    thing.getUID());
-                        }
-                        return null;
-                    });
-                    return v.isEmpty() ? null : v;
-                });
+        synchronized (discoveryParticipants) {
+            if (!discoveryParticipants.remove(topic, listener)) {
+                logger.warn(
+                        "Tried to unsubscribe {} from  discovery topic {} on broker {} but topic not registered for listener. Check discovery logic!",
+                        listener, topic, thing.getUID());
+                return;
+            }
+            logger.trace("Unsubscribed {} from discovery topic {} on broker {}", listener, topic, thing.getUID());
+            if (!discoveryParticipants.containsFilter(topic)) {
+                discoveryFilters.remove(topic);
+                final MqttBrokerConnection connection = discoveryConnection;
+                if (connection != null) {
+                    connection.unsubscribe(topic, discoveryDispatcher);
+                }
+                discoveryPayloads.keySet().removeIf(t -> discoveryParticipants.match(t).isEmpty());
+            }
+        }
+    }
+
+    private void startDiscoverySubscription(String topic) {
+        final MqttBrokerConnection connection = discoveryConnection;
+        if (connection == null) {
+            return;
+        }
+        connection.subscribe(topic, discoveryDispatcher).handle((result, ex) -> {
+            if (ex != null) {
+                logger.warn("Failed to subscribe to discovery topic {} on broker {}", topic, thing.getUID());
+            } else {
+                logger.trace("Subscribed to discovery topic {} on broker {}", topic, thing.getUID());
+            }
+            return null;
+        });
+    }
+
+    private void stopDiscoverySubscriptions() {
+        final MqttBrokerConnection connection = discoveryConnection;
+        if (connection != null) {
+            discoveryFilters.forEach(topic -> connection.unsubscribe(topic, discoveryDispatcher));
+        }
+        discoveryConnection = null;
+        discoveryPayloads.clear();
+    }
+
+    /**
+     * Dispatches messages received on the discovery subscriptions to all participants with a matching topic filter.
+     * <p>
+     * A message matching several overlapping topic filters is received once per subscription, but with the same
+     * payload array. Such a message is dispatched only once, also if it is empty and reports a vanished topic.
+     */
+    private class DiscoveryDispatcher implements MqttMessageSubscriber {
+        private @Nullable String lastTopic;
+        private byte @Nullable [] lastPayload;
+
+        @Override
+        public void processMessage(String topic, byte[] payload) {
+            final MqttBrokerConnection connection;
+            final Set<MQTTTopicDiscoveryParticipant> participants;
+            synchronized (discoveryParticipants) {
+                connection = discoveryConnection;
+                if (connection == null || (payload == lastPayload && topic.equals(lastTopic))) {
+                    return;
+                }
+                lastTopic = topic;
+                lastPayload = payload;
+                if (payload.length > 0) {
+                    discoveryPayloads.put(topic, payload);
+                } else {
+                    discoveryPayloads.remove(topic);
+                }
+                participants = discoveryParticipants.match(topic);
+            }
+            for (MQTTTopicDiscoveryParticipant participant : participants) {
+                if (payload.length > 0) {
+                    participant.receivedMessage(thing.getUID(), connection, topic, payload);
+                } else {
+                    participant.topicVanished(thing.getUID(), connection, topic);
+                }
+            }
+        }
     }
 
     /**
@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.discovery;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import org.junit.Test;
+
+/**
+ * Tests the {@link TopicTrie} class.
+ *
+ * @author Markus Lindqvist - Initial contribution
+ */
+public class TopicTrieTest {
+
+    @Test
+    public void matchExactAndWildcards() {
+        TopicTrie<String> trie = new TopicTrie<>();
+        trie.add("a/b/c", "exact");
+        trie.add("a/+/c", "single");
+        trie.add("a/#", "multi");
+        trie.add("#", "all");
+        trie.add("+/+/$homie", "homie");
+
+        assertThat(trie.match("a/b/c"), is(new HashSet<>(Arrays.asList("exact", "single", "multi", "all"))));
+        assertThat(trie.match("a/x/c"), is(new HashSet<>(Arrays.asList("single", "multi", "all"))));
+        assertThat(trie.match("a"), is(new HashSet<>(Arrays.asList("multi", "all"))));
+        assertThat(trie.match("b/c"), is(Collections.singleton("all")));
+        assertThat(trie.match("homie/device/$homie"), is(new HashSet<>(Arrays.asList("homie", "all"))));
+        assertThat(trie.match("homie/device/node/$homie"), is(Collections.singleton("all")));
+    }
+
+    @Test
+    public void wildcardsDoNotMatchSystemTopics() {
+        TopicTrie<String> trie = new TopicTrie<>();
+        trie.add("#", "all");
+        trie.add("+/broker", "single");
+        trie.add("$SYS/#", "system");
+
+        assertThat(trie.match("$SYS/broker"), is(Collections.singleton("system")));
+    }
+
+    @Test
+    public void matchesAgreesWithMatch() {
+        TopicTrie<String> trie = new TopicTrie<>();
+        String[] filters = { "a/b/c", "a/+/c", "a/#", "#", "+/+/$homie", "+/broker", "$SYS/#", "a/+" };
+        for (String filter : filters) {
+            trie.add(filter, filter);
+        }
+        for (String topic : new String[] { "a/b/c", "a/x/c", "a", "a/b", "b/c", "homie/device/$homie",
+                "homie/device/node/$homie", "$SYS/broker" }) {
+            for (String filter : filters) {
+                assertThat(filter + " " + topic, TopicTrie.matches(filter, topic),
+                        is(trie.match(topic).contains(filter)));
+            }
+        }
+    }
+
+    @Test
+    public void overlappingFiltersMatchValueOnce() {
+        TopicTrie<String> trie = new TopicTrie<>();
+        trie.add("homeassistant/#", "listener");
+        trie.add("homeassistant/+/+/config", "listener");
+
+        assertThat(trie.match("homeassistant/sensor/abc/config"), is(Collections.singleton("listener")));
+        assertTrue(trie.remove("homeassistant/#", "listener"));
+        assertThat(trie.match("homeassistant/sensor/abc/config"), is(Collections.singleton("listener")));
+        assertTrue(trie.match("homeassistant/sensor/abc/state").isEmpty());
+    }
+
+    @Test
+    public void addAndRemove() {
+        TopicTrie<String> trie = new TopicTrie<>();
+        assertTrue(trie.add("a/+", "one"));
+        assertFalse(trie.add("a/+", "one"));
+        assertTrue(trie.add("a/+", "two"));
+        assertTrue(trie.containsFilter("a/+"));
+        assertFalse(trie.containsFilter("a"));
+
+        assertTrue(trie.remove("a/+", "one"));
+        assertFalse(trie.remove("a/+", "one"));
+        assertThat(trie.match("a/b"), is(Collections.singleton("two")));
+
+        assertTrue(trie.remove("a/+", "two"));
+        assertFalse(trie.containsFilter("a/+"));
+        assertTrue(trie.isEmpty());
+    }
+}
@@ -13,7 +13,7 @@
 package org.openhab.binding.mqtt.internal;
 
 import static org.junit.Assert.assertTrue;
-import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 import java.util.concurrent.ScheduledExecutorService;
@@ -59,6 +59,9 @@ public class MQTTTopicDiscoveryServiceTest {
     @Mock
     MQTTTopicDiscoveryParticipant listener;
 
+    @Mock
+    MQTTTopicDiscoveryParticipant otherListener;
+
     private MqttBrokerConnectionEx connection;
 
     private BrokerHandler handler;
@@ -151,4 +154,42 @@ public class MQTTTopicDiscoveryServiceTest {
                 .forEach(s -> s.processMessage("topic", bytes));
         verify(listener).topicVanished(eq(thing.getUID()), eq(connection), eq("topic"));
     }
+
+    @Test
+    public void overlappingFiltersDispatchOnce() {
+        handler.initialize();
+        handler.registerDiscoveryListener(listener, "topic/#");
+        handler.registerDiscoveryListener(listener, "topic/+");
+
+        // The connection delivers a message once per matching subscription, with the same payload
+        final byte[] bytes = "TEST".getBytes();
+        connection.getSubscribers().get("topic/#").forEach(s -> s.processMessage("topic/a", bytes));
+        connection.getSubscribers().get("topic/+").forEach(s -> s.processMessage("topic/a", bytes));
+        verify(listener, times(1)).receivedMessage(eq(thing.getUID()), eq(connection), eq("topic/a"), eq(bytes));
+
+        final byte[] empty = new byte[0];
+        connection.getSubscribers().get("topic/#").forEach(s -> s.processMessage("topic/a", empty));
+        connection.getSubscribers().get("topic/+").forEach(s -> s.processMessage("topic/a", empty));
+        verify(listener, times(1)).topicVanished(eq(thing.getUID()), eq(connection), eq("topic/a"));
+    }
+
+    @Test
+    public void joiningListenerOnlyGetsReplay() {
+        handler.initialize();
+        handler.registerDiscoveryListener(listener, "topic/#");
+        final byte[] bytes = "TEST".getBytes();
+        connection.getSubscribers().get("topic/#").forEach(s -> s.processMessage("topic/a", bytes));
+
+        handler.registerDiscoveryListener(otherListener, "topic/#");
+
+        verify(connection, times(1)).subscribe(eq("topic/#"), any());
+        verify(listener, times(1)).receivedMessage(eq(thing.getUID()), eq(connection), eq("topic/a"), eq(bytes));
+        verify(otherListener).receivedMessage(eq(thing.getUID()), eq(connection), eq("topic/a"), eq(bytes));
+
+        // A vanished topic is not replayed
+        connection.getSubscribers().get("topic/#").forEach(s -> s.processMessage("topic/a", new byte[0]));
+        handler.unregisterDiscoveryListener(otherListener, "topic/#");
+        handler.registerDiscoveryListener(otherListener, "topic/#");
+        verify(otherListener, times(1)).receivedMessage(any(), any(), any(), any());
+    }
 }
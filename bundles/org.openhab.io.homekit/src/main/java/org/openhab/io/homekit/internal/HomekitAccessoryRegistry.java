@@ -56,6 +56,10 @@ class HomekitAccessoryRegistry {
         return configurationRevision;
     }
 
+    public synchronized @Nullable HomekitAccessory get(String itemName) {
+        return createdAccessories.get(itemName);
+    }
+
     public synchronized void remove(String itemName) {
         if (createdAccessories.containsKey(itemName)) {
             HomekitAccessory accessory = createdAccessories.remove(itemName);
@@ -22,8 +22,10 @@ import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.eclipse.smarthome.core.items.GroupItem;
 import org.eclipse.smarthome.core.items.Item;
@@ -84,7 +86,12 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
                 Clock.systemUTC(), this::applyUpdates);
 
         itemRegistry.addRegistryChangeListener(this);
-        itemRegistry.getItems().forEach(this::createRootAccessories);
+        itemRegistry.getItems().forEach(item -> {
+            final @Nullable HomekitAccessory accessory = createRootAccessories(item);
+            if (accessory != null) {
+                accessoryRegistry.addRootAccessory(item.getName(), accessory);
+            }
+        });
         initialiseRevision();
         logger.info("Created {} HomeKit items.", accessoryRegistry.getAllAccessories().size());
     }
@@ -111,9 +118,17 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
         markDirty(item);
     }
 
+    /**
+     * All items are compared with the existing accessories after the debounce period, like single changes. Accessories
+     * whose structure did not change are kept, so HomeKit controllers do not need to fetch them again.
+     */
     @Override
-    public void allItemsChanged(Collection<String> oldItemNames) {
-        clearAccessories();
+    public synchronized void allItemsChanged(Collection<String> oldItemNames) {
+        logger.trace("Mark all items dirty");
+        pendingUpdates.addAll(oldItemNames);
+        pendingUpdates.addAll(accessoryRegistry.getAllAccessories().keySet());
+        itemRegistry.getItems().forEach(item -> pendingUpdates.add(item.getName()));
+        applyUpdatesDebouncer.call();
     }
 
     /**
@@ -157,15 +172,53 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
         storage.put(ACCESSORY_COUNT, "" + lastAccessoryCount);
     }
 
+    /**
+     * Re-creates the accessories of the pending items and compares them with the existing ones. Unchanged accessories
+     * are kept, and a new configuration revision is only made if the structure of an accessory changed.
+     */
     private synchronized void applyUpdates() {
         logger.trace("apply updates");
+        final long start = System.nanoTime();
+        int added = 0;
+        int removed = 0;
+        int replaced = 0;
+        int kept = 0;
+        boolean structureChanged = false;
         for (final String name : pendingUpdates) {
-            accessoryRegistry.remove(name);
-            logger.trace(" add items {}", name);
-            getItemOptional(name).ifPresent(this::createRootAccessories);
+            final @Nullable HomekitAccessory oldAccessory = accessoryRegistry.get(name);
+            final @Nullable HomekitAccessory newAccessory = getItemOptional(name).map(this::createRootAccessories)
+                    .orElse(null);
+            if (newAccessory == null) {
+                if (oldAccessory != null) {
+                    logger.trace(" remove item {}", name);
+                    accessoryRegistry.remove(name);
+                    structureChanged = true;
+                    removed++;
+                }
+            } else if (oldAccessory == null) {
+                logger.trace(" add item {}", name);
+                accessoryRegistry.addRootAccessory(name, newAccessory);
+                structureChanged = true;
+                added++;
+            } else if (HomekitAccessoryFactory.isReusable(oldAccessory, newAccessory)) {
+                logger.trace(" keep item {}", name);
+                kept++;
+            } else {
+                logger.trace(" replace item {}", name);
+                structureChanged |= !HomekitAccessoryFactory.hasSameStructure(oldAccessory, newAccessory);
+                accessoryRegistry.remove(name);
+                accessoryRegistry.addRootAccessory(name, newAccessory);
+                replaced++;
+            }
         }
-        if (!pendingUpdates.isEmpty()) {
+        if (structureChanged) {
             makeNewConfigurationRevision();
+        }
+        if (!pendingUpdates.isEmpty()) {
+            logger.debug(
+                    "Applied {} item changes in {} ms: {} accessories added, {} removed, {} replaced, {} kept, new configuration revision: {}",
+                    pendingUpdates.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), added, removed,
+                    replaced, kept, structureChanged);
             pendingUpdates.clear();
         }
     }
@@ -237,8 +290,10 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
      * Switch light "Light" (gLight) {homekit="Lighting.OnState"}
      *
      * @param item openHAB item
+     * @return the created accessory, or null if the item is no root accessory. If the item has several accessory
+     *         types, the last one is returned.
      */
-    private void createRootAccessories(Item item) {
+    private @Nullable HomekitAccessory createRootAccessories(Item item) {
         final List<Entry<HomekitAccessoryType, HomekitCharacteristicType>> accessoryTypes = HomekitAccessoryFactory
                 .getAccessoryTypes(item, metadataRegistry);
         final List<GroupItem> groups = HomekitAccessoryFactory.getAccessoryGroups(item, itemRegistry, metadataRegistry);
@@ -246,17 +301,26 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
                 && (groups.isEmpty() || groups.stream().noneMatch(g -> g.getBaseItem() == null))) {
             logger.trace("Item {} is a HomeKit accessory of types {}", item.getName(), accessoryTypes);
             final HomekitOHItemProxy itemProxy = new HomekitOHItemProxy(item);
-            accessoryTypes.forEach(rootAccessory -> createRootAccessory(new HomekitTaggedItem(itemProxy,
-                    rootAccessory.getKey(), HomekitAccessoryFactory.getItemConfiguration(item, metadataRegistry))));
+            @Nullable
+            HomekitAccessory accessory = null;
+            for (Entry<HomekitAccessoryType, HomekitCharacteristicType> rootAccessory : accessoryTypes) {
+                final @Nullable HomekitAccessory created = createRootAccessory(new HomekitTaggedItem(itemProxy,
+                        rootAccessory.getKey(), HomekitAccessoryFactory.getItemConfiguration(item, metadataRegistry)));
+                if (created != null) {
+                    accessory = created;
+                }
+            }
+            return accessory;
         }
+        return null;
     }
 
-    private void createRootAccessory(HomekitTaggedItem taggedItem) {
+    private @Nullable HomekitAccessory createRootAccessory(HomekitTaggedItem taggedItem) {
         try {
-            accessoryRegistry.addRootAccessory(taggedItem.getName(),
-                    HomekitAccessoryFactory.create(taggedItem, metadataRegistry, updater, settings));
+            return HomekitAccessoryFactory.create(taggedItem, metadataRegistry, updater, settings);
         } catch (HomekitException e) {
             logger.warn("Could not add device {}: {}", taggedItem.getItem().getUID(), e.getMessage());
+            return null;
         }
     }
 }
@@ -15,7 +15,9 @@ package org.openhab.io.homekit.internal.accessories;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -43,6 +45,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.github.hapjava.accessories.HomekitAccessory;
+import io.github.hapjava.characteristics.Characteristic;
 import io.github.hapjava.characteristics.HomekitCharacteristicChangeCallback;
 import io.github.hapjava.services.Service;
 
@@ -117,6 +120,50 @@ abstract class AbstractHomekitAccessoryImpl implements HomekitAccessory {
         return this.services;
     }
 
+    /**
+     * Returns what HomeKit controllers cache about this accessory: id, name, the services with their characteristics
+     * and the tagged items with their configuration. Controllers need to fetch the accessories again only if the
+     * structure of an accessory changes.
+     */
+    public List<Object> getStructure() {
+        final List<Object> structure = new ArrayList<>();
+        structure.add(getClass().getName());
+        structure.add(getId());
+        structure.add(String.valueOf(accessory.getItem().getLabel()));
+        structure.add(getTaggedItemStructure(accessory));
+        for (HomekitTaggedItem characteristic : characteristics) {
+            structure.add(getTaggedItemStructure(characteristic));
+        }
+        for (Service service : services) {
+            structure.add(service.getType());
+            for (Characteristic characteristic : service.getCharacteristics()) {
+                structure.add(characteristic.getClass().getName());
+            }
+        }
+        return structure;
+    }
+
+    private List<Object> getTaggedItemStructure(HomekitTaggedItem taggedItem) {
+        final @Nullable Map<String, Object> configuration = taggedItem.getConfiguration();
+        return Arrays.asList(taggedItem.getName(), taggedItem.getAccessoryType(), taggedItem.getCharacteristicType(),
+                configuration != null ? configuration : Collections.emptyMap());
+    }
+
+    /**
+     * Returns whether the other accessory is backed by the same item instances as this accessory
+     */
+    public boolean usesSameItems(AbstractHomekitAccessoryImpl other) {
+        if (accessory.getItem() != other.accessory.getItem() || characteristics.size() != other.characteristics.size()) {
+            return false;
+        }
+        for (int i = 0; i < characteristics.size(); i++) {
+            if (characteristics.get(i).getItem() != other.characteristics.get(i).getItem()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     protected HomekitAccessoryUpdater getUpdater() {
         return updater;
     }
@@ -208,6 +208,32 @@ public class HomekitAccessoryFactory {
         }
     }
 
+    /**
+     * Compares the structure of two accessories as it is cached by HomeKit controllers.
+     *
+     * @param accessory first accessory
+     * @param other second accessory
+     * @return true if the controllers do not need to fetch the accessory again when replacing one with the other
+     */
+    public static boolean hasSameStructure(HomekitAccessory accessory, HomekitAccessory other) {
+        return accessory instanceof AbstractHomekitAccessoryImpl && other instanceof AbstractHomekitAccessoryImpl
+                && ((AbstractHomekitAccessoryImpl) accessory).getStructure()
+                        .equals(((AbstractHomekitAccessoryImpl) other).getStructure());
+    }
+
+    /**
+     * Checks whether an existing accessory can be kept instead of a newly created one, because both have the same
+     * structure and are backed by the same item instances.
+     *
+     * @param accessory existing accessory
+     * @param other newly created accessory
+     * @return true if the existing accessory can be kept
+     */
+    public static boolean isReusable(HomekitAccessory accessory, HomekitAccessory other) {
+        return hasSameStructure(accessory, other) && ((AbstractHomekitAccessoryImpl) accessory)
+                .usesSameItems((AbstractHomekitAccessoryImpl) other);
+    }
+
     /**
      * return HomeKit accessory types for a OH item based on meta data
      * 
@@ -101,6 +101,16 @@ public class ConfigStore {
             .registerTypeAdapter(HueSuccessResponseStateChanged.class, new HueSuccessResponseStateChanged.Serializer())
             .registerTypeAdapter(HueGroupEntry.class, new HueGroupEntry.Serializer(this)).create();
 
+    /**
+     * Cached serialized lights, groups and sensors of the data store. Hue clients poll those all the time.
+     */
+    public final JsonSnapshotCache<HueLightEntry> lightsJson = new JsonSnapshotCache<>(gson,
+            HueLightEntry::getSerializationKey);
+    public final JsonSnapshotCache<HueGroupEntry> groupsJson = new JsonSnapshotCache<>(gson,
+            HueGroupEntry::getSerializationKey);
+    public final JsonSnapshotCache<HueSensorEntry> sensorsJson = new JsonSnapshotCache<>(gson,
+            HueSensorEntry::getSerializationKey);
+
     @Reference
     protected @NonNullByDefault({}) ConfigurationAdmin configAdmin;
 
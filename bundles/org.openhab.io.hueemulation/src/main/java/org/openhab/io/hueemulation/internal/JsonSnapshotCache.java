@@ -0,0 +1,185 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.hueemulation.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+import com.google.gson.Gson;
+
+/**
+ * Keeps the serialized JSON of the entries of one of the {@link org.openhab.io.hueemulation.internal.dto.HueDataStore}
+ * maps, like the lights. Hue clients poll the full state all the time, although the entries rarely change.
+ * <p>
+ * Each entry provides a key, which consists of all values that determine its JSON, like the state of the backing item.
+ * The cached JSON of an entry is reused as long as the key is equal. Serializing the whole map assembles the cached
+ * JSON of the entries, and the result is reused as long as no entry changed.
+ * <p>
+ * Each result comes with an entity tag, so that clients can be answered with "304 Not Modified".
+ *
+ * @author Markus Lindqvist - Initial contribution
+ */
+@NonNullByDefault
+public class JsonSnapshotCache<T> {
+    /**
+     * Serialized JSON with its entity tag
+     */
+    public static class Snapshot {
+        public final String json;
+        public final String etag;
+
+        Snapshot(String json, String etag) {
+            this.json = json;
+            this.etag = etag;
+        }
+    }
+
+    private static class Fragment {
+        final Object entry;
+        final List<@Nullable Object> key;
+        final String quotedId;
+        final Snapshot snapshot;
+
+        Fragment(Object entry, List<@Nullable Object> key, String quotedId, Snapshot snapshot) {
+            this.entry = entry;
+            this.key = key;
+            this.quotedId = quotedId;
+            this.snapshot = snapshot;
+        }
+    }
+
+    private static class MapSnapshot {
+        final List<Fragment> fragments;
+        final Snapshot snapshot;
+
+        MapSnapshot(List<Fragment> fragments, Snapshot snapshot) {
+            this.fragments = fragments;
+            this.snapshot = snapshot;
+        }
+    }
+
+    private final Gson gson;
+    private final Function<T, List<@Nullable Object>> keyFunction;
+    private final Map<String, Fragment> fragments = new ConcurrentHashMap<>();
+    /** Entity tags of different runs must differ, clients keep them */
+    private final String etagPrefix = Long.toHexString(System.currentTimeMillis()) + "-";
+    private final AtomicLong versions = new AtomicLong();
+    private volatile @Nullable MapSnapshot mapSnapshot;
+
+    /**
+     * Creates a cache.
+     *
+     * @param gson The gson instance to serialize the entries with
+     * @param keyFunction Returns the values that determine the JSON of an entry
+     */
+    public JsonSnapshotCache(Gson gson, Function<T, List<@Nullable Object>> keyFunction) {
+        this.gson = gson;
+        this.keyFunction = keyFunction;
+    }
+
+    /**
+     * Returns the JSON of a single entry.
+     *
+     * @param id The id of the entry
+     * @param entry The entry. May be null, which is serialized as "null".
+     */
+    public Snapshot get(String id, @Nullable T entry) {
+        if (entry == null) {
+            return new Snapshot("null", etagPrefix + "null");
+        }
+        return getFragment(id, entry).snapshot;
+    }
+
+    /**
+     * Returns the JSON of a map of entries, identical to serializing the map with gson.
+     *
+     * @param entries The entries by their ids
+     */
+    public Snapshot get(Map<String, T> entries) {
+        final List<Fragment> current = new ArrayList<>(entries.size());
+        for (Map.Entry<String, T> entry : entries.entrySet()) {
+            T value = entry.getValue();
+            if (value != null) {
+                current.add(getFragment(entry.getKey(), value));
+            }
+        }
+        if (fragments.size() > current.size()) {
+            fragments.keySet().retainAll(entries.keySet());
+        }
+
+        final MapSnapshot last = mapSnapshot;
+        if (last != null && sameFragments(last.fragments, current)) {
+            return last.snapshot;
+        }
+
+        int length = 2;
+        for (Fragment fragment : current) {
+            length += fragment.quotedId.length() + fragment.snapshot.json.length() + 2;
+        }
+        final StringBuilder json = new StringBuilder(length).append('{');
+        for (Fragment fragment : current) {
+            if (json.length() > 1) {
+                json.append(',');
+            }
+            json.append(fragment.quotedId).append(':').append(fragment.snapshot.json);
+        }
+        json.append('}');
+
+        final MapSnapshot snapshot = new MapSnapshot(current, new Snapshot(json.toString(), nextEtag()));
+        mapSnapshot = snapshot;
+        return snapshot.snapshot;
+    }
+
+    /**
+     * Drops the cached JSON of an entry. Only necessary if the entry has been changed in a way that is not reflected by
+     * its key.
+     *
+     * @param id The id of the entry
+     */
+    public void invalidate(String id) {
+        fragments.remove(id);
+    }
+
+    private Fragment getFragment(String id, T entry) {
+        final List<@Nullable Object> key = keyFunction.apply(entry);
+        Fragment fragment = fragments.get(id);
+        if (fragment == null || fragment.entry != entry || !fragment.key.equals(key)) {
+            fragment = new Fragment(entry, key, gson.toJson(id), new Snapshot(gson.toJson(entry), nextEtag()));
+            fragments.put(id, fragment);
+        }
+        return fragment;
+    }
+
+    private static boolean sameFragments(List<Fragment> a, List<Fragment> b) {
+        if (a.size() != b.size()) {
+            return false;
+        }
+        for (int i = 0; i < a.size(); i++) {
+            if (a.get(i) != b.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String nextEtag() {
+        return etagPrefix + Long.toHexString(versions.incrementAndGet());
+    }
+}
@@ -20,6 +20,8 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.ResponseBuilder;
 import javax.ws.rs.core.UriInfo;
@@ -114,6 +116,23 @@ public class NetworkUtils {
         return Response.status(httpCode).entity(str).build();
     }
 
+    /**
+     * Creates a json response for the cached JSON with its entity tag. Answers with "304 Not Modified" if the client
+     * already has this version.
+     *
+     * @param request The request, for evaluating the If-None-Match header
+     * @param snapshot Cached JSON
+     * @return
+     */
+    public static Response snapshotResponse(Request request, JsonSnapshotCache.Snapshot snapshot) {
+        EntityTag etag = new EntityTag(snapshot.etag);
+        ResponseBuilder response = request.evaluatePreconditions(etag);
+        if (response == null) {
+            response = Response.ok(snapshot.json);
+        }
+        return response.tag(etag).build();
+    }
+
     public static Response singleSuccess(Gson gson, String message, String uriPart) {
         List<HueResponse> responses = new ArrayList<>();
         responses.add(new HueResponse(new HueSuccessGeneric(message, uriPart)));
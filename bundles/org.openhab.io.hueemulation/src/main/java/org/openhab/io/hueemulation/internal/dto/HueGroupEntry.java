@@ -13,6 +13,7 @@
 package org.openhab.io.hueemulation.internal.dto;
 
 import java.lang.reflect.Type;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -20,6 +21,7 @@ import java.util.stream.Collectors;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.items.GroupItem;
+import org.eclipse.smarthome.core.items.Item;
 import org.openhab.io.hueemulation.internal.ConfigStore;
 import org.openhab.io.hueemulation.internal.DeviceType;
 
@@ -77,6 +79,18 @@ public class HueGroupEntry {
         groupItem = element;
     }
 
+    /**
+     * Returns the values that determine the serialized form of this group, see {@link Serializer}. The {@link #action}
+     * is compared by identity.
+     */
+    public List<@Nullable Object> getSerializationKey() {
+        GroupItem item = groupItem;
+        List<String> members = item != null
+                ? item.getMembers().stream().map(Item::getUID).collect(Collectors.toList())
+                : lights;
+        return Arrays.asList(name, type, roomclass, action, members, sensors, deviceType);
+    }
+
     /**
      * This custom serializer computes the {@link HueGroupEntry#lights} list, before serializing.
      * It does so, by looking up all item members of the references groupItem.
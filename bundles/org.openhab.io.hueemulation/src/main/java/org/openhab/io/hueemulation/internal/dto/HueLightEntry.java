@@ -13,6 +13,8 @@
 package org.openhab.io.hueemulation.internal.dto;
 
 import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.List;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -181,6 +183,13 @@ public class HueLightEntry {
         }
     }
 
+    /**
+     * Returns the values that determine the serialized form of this hue device, see {@link Serializer}.
+     */
+    public List<@Nullable Object> getSerializationKey() {
+        return Arrays.asList(item.getState(), item.getLabel(), name, deviceType, lastCommand, lastHueChange);
+    }
+
     /**
      * Replaces the associated openHAB item of this hue device with the given once
      * and also synchronizes/updates the color information of this hue device with the item.
@@ -13,8 +13,11 @@
 package org.openhab.io.hueemulation.internal.dto;
 
 import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.List;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.items.GenericItem;
 import org.eclipse.smarthome.core.library.CoreItemFactory;
 import org.eclipse.smarthome.core.library.types.DecimalType;
@@ -85,6 +88,13 @@ public class HueSensorEntry {
         }
     }
 
+    /**
+     * Returns the values that determine the serialized form of this sensor, see {@link Serializer}.
+     */
+    public List<@Nullable Object> getSerializationKey() {
+        return Arrays.asList(item.getState(), name, type, modelid, manufacturername, swversion, config, uniqueid);
+    }
+
     /**
      * This custom serializer computes the {@link HueGroupEntry#lights} list, before serializing.
      * It does so, by looking up all item members of the references groupItem.
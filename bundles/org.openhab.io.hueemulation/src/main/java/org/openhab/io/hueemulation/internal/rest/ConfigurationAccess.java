@@ -12,6 +12,8 @@
  */
 package org.openhab.io.hueemulation.internal.rest;
 
+import java.io.IOException;
+import java.io.StringWriter;
 import java.util.Collections;
 import java.util.List;
 
@@ -28,6 +30,7 @@ import javax.ws.rs.core.UriInfo;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.openhab.io.hueemulation.internal.ConfigStore;
 import org.openhab.io.hueemulation.internal.NetworkUtils;
+import org.openhab.io.hueemulation.internal.dto.HueDataStore;
 import org.openhab.io.hueemulation.internal.dto.HueUnauthorizedConfig;
 import org.openhab.io.hueemulation.internal.dto.changerequest.HueChangeRequest;
 import org.openhab.io.hueemulation.internal.dto.response.HueResponse;
@@ -37,6 +40,7 @@ import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Reference;
 
 import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonWriter;
 
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
@@ -79,7 +83,39 @@ public class ConfigurationAccess {
         if (!userManagement.authorizeUser(username)) {
             return NetworkUtils.singleError(cs.gson, uri, HueResponse.UNAUTHORIZED, "Not Authorized");
         }
-        return Response.ok(cs.gson.toJson(cs.ds)).build();
+        return Response.ok(getDataStoreJson()).build();
+    }
+
+    /**
+     * Serializes the data store like gson would, but uses the cached JSON of the lights, groups and sensors. The fields
+     * are written in the order of their declaration in {@link HueDataStore}.
+     */
+    private String getDataStoreJson() {
+        HueDataStore ds = cs.ds;
+        StringWriter out = new StringWriter();
+        try (JsonWriter writer = cs.gson.newJsonWriter(out)) {
+            writer.beginObject();
+            writer.name("config");
+            cs.gson.toJson(ds.config, ds.config.getClass(), writer);
+            writer.name("lights").jsonValue(cs.lightsJson.get(ds.lights).json);
+            writer.name("groups").jsonValue(cs.groupsJson.get(ds.groups).json);
+            writer.name("scenes");
+            cs.gson.toJson(ds.scenes, ds.scenes.getClass(), writer);
+            writer.name("rules");
+            cs.gson.toJson(ds.rules, ds.rules.getClass(), writer);
+            writer.name("sensors").jsonValue(cs.sensorsJson.get(ds.sensors).json);
+            writer.name("schedules");
+            cs.gson.toJson(ds.schedules, ds.schedules.getClass(), writer);
+            writer.name("resourcelinks");
+            cs.gson.toJson(ds.resourcelinks, ds.resourcelinks.getClass(), writer);
+            writer.name("capabilities");
+            cs.gson.toJson(ds.capabilities, ds.capabilities.getClass(), writer);
+            writer.endObject();
+        } catch (IOException e) {
+            // Not thrown by a StringWriter
+            throw new IllegalStateException(e);
+        }
+        return out.toString();
     }
 
     @GET
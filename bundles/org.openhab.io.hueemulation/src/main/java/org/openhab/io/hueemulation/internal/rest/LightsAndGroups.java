@@ -27,6 +27,7 @@ import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriInfo;
 
@@ -243,12 +244,12 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
     @Path("{username}/lights")
     @ApiOperation(value = "Return all lights")
     @ApiResponses(value = { @ApiResponse(code = 200, message = "OK") })
-    public Response getAllLightsApi(@Context UriInfo uri,
+    public Response getAllLightsApi(@Context UriInfo uri, @Context Request request,
             @PathParam("username") @ApiParam(value = "username") String username) {
         if (!userManagement.authorizeUser(username)) {
             return NetworkUtils.singleError(cs.gson, uri, HueResponse.UNAUTHORIZED, "Not Authorized");
         }
-        return Response.ok(cs.gson.toJson(cs.ds.lights)).build();
+        return NetworkUtils.snapshotResponse(request, cs.lightsJson.get(cs.ds.lights));
     }
 
     @GET
@@ -279,13 +280,13 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
     @Path("{username}/lights/{id}")
     @ApiOperation(value = "Return a light")
     @ApiResponses(value = { @ApiResponse(code = 200, message = "OK") })
-    public Response getLightApi(@Context UriInfo uri, //
+    public Response getLightApi(@Context UriInfo uri, @Context Request request, //
             @PathParam("username") @ApiParam(value = "username") String username,
             @PathParam("id") @ApiParam(value = "light id") String id) {
         if (!userManagement.authorizeUser(username)) {
             return NetworkUtils.singleError(cs.gson, uri, HueResponse.UNAUTHORIZED, "Not Authorized");
         }
-        return Response.ok(cs.gson.toJson(cs.ds.lights.get(id))).build();
+        return NetworkUtils.snapshotResponse(request, cs.lightsJson.get(id, cs.ds.lights.get(id)));
     }
 
     @SuppressWarnings({ "null", "unused" })
@@ -417,6 +418,8 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
         List<HueResponse> responses = new ArrayList<>();
         Command command = StateUtils.computeCommandByState(responses, "/groups/" + id + "/state/", hueDevice.action,
                 state);
+        // The action has been changed in place
+        cs.groupsJson.invalidate(id);
 
         // If a command could be created, post it to the framework now
         if (command != null) {
@@ -438,25 +441,25 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
     @Path("{username}/groups")
     @ApiOperation(value = "Return all groups")
     @ApiResponses(value = { @ApiResponse(code = 200, message = "OK") })
-    public Response getAllGroupsApi(@Context UriInfo uri,
+    public Response getAllGroupsApi(@Context UriInfo uri, @Context Request request,
             @PathParam("username") @ApiParam(value = "username") String username) {
         if (!userManagement.authorizeUser(username)) {
             return NetworkUtils.singleError(cs.gson, uri, HueResponse.UNAUTHORIZED, "Not Authorized");
         }
-        return Response.ok(cs.gson.toJson(cs.ds.groups)).build();
+        return NetworkUtils.snapshotResponse(request, cs.groupsJson.get(cs.ds.groups));
     }
 
     @GET
     @Path("{username}/groups/{id}")
     @ApiOperation(value = "Return a group")
     @ApiResponses(value = { @ApiResponse(code = 200, message = "OK") })
-    public Response getGroupApi(@Context UriInfo uri, //
+    public Response getGroupApi(@Context UriInfo uri, @Context Request request, //
             @PathParam("username") @ApiParam(value = "username") String username,
             @PathParam("id") @ApiParam(value = "group id") String id) {
         if (!userManagement.authorizeUser(username)) {
             return NetworkUtils.singleError(cs.gson, uri, HueResponse.UNAUTHORIZED, "Not Authorized");
         }
-        return Response.ok(cs.gson.toJson(cs.ds.groups.get(id))).build();
+        return NetworkUtils.snapshotResponse(request, cs.groupsJson.get(id, cs.ds.groups.get(id)));
     }
 
     @SuppressWarnings({ "null", "unused" })
@@ -26,6 +26,7 @@ import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriInfo;
 
@@ -146,12 +147,12 @@ public class Sensors implements RegistryChangeListener<Item> {
     @Path("{username}/sensors")
     @ApiOperation(value = "Return all sensors")
     @ApiResponses(value = { @ApiResponse(code = 200, message = "OK") })
-    public Response getAllSensorsApi(@Context UriInfo uri,
+    public Response getAllSensorsApi(@Context UriInfo uri, @Context Request request,
             @PathParam("username") @ApiParam(value = "username") String username) {
         if (!userManagement.authorizeUser(username)) {
             return NetworkUtils.singleError(cs.gson, uri, HueResponse.UNAUTHORIZED, "Not Authorized");
         }
-        return Response.ok(cs.gson.toJson(cs.ds.sensors)).build();
+        return NetworkUtils.snapshotResponse(request, cs.sensorsJson.get(cs.ds.sensors));
     }
 
     @GET
@@ -182,13 +183,13 @@ public class Sensors implements RegistryChangeListener<Item> {
     @Path("{username}/sensors/{id}")
     @ApiOperation(value = "Return a sensor")
     @ApiResponses(value = { @ApiResponse(code = 200, message = "OK") })
-    public Response getSensorApi(@Context UriInfo uri, //
+    public Response getSensorApi(@Context UriInfo uri, @Context Request request, //
             @PathParam("username") @ApiParam(value = "username") String username,
             @PathParam("id") @ApiParam(value = "sensor id") String id) {
         if (!userManagement.authorizeUser(username)) {
             return NetworkUtils.singleError(cs.gson, uri, HueResponse.UNAUTHORIZED, "Not Authorized");
         }
-        return Response.ok(cs.gson.toJson(cs.ds.sensors.get(id))).build();
+        return NetworkUtils.snapshotResponse(request, cs.sensorsJson.get(id, cs.ds.sensors.get(id)));
     }
 
     @SuppressWarnings({ "null", "unused" })
@@ -0,0 +1,135 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.hueemulation.internal.rest;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.smarthome.core.library.items.ColorItem;
+import org.eclipse.smarthome.core.library.types.HSBType;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.io.hueemulation.internal.ConfigStore;
+import org.openhab.io.hueemulation.internal.DeviceType;
+import org.openhab.io.hueemulation.internal.dto.HueLightEntry;
+import org.openhab.io.hueemulation.internal.rest.mocks.DummyItemRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Polls the lights of a large number of emulated lights, like Hue clients do, and logs the response times.
+ * <p>
+ * The defaults keep the test short. For sizing, run it with more lights and requests, for example
+ * <code>-Dloadtest.lights=500 -Dloadtest.requests=5000</code>.
+ *
+ * @author Markus Lindqvist - Initial contribution
+ */
+@NonNullByDefault
+public class LightsAndGroupsLoadTest {
+    private static final int LIGHTS = Integer.getInteger("loadtest.lights", 100);
+    private static final int REQUESTS = Integer.getInteger("loadtest.requests", 200);
+
+    private final Logger logger = LoggerFactory.getLogger(LightsAndGroupsLoadTest.class);
+
+    protected @NonNullByDefault({}) CommonSetup commonSetup;
+    protected @NonNullByDefault({}) ConfigStore cs;
+
+    LightsAndGroups subject = new LightsAndGroups();
+
+    @Before
+    public void setUp() throws IOException {
+        commonSetup = new CommonSetup(false);
+        this.cs = commonSetup.cs;
+
+        subject.cs = cs;
+        subject.eventPublisher = commonSetup.eventPublisher;
+        subject.userManagement = commonSetup.userManagement;
+        subject.itemRegistry = new DummyItemRegistry();
+        subject.activate();
+
+        for (int i = 0; i < LIGHTS; i++) {
+            ColorItem item = new ColorItem("color" + i);
+            item.setLabel("Color light " + i);
+            item.setState(HSBType.fromRGB(i % 256, 128, 255 - i % 256));
+            cs.ds.lights.put(String.valueOf(i + 1), new HueLightEntry(item, "color" + i, DeviceType.ColorType));
+        }
+
+        commonSetup.start(new ResourceConfig().registerInstances(subject));
+    }
+
+    @After
+    public void tearDown() {
+        commonSetup.dispose();
+    }
+
+    @Test
+    public void pollAllLights() {
+        WebTarget target = commonSetup.client.target(commonSetup.basePath + "/testuser/lights");
+
+        // Serializing the lights without cache, for comparison
+        long start = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            cs.gson.toJson(cs.ds.lights);
+        }
+        report("Serialize lights without cache", start);
+
+        start = System.nanoTime();
+        EntityTag etag = null;
+        for (int i = 0; i < REQUESTS; i++) {
+            Response response = target.request().get();
+            assertEquals(200, response.getStatus());
+            response.readEntity(String.class);
+            etag = response.getEntityTag();
+        }
+        report("GET all lights", start);
+        assertNotNull(etag);
+
+        start = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            Response response = target.request().header(HttpHeaders.IF_NONE_MATCH, etag.toString()).get();
+            assertEquals(304, response.getStatus());
+            response.close();
+        }
+        report("GET all lights, not modified", start);
+
+        // Every request sees one changed light
+        start = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            cs.ds.lights.get(String.valueOf(i % LIGHTS + 1)).item.setState(HSBType.fromRGB(i % 256, 0, 0));
+            Response response = target.request().header(HttpHeaders.IF_NONE_MATCH, etag.toString()).get();
+            assertEquals(200, response.getStatus());
+            etag = response.getEntityTag();
+            response.readEntity(String.class);
+        }
+        report("GET all lights, one light changed", start);
+
+        Response response = target.request().get();
+        assertThat(response.readEntity(String.class), is(cs.gson.toJson(cs.ds.lights)));
+    }
+
+    private void report(String name, long start) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+        logger.info("{}: {} lights, {} requests, {} us per request", name, LIGHTS, REQUESTS, micros / REQUESTS);
+    }
+}
@@ -20,6 +20,8 @@ import static org.mockito.Mockito.verify;
 import java.io.IOException;
 
 import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.Response;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -334,6 +336,48 @@ public class LightsAndGroupsTests {
         assertThat(body, containsString("color"));
     }
 
+    @Test
+    public void allLightsNotModified() {
+        Response response = commonSetup.client.target(commonSetup.basePath + "/testuser/lights").request().get();
+        assertEquals(200, response.getStatus());
+        EntityTag etag = response.getEntityTag();
+        assertNotNull(etag);
+        assertThat(response.readEntity(String.class), is(cs.gson.toJson(cs.ds.lights)));
+
+        response = commonSetup.client.target(commonSetup.basePath + "/testuser/lights").request()
+                .header(HttpHeaders.IF_NONE_MATCH, etag.toString()).get();
+        assertEquals(304, response.getStatus());
+
+        // A changed item state results in a new response
+        cs.ds.lights.get("1").item.setState(OnOffType.ON);
+        response = commonSetup.client.target(commonSetup.basePath + "/testuser/lights").request()
+                .header(HttpHeaders.IF_NONE_MATCH, etag.toString()).get();
+        assertEquals(200, response.getStatus());
+        assertThat(response.getEntityTag(), is(not(etag)));
+        String body = response.readEntity(String.class);
+        assertThat(body, containsString("\"on\":true"));
+        assertThat(body, is(cs.gson.toJson(cs.ds.lights)));
+    }
+
+    @Test
+    public void allGroupsNotModified() {
+        Response response = commonSetup.client.target(commonSetup.basePath + "/testuser/groups").request().get();
+        assertEquals(200, response.getStatus());
+        EntityTag etag = response.getEntityTag();
+        assertThat(response.readEntity(String.class), is(cs.gson.toJson(cs.ds.groups)));
+
+        response = commonSetup.client.target(commonSetup.basePath + "/testuser/groups").request()
+                .header(HttpHeaders.IF_NONE_MATCH, etag.toString()).get();
+        assertEquals(304, response.getStatus());
+
+        // A new group member results in a new response
+        cs.ds.groups.get("10").groupItem.addMember(new SwitchItem("switch2"));
+        response = commonSetup.client.target(commonSetup.basePath + "/testuser/groups").request()
+                .header(HttpHeaders.IF_NONE_MATCH, etag.toString()).get();
+        assertEquals(200, response.getStatus());
+        assertThat(response.readEntity(String.class), is(cs.gson.toJson(cs.ds.groups)));
+    }
+
     private boolean assertHueValue(ItemCommandEvent ce, int hueValue) {
         assertThat(((HSBType) ce.getItemCommand()).getHue().intValue(), is(hueValue * 360 / HueStateColorBulb.MAX_HUE));
         return true;
@@ -0,0 +1,378 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.mqttembeddedbroker.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Traffic metrics of the embedded broker, fed by the broker's intercept handler.
+ * <p>
+ * Moquette only reports incoming messages, connections and subscriptions to intercept handlers. Outgoing traffic is
+ * therefore derived from the subscriptions: A published message counts as delivered to every client with a matching
+ * subscription. While a client with a persistent session is disconnected, its QoS 1 and 2 deliveries are counted as
+ * queued until it connects again. Only the {@link #MAX_DISCONNECTED_CLIENTS} most recently disconnected of those
+ * clients are tracked.
+ * <p>
+ * The clients with a matching subscription are cached per topic, until a subscription changes.
+ *
+ * @author Markus Lindqvist - Initial contribution
+ */
+@NonNullByDefault
+public class BrokerMetrics {
+    /** Number of topic levels of the prefix the publish rate is counted for */
+    public static final int TOPIC_PREFIX_LEVELS = 1;
+    /** Maximum number of topic prefixes with their own publish rate */
+    public static final int MAX_TOPIC_PREFIXES = 100;
+    /** Prefix for the publishes of topics that exceed {@link #MAX_TOPIC_PREFIXES} */
+    public static final String OTHER_TOPIC_PREFIX = "<other>";
+    /** Maximum number of disconnected clients with a persistent session that are tracked */
+    public static final int MAX_DISCONNECTED_CLIENTS = 100;
+    /** Maximum number of topics with cached matching subscriptions */
+    public static final int MAX_CACHED_TOPICS = 1000;
+
+    /**
+     * Metrics of a client
+     */
+    public static class ClientMetrics {
+        private volatile boolean connected;
+        private volatile boolean cleanSession;
+        // Order of the disconnects, for evicting the longest disconnected clients first
+        private volatile long disconnectOrder;
+        private final Map<String, Integer> subscriptions = new ConcurrentHashMap<>();
+        private final RateMeter deliveries = new RateMeter();
+        private final AtomicLong queueDepth = new AtomicLong();
+
+        public boolean isConnected() {
+            return connected;
+        }
+
+        public int getSubscriptionCount() {
+            return subscriptions.size();
+        }
+
+        /**
+         * Returns the number of messages delivered to this client.
+         */
+        public long getDeliveryCount() {
+            return deliveries.getCount();
+        }
+
+        /**
+         * Returns the delivered messages per second, averaged over the last seconds.
+         */
+        public double getDeliveryRate() {
+            return deliveries.getRate();
+        }
+
+        /**
+         * Returns the number of QoS 1 and 2 messages queued for this client while it is disconnected.
+         */
+        public long getQueueDepth() {
+            return queueDepth.get();
+        }
+
+        /**
+         * Returns the highest QoS of the subscriptions matching the topic, or -1 if no subscription matches.
+         */
+        private int matchingQos(String topic) {
+            int qos = -1;
+            for (Map.Entry<String, Integer> subscription : subscriptions.entrySet()) {
+                if (subscription.getValue() > qos && matches(subscription.getKey(), topic)) {
+                    qos = subscription.getValue();
+                }
+            }
+            return qos;
+        }
+    }
+
+    private final RateMeter publishes = new RateMeter();
+    private final RateMeter[] publishesByQos = { new RateMeter(), new RateMeter(), new RateMeter() };
+    private final RateMeter bytesIn = new RateMeter();
+    private final RateMeter bytesOut = new RateMeter();
+    private final Map<String, RateMeter> topicPrefixes = new ConcurrentHashMap<>();
+    private final Map<String, ClientMetrics> clients = new ConcurrentHashMap<>();
+
+    /**
+     * The clients with a matching subscription of a topic, valid for a version of the subscriptions
+     */
+    private static class TopicSubscribers {
+        private final long version;
+        private final List<ClientMetrics> clients;
+        private final int[] qos;
+
+        private TopicSubscribers(long version, List<ClientMetrics> clients, int[] qos) {
+            this.version = version;
+            this.clients = clients;
+            this.qos = qos;
+        }
+    }
+
+    private final AtomicLong disconnects = new AtomicLong();
+    private final AtomicLong subscriptionsVersion = new AtomicLong();
+    private final Map<String, TopicSubscribers> topicSubscribers = new ConcurrentHashMap<>();
+
+    /**
+     * Forgets all clients, for example because the broker has been restarted.
+     */
+    public void clearClients() {
+        clients.clear();
+        subscriptionsChanged();
+    }
+
+    public void clientConnected(String clientId, boolean cleanSession) {
+        ClientMetrics client = clients.computeIfAbsent(clientId, id -> new ClientMetrics());
+        if (cleanSession) {
+            client.subscriptions.clear();
+            subscriptionsChanged();
+        }
+        client.cleanSession = cleanSession;
+        client.queueDepth.set(0);
+        client.connected = true;
+    }
+
+    public void clientDisconnected(String clientId) {
+        ClientMetrics client = clients.get(clientId);
+        if (client == null) {
+            return;
+        }
+        if (client.cleanSession) {
+            clients.remove(clientId);
+            subscriptionsChanged();
+        } else {
+            client.disconnectOrder = disconnects.incrementAndGet();
+            client.connected = false;
+            evictDisconnectedClients();
+        }
+    }
+
+    public void subscribed(String clientId, String topicFilter, int qos) {
+        clients.computeIfAbsent(clientId, id -> new ClientMetrics()).subscriptions.put(topicFilter, qos);
+        subscriptionsChanged();
+    }
+
+    public void unsubscribed(String clientId, String topicFilter) {
+        ClientMetrics client = clients.get(clientId);
+        if (client != null) {
+            client.subscriptions.remove(topicFilter);
+            subscriptionsChanged();
+        }
+    }
+
+    /**
+     * Forgets the longest disconnected clients, if there are more than {@link #MAX_DISCONNECTED_CLIENTS}.
+     */
+    private void evictDisconnectedClients() {
+        List<Map.Entry<String, ClientMetrics>> disconnected = new ArrayList<>();
+        for (Map.Entry<String, ClientMetrics> entry : clients.entrySet()) {
+            if (!entry.getValue().connected) {
+                disconnected.add(entry);
+            }
+        }
+        int evict = disconnected.size() - MAX_DISCONNECTED_CLIENTS;
+        if (evict <= 0) {
+            return;
+        }
+        disconnected.sort(Comparator.comparingLong(entry -> entry.getValue().disconnectOrder));
+        for (Map.Entry<String, ClientMetrics> entry : disconnected.subList(0, evict)) {
+            clients.remove(entry.getKey(), entry.getValue());
+        }
+        subscriptionsChanged();
+    }
+
+    private void subscriptionsChanged() {
+        subscriptionsVersion.incrementAndGet();
+        topicSubscribers.clear();
+    }
+
+    /**
+     * Returns the clients with a subscription matching the topic. The result is cached until the subscriptions
+     * change. A version that changes while the result is determined invalidates the result.
+     */
+    private TopicSubscribers subscribers(String topic) {
+        long version = subscriptionsVersion.get();
+        TopicSubscribers subscribers = topicSubscribers.get(topic);
+        if (subscribers != null && subscribers.version == version) {
+            return subscribers;
+        }
+        List<ClientMetrics> matchingClients = new ArrayList<>();
+        List<Integer> matchingQos = new ArrayList<>();
+        for (ClientMetrics client : clients.values()) {
+            int subscriptionQos = client.matchingQos(topic);
+            if (subscriptionQos >= 0) {
+                matchingClients.add(client);
+                matchingQos.add(subscriptionQos);
+            }
+        }
+        int[] qos = new int[matchingQos.size()];
+        for (int i = 0; i < qos.length; i++) {
+            qos[i] = matchingQos.get(i);
+        }
+        subscribers = new TopicSubscribers(version, matchingClients, qos);
+        if (topicSubscribers.size() >= MAX_CACHED_TOPICS) {
+            topicSubscribers.clear();
+        }
+        topicSubscribers.put(topic, subscribers);
+        return subscribers;
+    }
+
+    /**
+     * Counts a published message and its deliveries to the subscribed clients.
+     *
+     * @param topic The topic of the message.
+     * @param qos The QoS of the message.
+     * @param payloadLength The payload size in bytes.
+     */
+    public void published(String topic, int qos, int payloadLength) {
+        publishes.mark();
+        if (qos >= 0 && qos < publishesByQos.length) {
+            publishesByQos[qos].mark();
+        }
+        bytesIn.mark(payloadLength);
+        topicPrefixRate(topic).mark();
+
+        TopicSubscribers subscribers = subscribers(topic);
+        for (int i = 0; i < subscribers.qos.length; i++) {
+            ClientMetrics client = subscribers.clients.get(i);
+            client.deliveries.mark();
+            bytesOut.mark(payloadLength);
+            if (!client.connected && Math.min(qos, subscribers.qos[i]) > 0) {
+                client.queueDepth.incrementAndGet();
+            }
+        }
+    }
+
+    private RateMeter topicPrefixRate(String topic) {
+        int end = -1;
+        for (int level = 0; level < TOPIC_PREFIX_LEVELS; level++) {
+            end = topic.indexOf('/', end + 1);
+            if (end < 0) {
+                break;
+            }
+        }
+        String prefix = end < 0 ? topic : topic.substring(0, end);
+        RateMeter rate = topicPrefixes.get(prefix);
+        if (rate == null) {
+            if (topicPrefixes.size() >= MAX_TOPIC_PREFIXES) {
+                prefix = OTHER_TOPIC_PREFIX;
+            }
+            rate = topicPrefixes.computeIfAbsent(prefix, p -> new RateMeter());
+        }
+        return rate;
+    }
+
+    public long getPublishCount() {
+        return publishes.getCount();
+    }
+
+    /**
+     * Returns the published messages per second, averaged over the last seconds.
+     */
+    public double getPublishRate() {
+        return publishes.getRate();
+    }
+
+    /**
+     * Returns the published messages per second with the given QoS, averaged over the last seconds.
+     */
+    public double getPublishRate(int qos) {
+        return publishesByQos[qos].getRate();
+    }
+
+    /**
+     * Returns the received payload bytes per second, averaged over the last seconds.
+     */
+    public double getBytesInRate() {
+        return bytesIn.getRate();
+    }
+
+    public long getBytesIn() {
+        return bytesIn.getCount();
+    }
+
+    /**
+     * Returns the delivered payload bytes per second, averaged over the last seconds.
+     */
+    public double getBytesOutRate() {
+        return bytesOut.getRate();
+    }
+
+    public long getBytesOut() {
+        return bytesOut.getCount();
+    }
+
+    /**
+     * Returns the published messages per second by topic prefix, sorted by prefix.
+     */
+    public Map<String, Double> getTopicPrefixRates() {
+        Map<String, Double> rates = new TreeMap<>();
+        topicPrefixes.forEach((prefix, rate) -> rates.put(prefix, rate.getRate()));
+        return rates;
+    }
+
+    /**
+     * Returns the metrics of the connected clients and the disconnected clients with a persistent session.
+     */
+    public Map<String, ClientMetrics> getClients() {
+        return Collections.unmodifiableMap(new TreeMap<>(clients));
+    }
+
+    /**
+     * Tests if a topic matches a topic filter with "+" and "#" wildcards. Topics starting with "$" are not matched by
+     * filters starting with a wildcard.
+     */
+    static boolean matches(String filter, String topic) {
+        if (topic.startsWith("$") && (filter.startsWith("+") || filter.startsWith("#"))) {
+            return false;
+        }
+        int filterStart = 0;
+        int topicStart = 0;
+        while (true) {
+            int filterEnd = filter.indexOf('/', filterStart);
+            if (filterEnd < 0) {
+                filterEnd = filter.length();
+            }
+            if (filterEnd - filterStart == 1 && filter.charAt(filterStart) == '#') {
+                return true;
+            }
+            int topicEnd = topic.indexOf('/', topicStart);
+            if (topicEnd < 0) {
+                topicEnd = topic.length();
+            }
+            boolean singleLevelWildcard = filterEnd - filterStart == 1 && filter.charAt(filterStart) == '+';
+            if (!singleLevelWildcard && (filterEnd - filterStart != topicEnd - topicStart
+                    || !filter.regionMatches(filterStart, topic, topicStart, filterEnd - filterStart))) {
+                return false;
+            }
+            boolean lastFilterLevel = filterEnd == filter.length();
+            boolean lastTopicLevel = topicEnd == topic.length();
+            if (lastFilterLevel) {
+                return lastTopicLevel;
+            }
+            filterStart = filterEnd + 1;
+            if (lastTopicLevel) {
+                // "a/#" also matches "a"
+                return filter.length() - filterStart == 1 && filter.charAt(filterStart) == '#';
+            }
+            topicStart = topicEnd + 1;
+        }
+    }
+}
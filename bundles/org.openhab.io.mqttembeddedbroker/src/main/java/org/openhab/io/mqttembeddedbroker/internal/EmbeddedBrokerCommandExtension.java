@@ -0,0 +1,88 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.mqttembeddedbroker.internal;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.smarthome.io.console.Console;
+import org.eclipse.smarthome.io.console.extensions.AbstractConsoleCommandExtension;
+import org.eclipse.smarthome.io.console.extensions.ConsoleCommandExtension;
+import org.openhab.io.mqttembeddedbroker.internal.BrokerMetrics.ClientMetrics;
+import org.openhab.io.mqttembeddedbroker.internal.EmbeddedBrokerService.BrokerMetricsListenerEx;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * The {@link EmbeddedBrokerCommandExtension} prints the metrics of the embedded broker to the console
+ *
+ * @author Markus Lindqvist - Initial contribution
+ */
+@NonNullByDefault
+@Component(service = ConsoleCommandExtension.class)
+public class EmbeddedBrokerCommandExtension extends AbstractConsoleCommandExtension {
+
+    private static final String METRICS = "metrics";
+
+    private final EmbeddedBrokerService service;
+
+    @Activate
+    public EmbeddedBrokerCommandExtension(final @Reference EmbeddedBrokerService service) {
+        super("mqttbroker", "Inspect the embedded MQTT broker.");
+        this.service = service;
+    }
+
+    @Override
+    public void execute(String[] args, Console console) {
+        if (args.length == 1 && METRICS.equals(args[0])) {
+            printMetrics(console, service.getMetrics());
+        } else {
+            printUsage(console);
+        }
+    }
+
+    private void printMetrics(Console console, BrokerMetricsListenerEx metrics) {
+        BrokerMetrics brokerMetrics = metrics.getBrokerMetrics();
+        console.println(String.format("publishes: %d, %.1f/s (QoS 0: %.1f/s, QoS 1: %.1f/s, QoS 2: %.1f/s)",
+                brokerMetrics.getPublishCount(), brokerMetrics.getPublishRate(), brokerMetrics.getPublishRate(0),
+                brokerMetrics.getPublishRate(1), brokerMetrics.getPublishRate(2)));
+        console.println(String.format("payload bytes in: %d, %.0f/s, out: %d, %.0f/s", brokerMetrics.getBytesIn(),
+                brokerMetrics.getBytesInRate(), brokerMetrics.getBytesOut(), brokerMetrics.getBytesOutRate()));
+        if (service.getRetainedStore() != null) {
+            console.println(String.format("retained store: %d messages, %d bytes, flush latency: %.1f ms, max: %.1f ms",
+                    metrics.getRetainedMessageCount(), metrics.getRetainedStoreSize(),
+                    metrics.getLastFlushLatencyMillis(), metrics.getMaxFlushLatencyMillis()));
+        }
+
+        console.println("topic prefixes:");
+        brokerMetrics.getTopicPrefixRates()
+                .forEach((prefix, rate) -> console.println(String.format("  %s: %.1f/s", prefix, rate)));
+
+        console.println("clients:");
+        for (Map.Entry<String, ClientMetrics> entry : brokerMetrics.getClients().entrySet()) {
+            ClientMetrics client = entry.getValue();
+            console.println(String.format("  %s: %s, subscriptions: %d, deliveries: %d, %.1f/s, queued: %d",
+                    entry.getKey(), client.isConnected() ? "connected" : "disconnected",
+                    client.getSubscriptionCount(), client.getDeliveryCount(), client.getDeliveryRate(),
+                    client.getQueueDepth()));
+        }
+    }
+
+    @Override
+    public List<String> getUsages() {
+        return Arrays.asList(buildCommandUsage(METRICS, "show traffic metrics of the embedded broker"));
+    }
+}
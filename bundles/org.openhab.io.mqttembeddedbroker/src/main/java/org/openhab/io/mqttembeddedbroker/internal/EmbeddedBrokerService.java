@@ -45,6 +45,7 @@ import org.eclipse.smarthome.io.transport.mqtt.MqttService;
 import org.eclipse.smarthome.io.transport.mqtt.MqttServiceObserver;
 import org.openhab.io.mqttembeddedbroker.Constants;
 import org.openhab.io.mqttembeddedbroker.internal.MqttEmbeddedBrokerDetectStart.MqttEmbeddedBrokerStartedListener;
+import org.openhab.io.mqttembeddedbroker.internal.RetainedMessageStore.StoredMessage;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
@@ -67,6 +68,10 @@ import io.moquette.interception.messages.InterceptDisconnectMessage;
 import io.moquette.interception.messages.InterceptPublishMessage;
 import io.moquette.interception.messages.InterceptSubscribeMessage;
 import io.moquette.interception.messages.InterceptUnsubscribeMessage;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.mqtt.MqttMessageBuilders;
+import io.netty.handler.codec.mqtt.MqttQoS;
 import io.netty.handler.ssl.SslContext;
 import io.netty.handler.ssl.SslContextBuilder;
 
@@ -89,10 +94,13 @@ public class EmbeddedBrokerService
         implements MqttConnectionObserver, MqttServiceObserver, MqttEmbeddedBrokerStartedListener {
     private final MqttService service;
     private String persistenceFilename = "";
+    private @Nullable Path retainedStoreFolder;
+    private @Nullable RetainedMessageStore retainedStore;
     // private NetworkServerTls networkServerTls; //TODO wait for NetworkServerTls implementation
 
     @NonNullByDefault({})
-    class BrokerMetricsListenerEx implements InterceptHandler {
+    public class BrokerMetricsListenerEx implements InterceptHandler {
+        private final BrokerMetrics brokerMetrics = new BrokerMetrics();
 
         @Override
         public String getID() {
@@ -101,21 +109,26 @@ public class EmbeddedBrokerService
 
         @Override
         public Class<?>[] getInterceptedMessageTypes() {
-            return new Class<?>[] { InterceptConnectMessage.class, InterceptDisconnectMessage.class };
+            return new Class<?>[] { InterceptConnectMessage.class, InterceptDisconnectMessage.class,
+                    InterceptConnectionLostMessage.class, InterceptPublishMessage.class,
+                    InterceptSubscribeMessage.class, InterceptUnsubscribeMessage.class };
         }
 
         @Override
         public void onConnect(InterceptConnectMessage arg0) {
             logger.debug("MQTT Client connected: {}", arg0.getClientID());
+            brokerMetrics.clientConnected(arg0.getClientID(), arg0.isCleanSession());
         }
 
         @Override
         public void onConnectionLost(InterceptConnectionLostMessage arg0) {
+            brokerMetrics.clientDisconnected(arg0.getClientID());
         }
 
         @Override
         public void onDisconnect(InterceptDisconnectMessage arg0) {
             logger.debug("MQTT Client disconnected: {}", arg0.getClientID());
+            brokerMetrics.clientDisconnected(arg0.getClientID());
         }
 
         @Override
@@ -124,14 +137,84 @@ public class EmbeddedBrokerService
 
         @Override
         public void onPublish(InterceptPublishMessage arg0) {
+            ByteBuf payload = arg0.getPayload();
+            brokerMetrics.published(arg0.getTopicName(), arg0.getQos().value(), payload.readableBytes());
+
+            RetainedMessageStore store = retainedStore;
+            if (store == null || !arg0.isRetainFlag()) {
+                return;
+            }
+            // Same as Moquette: A retained message with QoS 0 or without payload clears the retained message
+            if (arg0.getQos() == MqttQoS.AT_MOST_ONCE || payload.readableBytes() == 0) {
+                store.remove(arg0.getTopicName());
+            } else {
+                byte[] bytes = new byte[payload.readableBytes()];
+                payload.getBytes(payload.readerIndex(), bytes);
+                store.put(arg0.getTopicName(), arg0.getQos().value(), bytes);
+            }
         }
 
         @Override
         public void onSubscribe(InterceptSubscribeMessage arg0) {
+            brokerMetrics.subscribed(arg0.getClientID(), arg0.getTopicFilter(), arg0.getRequestedQos().value());
         }
 
         @Override
         public void onUnsubscribe(InterceptUnsubscribeMessage arg0) {
+            brokerMetrics.unsubscribed(arg0.getClientID(), arg0.getTopicFilter());
+        }
+
+        /**
+         * Returns the traffic metrics of the broker.
+         */
+        public BrokerMetrics getBrokerMetrics() {
+            return brokerMetrics;
+        }
+
+        /**
+         * Returns the number of messages published since the broker started.
+         */
+        public long getPublishCount() {
+            return brokerMetrics.getPublishCount();
+        }
+
+        /**
+         * Returns the published messages per second, averaged over the last seconds.
+         */
+        public double getPublishRate() {
+            return brokerMetrics.getPublishRate();
+        }
+
+        /**
+         * Returns the number of retained messages in the retained message store or 0 if it is not used.
+         */
+        public int getRetainedMessageCount() {
+            RetainedMessageStore store = retainedStore;
+            return store == null ? 0 : store.size();
+        }
+
+        /**
+         * Returns the size of the retained message store files in bytes or 0 if it is not used.
+         */
+        public long getRetainedStoreSize() {
+            RetainedMessageStore store = retainedStore;
+            return store == null ? 0 : store.getStoreSize();
+        }
+
+        /**
+         * Returns the duration of the last write of the retained message store, including the fsync, in milliseconds.
+         */
+        public double getLastFlushLatencyMillis() {
+            RetainedMessageStore store = retainedStore;
+            return store == null ? 0 : store.getLastFlushLatencyNanos() / 1_000_000.0;
+        }
+
+        /**
+         * Returns the longest write of the retained message store, including the fsync, in milliseconds.
+         */
+        public double getMaxFlushLatencyMillis() {
+            RetainedMessageStore store = retainedStore;
+            return store == null ? 0 : store.getMaxFlushLatencyNanos() / 1_000_000.0;
         }
     }
 
@@ -174,7 +257,16 @@ public class EmbeddedBrokerService
             connection.setCredentials(config.username, config.password);
         }
 
-        if (!config.persistenceFile.isEmpty()) {
+        if (!config.retainedStoreFolder.isEmpty()) {
+            Path folder = Paths.get(config.retainedStoreFolder);
+            if (!folder.isAbsolute()) {
+                folder = Paths.get(ConfigConstants.getUserDataFolder()).toAbsolutePath().resolve(folder);
+            }
+            retainedStoreFolder = folder;
+            persistenceFilename = "";
+            logger.info("Broker retained message store: {}", folder);
+        } else if (!config.persistenceFile.isEmpty()) {
+            retainedStoreFolder = null;
             final String persistenceFilename = config.persistenceFile;
             if (!Paths.get(persistenceFilename).isAbsolute()) {
                 Path path = Paths.get(ConfigConstants.getUserDataFolder()).toAbsolutePath();
@@ -184,6 +276,7 @@ public class EmbeddedBrokerService
 
             logger.info("Broker persistence file: {}", persistenceFilename);
         } else {
+            retainedStoreFolder = null;
             logger.info("Using in-memory persistence. No persistence file has been set!");
         }
 
@@ -202,6 +295,7 @@ public class EmbeddedBrokerService
                 server.stopServer();
             }
             server = null;
+            closeRetainedStore();
             return;
         }
 
@@ -217,6 +311,7 @@ public class EmbeddedBrokerService
         } catch (InterruptedException | ExecutionException | TimeoutException e) {
             logger.warn("Could not cleanly shutdown connection or server.", e);
         }
+        closeRetainedStore();
         connection = null;
     }
 
@@ -292,7 +387,9 @@ public class EmbeddedBrokerService
             logger.debug("Broker anonymous access enabled");
         }
 
-        if (!persistenceFilename.isEmpty()) { // Persistence: If not set, an in-memory database is used.
+        // Retained messages are restored from the store if it is used, Moquette itself runs in-memory then
+        RetainedMessageStore store = openRetainedStore();
+        if (store == null && !persistenceFilename.isEmpty()) { // Persistence: If not set, an in-memory database is used.
             properties.put(BrokerConstants.PERSISTENT_STORE_PROPERTY_NAME, persistenceFilename);
             properties.put(BrokerConstants.AUTOSAVE_INTERVAL_PROPERTY_NAME, "30"); // in seconds
         }
@@ -313,6 +410,12 @@ public class EmbeddedBrokerService
             }
         }
         this.server = server;
+        // Restored messages are published before the intercept handler is added: They are not counted as publishes
+        // and not written to the retained message store again
+        if (store != null) {
+            restoreRetainedMessages(server, store);
+        }
+        metrics.getBrokerMetrics().clearClients();
         server.addInterceptHandler(metrics);
         ScheduledExecutorService s = new ScheduledThreadPoolExecutor(1);
         detectStart.startBrokerStartedDetection(port, s);
@@ -326,6 +429,50 @@ public class EmbeddedBrokerService
             server.stopServer();
             this.server = null;
         }
+        closeRetainedStore();
+    }
+
+    private @Nullable RetainedMessageStore openRetainedStore() {
+        Path folder = retainedStoreFolder;
+        if (folder == null) {
+            return null;
+        }
+        RetainedMessageStore store = new RetainedMessageStore(folder);
+        try {
+            store.open();
+        } catch (IOException e) {
+            logger.warn("Could not open the retained message store {}, retained messages are not stored: {}", folder,
+                    e.getMessage());
+            store.close();
+            return null;
+        }
+        retainedStore = store;
+        return store;
+    }
+
+    /**
+     * Publishes the stored retained messages to the broker. Moquette keeps them in its in-memory retained
+     * repository, so they are sent to clients on subscription as usual.
+     */
+    private void restoreRetainedMessages(Server server, RetainedMessageStore store) {
+        long start = System.nanoTime();
+        Map<String, StoredMessage> messages = store.getMessages();
+        for (Map.Entry<String, StoredMessage> entry : messages.entrySet()) {
+            StoredMessage message = entry.getValue();
+            server.internalPublish(MqttMessageBuilders.publish().topicName(entry.getKey()).retained(true)
+                    .qos(MqttQoS.valueOf(message.qos)).payload(Unpooled.wrappedBuffer(message.payload)).build(),
+                    Constants.CLIENTID);
+        }
+        logger.debug("Restored {} retained messages in {} ms", messages.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private void closeRetainedStore() {
+        RetainedMessageStore store = retainedStore;
+        if (store != null) {
+            retainedStore = null;
+            store.close();
+        }
     }
 
     /**
@@ -378,6 +525,20 @@ public class EmbeddedBrokerService
         });
     }
 
+    /**
+     * Returns the metrics of the embedded broker.
+     */
+    public BrokerMetricsListenerEx getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Returns the retained message store or null if retained messages are not stored.
+     */
+    public @Nullable RetainedMessageStore getRetainedStore() {
+        return retainedStore;
+    }
+
     public @Nullable MqttBrokerConnection getConnection() {
         return connection;
     }
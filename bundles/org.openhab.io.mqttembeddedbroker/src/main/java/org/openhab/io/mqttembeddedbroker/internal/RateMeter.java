@@ -0,0 +1,108 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.mqttembeddedbroker.internal;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Counts events and measures their rate over a sliding window of full seconds.
+ * <p>
+ * Events are counted in one bucket per second, so marking an event does not allocate and rarely locks.
+ *
+ * @author Markus Lindqvist - Initial contribution
+ */
+@NonNullByDefault
+public class RateMeter {
+    public static final int DEFAULT_WINDOW_SECONDS = 10;
+
+    private final int windowSeconds;
+    private final AtomicLongArray counts;
+    private final AtomicLongArray bucketSeconds;
+    private final AtomicLong total = new AtomicLong();
+
+    public RateMeter() {
+        this(DEFAULT_WINDOW_SECONDS);
+    }
+
+    /**
+     * Creates a rate meter.
+     *
+     * @param windowSeconds The number of full seconds the rate is averaged over.
+     */
+    public RateMeter(int windowSeconds) {
+        this.windowSeconds = windowSeconds;
+        // One additional bucket for the current, incomplete second
+        this.counts = new AtomicLongArray(windowSeconds + 1);
+        this.bucketSeconds = new AtomicLongArray(windowSeconds + 1);
+    }
+
+    /**
+     * Counts an event.
+     */
+    public void mark() {
+        mark(1, System.currentTimeMillis());
+    }
+
+    /**
+     * Counts events or an amount, like bytes.
+     *
+     * @param amount The amount to add.
+     */
+    public void mark(long amount) {
+        mark(amount, System.currentTimeMillis());
+    }
+
+    void mark(long amount, long nowMillis) {
+        long second = nowMillis / 1000;
+        int index = (int) (second % counts.length());
+        if (bucketSeconds.get(index) != second) {
+            synchronized (this) {
+                if (bucketSeconds.get(index) != second) {
+                    counts.set(index, 0);
+                    bucketSeconds.set(index, second);
+                }
+            }
+        }
+        counts.addAndGet(index, amount);
+        total.addAndGet(amount);
+    }
+
+    /**
+     * Returns the total amount of all events.
+     */
+    public long getCount() {
+        return total.get();
+    }
+
+    /**
+     * Returns the average amount per second over the last full seconds of the window.
+     */
+    public double getRate() {
+        return getRate(System.currentTimeMillis());
+    }
+
+    double getRate(long nowMillis) {
+        long second = nowMillis / 1000;
+        long sum = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            long bucketSecond = bucketSeconds.get(i);
+            if (bucketSecond < second && bucketSecond >= second - windowSeconds) {
+                sum += counts.get(i);
+            }
+        }
+        return (double) sum / windowSeconds;
+    }
+}
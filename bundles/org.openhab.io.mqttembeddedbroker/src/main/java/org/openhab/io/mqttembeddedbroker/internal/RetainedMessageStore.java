@@ -0,0 +1,558 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.mqttembeddedbroker.internal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.common.NamedThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Stores the retained messages of the embedded broker in a folder of append-only segment files.
+ * <p>
+ * Every change of a retained message is appended as a checksummed record to the active segment. Changes are collected
+ * in memory and written by a background thread, with one fsync per batch instead of one per message. When the segment
+ * files grow to more than twice the size of the live records, they are compacted into a single new segment.
+ * <p>
+ * On {@link #open()} the segments are memory-mapped and replayed in order. A record with an invalid checksum, for
+ * example after a power loss during a write, ends the replay of its segment.
+ *
+ * @author Markus Lindqvist - Initial contribution
+ */
+@NonNullByDefault
+public class RetainedMessageStore {
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 1000;
+    public static final long DEFAULT_MAX_SEGMENT_SIZE = 4 * 1024 * 1024;
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int SEGMENT_MAGIC = 0x4F485253; // "OHRS"
+    private static final int SEGMENT_VERSION = 1;
+    private static final int SEGMENT_HEADER_SIZE = 8;
+    private static final byte OP_PUT = 1;
+    private static final byte OP_REMOVE = 2;
+    /** Record length, operation, QoS, topic length, payload length and checksum */
+    private static final int RECORD_OVERHEAD = 4 + 1 + 1 + 2 + 4 + 4;
+    /** Segments smaller than this are never compacted */
+    private static final long MIN_COMPACTION_SIZE = 1024 * 1024;
+    /** Maximum number of records handed to a single gathering write */
+    private static final int MAX_WRITE_BATCH = 512;
+
+    /**
+     * A retained message
+     */
+    public static class StoredMessage {
+        public final int qos;
+        public final byte[] payload;
+        private final int recordSize;
+
+        StoredMessage(int qos, byte[] payload, int recordSize) {
+            this.qos = qos;
+            this.payload = payload;
+            this.recordSize = recordSize;
+        }
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(RetainedMessageStore.class);
+    private final Path folder;
+    private final long flushIntervalMillis;
+    private final long maxSegmentSize;
+
+    // Retained messages and the records not yet written. Guarded by "messages", so that records are queued in the
+    // order of the changes.
+    private final Map<String, StoredMessage> messages = new HashMap<>();
+    private final Queue<ByteBuffer> pendingRecords = new ConcurrentLinkedQueue<>();
+    private long liveSize = SEGMENT_HEADER_SIZE;
+
+    // Segment files. Guarded by "flushLock".
+    private final Object flushLock = new Object();
+    private final TreeMap<Long, Path> segments = new TreeMap<>();
+    private @Nullable FileChannel activeSegment;
+    private long activeSegmentSize;
+    private long storeSize;
+    private boolean compactionRequired;
+    private boolean opened;
+
+    private @Nullable ScheduledExecutorService scheduler;
+
+    // Metrics
+    private volatile long flushCount;
+    private volatile long compactionCount;
+    private volatile long lastFlushLatencyNanos;
+    private volatile long maxFlushLatencyNanos;
+
+    /**
+     * Creates a store with the default flush interval and segment size.
+     *
+     * @param folder The folder for the segment files. Created if it does not exist.
+     */
+    public RetainedMessageStore(Path folder) {
+        this(folder, DEFAULT_FLUSH_INTERVAL_MILLIS, DEFAULT_MAX_SEGMENT_SIZE);
+    }
+
+    /**
+     * Creates a store.
+     *
+     * @param folder The folder for the segment files. Created if it does not exist.
+     * @param flushIntervalMillis The interval for writing changes to disk. If 0, changes are only written on
+     *            {@link #flush()} and {@link #close()}.
+     * @param maxSegmentSize A new segment is started if the active segment exceeds this size in bytes.
+     */
+    public RetainedMessageStore(Path folder, long flushIntervalMillis, long maxSegmentSize) {
+        this.folder = folder;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.maxSegmentSize = maxSegmentSize;
+    }
+
+    /**
+     * Loads the retained messages of the existing segments and starts writing changes.
+     *
+     * @throws IOException If the folder or the active segment cannot be created.
+     */
+    public void open() throws IOException {
+        synchronized (flushLock) {
+            Files.createDirectories(folder);
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(folder,
+                    SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+                for (Path path : stream) {
+                    Long number = segmentNumber(path);
+                    if (number != null) {
+                        segments.put(number, path);
+                    }
+                }
+            }
+
+            boolean lastSegmentComplete = false;
+            for (Path path : segments.values()) {
+                lastSegmentComplete = load(path);
+                storeSize += Files.size(path);
+            }
+
+            Map.Entry<Long, Path> last = segments.lastEntry();
+            if (last != null && lastSegmentComplete && Files.size(last.getValue()) < maxSegmentSize) {
+                // Continue the last segment. A new segment is started if the segment has a damaged tail.
+                activeSegment = FileChannel.open(last.getValue(), StandardOpenOption.WRITE,
+                        StandardOpenOption.APPEND);
+                activeSegmentSize = Files.size(last.getValue());
+            } else {
+                startSegment();
+            }
+            opened = true;
+            logger.debug("Loaded {} retained messages from {} segments in {}", size(), segments.size(), folder);
+        }
+
+        if (flushIntervalMillis > 0) {
+            ScheduledExecutorService scheduler = Executors
+                    .newSingleThreadScheduledExecutor(new NamedThreadFactory("mqttembeddedbroker-store", true));
+            scheduler.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis,
+                    TimeUnit.MILLISECONDS);
+            this.scheduler = scheduler;
+        }
+    }
+
+    /**
+     * Writes pending changes and closes the store.
+     */
+    public void close() {
+        ScheduledExecutorService scheduler = this.scheduler;
+        if (scheduler != null) {
+            scheduler.shutdown();
+            this.scheduler = null;
+        }
+        flushQuietly();
+        synchronized (flushLock) {
+            opened = false;
+            FileChannel channel = activeSegment;
+            activeSegment = null;
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    logger.debug("Failed to close segment in {}", folder, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Stores a retained message. The payload array is kept by the store and must not be modified afterwards.
+     *
+     * @param topic The topic.
+     * @param qos The QoS of the message.
+     * @param payload The payload.
+     * @return Returns false if the store already contains the same message.
+     */
+    public boolean put(String topic, int qos, byte[] payload) {
+        byte[] topicBytes = topic.getBytes(StandardCharsets.UTF_8);
+        if (topicBytes.length > 0xFFFF) {
+            return false;
+        }
+        synchronized (messages) {
+            StoredMessage old = messages.get(topic);
+            if (old != null && old.qos == qos && Arrays.equals(old.payload, payload)) {
+                return false;
+            }
+            ByteBuffer record = encodeRecord(OP_PUT, topicBytes, qos, payload);
+            StoredMessage message = new StoredMessage(qos, payload, record.remaining());
+            messages.put(topic, message);
+            liveSize += message.recordSize - (old == null ? 0 : old.recordSize);
+            pendingRecords.add(record);
+        }
+        return true;
+    }
+
+    /**
+     * Removes the retained message of the topic.
+     *
+     * @param topic The topic.
+     * @return Returns false if the store did not contain a message for the topic.
+     */
+    public boolean remove(String topic) {
+        synchronized (messages) {
+            StoredMessage old = messages.remove(topic);
+            if (old == null) {
+                return false;
+            }
+            liveSize -= old.recordSize;
+            pendingRecords.add(encodeRecord(OP_REMOVE, topic.getBytes(StandardCharsets.UTF_8), 0, new byte[0]));
+        }
+        return true;
+    }
+
+    /**
+     * Returns a copy of all retained messages by topic.
+     */
+    public Map<String, StoredMessage> getMessages() {
+        synchronized (messages) {
+            return new HashMap<>(messages);
+        }
+    }
+
+    /**
+     * Returns the number of retained messages.
+     */
+    public int size() {
+        synchronized (messages) {
+            return messages.size();
+        }
+    }
+
+    /**
+     * Returns the size of all segment files in bytes.
+     */
+    public long getStoreSize() {
+        synchronized (flushLock) {
+            return storeSize;
+        }
+    }
+
+    /**
+     * Returns the number of batches written to disk.
+     */
+    public long getFlushCount() {
+        return flushCount;
+    }
+
+    /**
+     * Returns the number of compactions.
+     */
+    public long getCompactionCount() {
+        return compactionCount;
+    }
+
+    /**
+     * Returns the duration of the last write of a batch including the fsync, in nanoseconds.
+     */
+    public long getLastFlushLatencyNanos() {
+        return lastFlushLatencyNanos;
+    }
+
+    /**
+     * Returns the longest duration of a write of a batch including the fsync, in nanoseconds.
+     */
+    public long getMaxFlushLatencyNanos() {
+        return maxFlushLatencyNanos;
+    }
+
+    /**
+     * Writes all pending changes to the active segment and syncs it to disk. Starts a new segment or compacts the
+     * segments if necessary.
+     *
+     * @throws IOException If writing fails. The changes are written again by the next compaction.
+     */
+    public void flush() throws IOException {
+        synchronized (flushLock) {
+            if (!opened) {
+                return;
+            }
+            FileChannel channel = activeSegment;
+            if (channel == null || compactionRequired) {
+                // A previous write failed: Write the complete state into a new segment first
+                compact();
+                channel = activeSegment;
+                if (channel == null) {
+                    return;
+                }
+            }
+
+            List<ByteBuffer> batch = new ArrayList<>();
+            ByteBuffer record;
+            while ((record = pendingRecords.poll()) != null) {
+                batch.add(record);
+            }
+            if (!batch.isEmpty()) {
+                long start = System.nanoTime();
+                long written;
+                try {
+                    written = write(channel, batch);
+                    channel.force(false);
+                } catch (IOException e) {
+                    // The segment may end with a partial record now
+                    compactionRequired = true;
+                    throw e;
+                }
+                activeSegmentSize += written;
+                storeSize += written;
+                long latency = System.nanoTime() - start;
+                lastFlushLatencyNanos = latency;
+                if (latency > maxFlushLatencyNanos) {
+                    maxFlushLatencyNanos = latency;
+                }
+                flushCount++;
+            }
+
+            long liveSize;
+            synchronized (messages) {
+                liveSize = this.liveSize;
+            }
+            if (storeSize > MIN_COMPACTION_SIZE && storeSize > 2 * liveSize) {
+                compact();
+            } else if (activeSegmentSize >= maxSegmentSize) {
+                startSegment();
+            }
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (IOException e) {
+            logger.warn("Failed to write retained messages to {}: {}", folder, e.getMessage());
+        }
+    }
+
+    /**
+     * Writes all retained messages into a new segment and deletes the other segments. Changes made during the
+     * compaction are still pending and written to the new segment afterwards. Pending changes that are already
+     * contained in the new segment are written again, which is harmless because the last record of a topic wins.
+     */
+    private void compact() throws IOException {
+        long start = System.nanoTime();
+        compactionRequired = true;
+        Map<String, StoredMessage> snapshot = getMessages();
+        startSegment();
+        FileChannel channel = activeSegment;
+        if (channel == null) {
+            return;
+        }
+        List<ByteBuffer> batch = new ArrayList<>();
+        for (Map.Entry<String, StoredMessage> entry : snapshot.entrySet()) {
+            StoredMessage message = entry.getValue();
+            batch.add(encodeRecord(OP_PUT, entry.getKey().getBytes(StandardCharsets.UTF_8), message.qos,
+                    message.payload));
+        }
+        activeSegmentSize += write(channel, batch);
+        channel.force(false);
+        compactionRequired = false;
+
+        // The new segment is complete, older segments are obsolete
+        Map.Entry<Long, Path> active = segments.lastEntry();
+        for (Path path : new ArrayList<>(segments.headMap(active.getKey()).values())) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                // Replaying an obsolete segment before the new one does no harm
+                logger.debug("Failed to delete segment {}", path, e);
+            }
+        }
+        segments.headMap(active.getKey()).clear();
+        storeSize = activeSegmentSize;
+        compactionCount++;
+        logger.debug("Compacted {} retained messages into {} in {} ms", snapshot.size(), active.getValue(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Closes the active segment and starts a new one.
+     */
+    private void startSegment() throws IOException {
+        FileChannel channel = activeSegment;
+        if (channel != null) {
+            activeSegment = null;
+            channel.close();
+        }
+        Map.Entry<Long, Path> last = segments.lastEntry();
+        long number = last == null ? 0 : last.getKey() + 1;
+        Path path = folder.resolve(String.format("%s%010d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+        channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER_SIZE);
+        header.putInt(SEGMENT_MAGIC).putInt(SEGMENT_VERSION).flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        segments.put(number, path);
+        activeSegment = channel;
+        activeSegmentSize = SEGMENT_HEADER_SIZE;
+        storeSize += SEGMENT_HEADER_SIZE;
+    }
+
+    /**
+     * Replays the records of a segment.
+     *
+     * @return Returns true if all records of the segment are valid.
+     */
+    private boolean load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < SEGMENT_HEADER_SIZE) {
+                return false;
+            }
+            MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt() != SEGMENT_MAGIC || buffer.getInt() != SEGMENT_VERSION) {
+                logger.warn("Ignoring segment {} with unknown format", path);
+                return false;
+            }
+            CRC32 crc = new CRC32();
+            while (buffer.hasRemaining()) {
+                if (buffer.remaining() < RECORD_OVERHEAD) {
+                    logger.warn("Ignoring truncated record at the end of segment {}", path);
+                    return false;
+                }
+                int length = buffer.getInt();
+                if (length < RECORD_OVERHEAD - 8 || length > buffer.remaining() - 4) {
+                    logger.warn("Ignoring truncated record at the end of segment {}", path);
+                    return false;
+                }
+                byte[] body = new byte[length];
+                buffer.get(body);
+                crc.reset();
+                crc.update(body);
+                if ((int) crc.getValue() != buffer.getInt() || !applyRecord(body)) {
+                    logger.warn("Ignoring damaged records at the end of segment {}", path);
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private boolean applyRecord(byte[] body) {
+        ByteBuffer buffer = ByteBuffer.wrap(body);
+        byte op = buffer.get();
+        int qos = buffer.get();
+        byte[] topicBytes = new byte[buffer.getShort() & 0xFFFF];
+        if (topicBytes.length > buffer.remaining() - 4) {
+            return false;
+        }
+        buffer.get(topicBytes);
+        int payloadLength = buffer.getInt();
+        if (payloadLength != buffer.remaining()) {
+            return false;
+        }
+        byte[] payload = new byte[payloadLength];
+        buffer.get(payload);
+
+        String topic = new String(topicBytes, StandardCharsets.UTF_8);
+        synchronized (messages) {
+            StoredMessage old;
+            if (op == OP_PUT) {
+                StoredMessage message = new StoredMessage(qos, payload, body.length + 8);
+                old = messages.put(topic, message);
+                liveSize += message.recordSize;
+            } else if (op == OP_REMOVE) {
+                old = messages.remove(topic);
+            } else {
+                return false;
+            }
+            if (old != null) {
+                liveSize -= old.recordSize;
+            }
+        }
+        return true;
+    }
+
+    private static ByteBuffer encodeRecord(byte op, byte[] topicBytes, int qos, byte[] payload) {
+        int bodyLength = RECORD_OVERHEAD - 8 + topicBytes.length + payload.length;
+        ByteBuffer record = ByteBuffer.allocate(bodyLength + 8);
+        record.putInt(bodyLength);
+        record.put(op).put((byte) qos).putShort((short) topicBytes.length).put(topicBytes);
+        record.putInt(payload.length).put(payload);
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), 4, bodyLength);
+        record.putInt((int) crc.getValue());
+        record.flip();
+        return record;
+    }
+
+    private static long write(FileChannel channel, List<ByteBuffer> records) throws IOException {
+        long written = 0;
+        for (int from = 0; from < records.size(); from += MAX_WRITE_BATCH) {
+            ByteBuffer[] buffers = records.subList(from, Math.min(from + MAX_WRITE_BATCH, records.size()))
+                    .toArray(new ByteBuffer[0]);
+            long remaining = 0;
+            for (ByteBuffer buffer : buffers) {
+                remaining += buffer.remaining();
+            }
+            while (remaining > 0) {
+                long count = channel.write(buffers);
+                written += count;
+                remaining -= count;
+            }
+        }
+        return written;
+    }
+
+    private static @Nullable Long segmentNumber(Path path) {
+        String name = path.getFileName().toString();
+        try {
+            return Long.valueOf(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
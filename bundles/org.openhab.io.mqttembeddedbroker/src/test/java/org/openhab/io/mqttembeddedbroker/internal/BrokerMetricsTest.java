@@ -0,0 +1,122 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.mqttembeddedbroker.internal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+import org.openhab.io.mqttembeddedbroker.internal.BrokerMetrics.ClientMetrics;
+
+/**
+ * Tests the {@link BrokerMetrics}.
+ *
+ * @author Markus Lindqvist - Initial contribution
+ */
+public class BrokerMetricsTest {
+
+    @Test
+    public void matchesExactTopic() {
+        assertTrue(BrokerMetrics.matches("a/b/c", "a/b/c"));
+        assertFalse(BrokerMetrics.matches("a/b/c", "a/b/cd"));
+        assertFalse(BrokerMetrics.matches("a/b/c", "a/b"));
+        assertFalse(BrokerMetrics.matches("a/b", "a/b/c"));
+    }
+
+    @Test
+    public void matchesSingleLevelWildcard() {
+        assertTrue(BrokerMetrics.matches("a/+/c", "a/b/c"));
+        assertTrue(BrokerMetrics.matches("a/+/c", "a//c"));
+        assertTrue(BrokerMetrics.matches("+/+", "/b"));
+        assertTrue(BrokerMetrics.matches("a/+", "a/b"));
+        assertFalse(BrokerMetrics.matches("a/+", "a/b/c"));
+        assertFalse(BrokerMetrics.matches("a/+", "a"));
+        assertFalse(BrokerMetrics.matches("+", "a/b"));
+    }
+
+    @Test
+    public void matchesMultiLevelWildcard() {
+        assertTrue(BrokerMetrics.matches("#", "a/b/c"));
+        assertTrue(BrokerMetrics.matches("a/#", "a/b/c"));
+        assertTrue(BrokerMetrics.matches("a/#", "a"));
+        assertTrue(BrokerMetrics.matches("a/+/#", "a/b/c/d"));
+        assertFalse(BrokerMetrics.matches("a/#", "b/c"));
+        assertFalse(BrokerMetrics.matches("a/b/#", "a"));
+    }
+
+    @Test
+    public void wildcardsDoNotMatchSystemTopics() {
+        assertFalse(BrokerMetrics.matches("#", "$SYS/uptime"));
+        assertFalse(BrokerMetrics.matches("+/uptime", "$SYS/uptime"));
+        assertTrue(BrokerMetrics.matches("$SYS/#", "$SYS/uptime"));
+    }
+
+    @Test
+    public void deliveriesFollowSubscriptions() {
+        BrokerMetrics metrics = new BrokerMetrics();
+        metrics.clientConnected("client", true);
+        metrics.subscribed("client", "a/#", 1);
+        metrics.published("a/b", 1, 10);
+        metrics.published("b/c", 1, 10);
+
+        // Cached subscribers of a topic are invalidated on subscription changes
+        metrics.subscribed("client", "b/+", 0);
+        metrics.published("b/c", 1, 10);
+        metrics.unsubscribed("client", "a/#");
+        metrics.published("a/b", 1, 10);
+
+        ClientMetrics client = metrics.getClients().get("client");
+        assertThat(client.getDeliveryCount(), is(2L));
+        assertThat(metrics.getPublishCount(), is(4L));
+        assertThat(metrics.getBytesIn(), is(40L));
+        assertThat(metrics.getBytesOut(), is(20L));
+    }
+
+    @Test
+    public void queuedWhileDisconnected() {
+        BrokerMetrics metrics = new BrokerMetrics();
+        metrics.clientConnected("persistent", false);
+        metrics.subscribed("persistent", "a/#", 1);
+        metrics.clientDisconnected("persistent");
+        metrics.published("a/b", 1, 10);
+        metrics.published("a/b", 0, 10);
+
+        ClientMetrics client = metrics.getClients().get("persistent");
+        assertFalse(client.isConnected());
+        assertThat(client.getQueueDepth(), is(1L));
+
+        metrics.clientConnected("persistent", false);
+        assertThat(client.getQueueDepth(), is(0L));
+        assertThat(client.getSubscriptionCount(), is(1));
+    }
+
+    @Test
+    public void longestDisconnectedClientsAreEvicted() {
+        BrokerMetrics metrics = new BrokerMetrics();
+        metrics.clientConnected("clean", true);
+        metrics.clientDisconnected("clean");
+        assertNull(metrics.getClients().get("clean"));
+
+        for (int i = 0; i <= BrokerMetrics.MAX_DISCONNECTED_CLIENTS; i++) {
+            metrics.clientConnected("client" + i, false);
+            metrics.subscribed("client" + i, "a/#", 1);
+            metrics.clientDisconnected("client" + i);
+        }
+        assertThat(metrics.getClients().size(), is(BrokerMetrics.MAX_DISCONNECTED_CLIENTS));
+        assertNull(metrics.getClients().get("client0"));
+
+        // Evicted clients are not counted as subscribers anymore
+        metrics.published("a/b", 1, 10);
+        assertThat(metrics.getBytesOut(), is(10L * BrokerMetrics.MAX_DISCONNECTED_CLIENTS));
+    }
+}
@@ -0,0 +1,130 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.mqttembeddedbroker.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
+import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection.Protocol;
+import org.eclipse.smarthome.io.transport.mqtt.MqttService;
+import org.eclipse.smarthome.test.java.JavaTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.openhab.io.mqttembeddedbroker.internal.BrokerMetrics.ClientMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Drives the embedded broker with a number of local clients and checks the broker metrics.
+ * <p>
+ * The defaults keep the test short. For sizing the broker, run it with more clients and messages, for example
+ * <code>-Dloadtest.clients=300 -Dloadtest.messages=100 -Dloadtest.qos=1</code>, and compare the throughput that is
+ * logged.
+ *
+ * @author Markus Lindqvist - Initial contribution
+ */
+public class EmbeddedBrokerLoadTest extends JavaTest {
+    private static final int CLIENTS = Integer.getInteger("loadtest.clients", 10);
+    private static final int MESSAGES = Integer.getInteger("loadtest.messages", 20);
+    private static final int QOS = Integer.getInteger("loadtest.qos", 1);
+    private static final int PORT = 12346;
+
+    private final Logger logger = LoggerFactory.getLogger(EmbeddedBrokerLoadTest.class);
+
+    private EmbeddedBrokerService subject;
+    private final Map<String, Object> config = new HashMap<>();
+    private final List<MqttBrokerConnection> clients = new ArrayList<>();
+    private @Mock MqttService service;
+
+    @Before
+    public void setUp() throws IOException {
+        MockitoAnnotations.initMocks(this);
+
+        config.put("port", PORT);
+        config.put("secure", false);
+        config.put("persistenceFile", "");
+
+        subject = new EmbeddedBrokerService(service, config);
+    }
+
+    @After
+    public void cleanUp() throws InterruptedException, ExecutionException {
+        for (MqttBrokerConnection client : clients) {
+            client.stop().get();
+        }
+        subject.deactivate();
+    }
+
+    private MqttBrokerConnection connect(String clientId) throws InterruptedException, ExecutionException {
+        MqttBrokerConnection client = new MqttBrokerConnection(Protocol.TCP, "localhost", PORT, false, clientId);
+        clients.add(client);
+        assertTrue("Client " + clientId + " could not connect", client.start().get());
+        return client;
+    }
+
+    @Test
+    public void publishFromManyClients() throws InterruptedException, ExecutionException {
+        int total = CLIENTS * MESSAGES;
+        CountDownLatch received = new CountDownLatch(total);
+        MqttBrokerConnection subscriber = connect("loadtest-subscriber");
+        subscriber.subscribe("loadtest/#", (topic, payload) -> received.countDown()).get();
+
+        List<MqttBrokerConnection> devices = new ArrayList<>();
+        for (int i = 0; i < CLIENTS; i++) {
+            devices.add(connect("loadtest-device" + i));
+        }
+
+        long start = System.nanoTime();
+        List<CompletableFuture<Boolean>> publishes = new ArrayList<>();
+        for (int message = 0; message < MESSAGES; message++) {
+            for (int i = 0; i < CLIENTS; i++) {
+                byte[] payload = ("{\"value\":" + message + "}").getBytes(StandardCharsets.UTF_8);
+                publishes.add(devices.get(i).publish("loadtest/device" + i + "/state", payload, QOS, false));
+            }
+        }
+        CompletableFuture.allOf(publishes.toArray(new CompletableFuture<?>[0])).get(60, TimeUnit.SECONDS);
+        assertTrue("Not all messages were delivered", received.await(60, TimeUnit.SECONDS));
+        long millis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        logger.info("{} clients published {} messages with QoS {} in {} ms: {} messages/s", CLIENTS, total, QOS, millis,
+                total * 1000L / millis);
+
+        // Intercept handlers are notified asynchronously
+        BrokerMetrics metrics = subject.getMetrics().getBrokerMetrics();
+        waitForAssert(() -> assertThat(metrics.getPublishCount(), is((long) total)));
+        assertThat(metrics.getTopicPrefixRates().keySet(), hasItem("loadtest"));
+        assertTrue(metrics.getBytesIn() > 0);
+        assertThat(metrics.getBytesOut(), is(metrics.getBytesIn()));
+
+        ClientMetrics subscriberMetrics = metrics.getClients().get("loadtest-subscriber");
+        assertNotNull(subscriberMetrics);
+        assertTrue(subscriberMetrics.isConnected());
+        assertThat(subscriberMetrics.getSubscriptionCount(), is(1));
+        assertThat(subscriberMetrics.getDeliveryCount(), is((long) total));
+        assertThat(subscriberMetrics.getQueueDepth(), is(0L));
+    }
+}
@@ -0,0 +1,147 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.mqttembeddedbroker.internal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.io.mqttembeddedbroker.internal.RetainedMessageStore.StoredMessage;
+
+/**
+ * Tests the {@link RetainedMessageStore}.
+ *
+ * @author Markus Lindqvist - Initial contribution
+ */
+public class RetainedMessageStoreTest {
+    private Path folder;
+
+    @Before
+    public void setUp() throws IOException {
+        folder = Files.createTempDirectory("retainedstore");
+    }
+
+    @After
+    public void cleanUp() throws IOException {
+        FileUtils.deleteDirectory(folder.toFile());
+    }
+
+    private RetainedMessageStore open() throws IOException {
+        RetainedMessageStore store = new RetainedMessageStore(folder, 0, RetainedMessageStore.DEFAULT_MAX_SEGMENT_SIZE);
+        store.open();
+        return store;
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(folder)) {
+            return files.count();
+        }
+    }
+
+    @Test
+    public void reloadAfterRestart() throws IOException {
+        RetainedMessageStore store = open();
+        assertTrue(store.put("a/b", 1, "first".getBytes(StandardCharsets.UTF_8)));
+        assertTrue(store.put("a/c", 2, "second".getBytes(StandardCharsets.UTF_8)));
+        assertTrue(store.put("a/b", 1, "third".getBytes(StandardCharsets.UTF_8)));
+        assertTrue(store.remove("a/c"));
+        assertFalse(store.remove("a/d"));
+        store.close();
+
+        store = open();
+        Map<String, StoredMessage> messages = store.getMessages();
+        assertThat(messages.size(), is(1));
+        assertThat(messages.get("a/b").qos, is(1));
+        assertThat(new String(messages.get("a/b").payload, StandardCharsets.UTF_8), is("third"));
+        store.close();
+
+        // The last segment is continued
+        assertThat(segmentCount(), is(1L));
+    }
+
+    @Test
+    public void unchangedMessagesAreNotWritten() throws IOException {
+        RetainedMessageStore store = open();
+        assertTrue(store.put("a/b", 1, new byte[] { 1, 2 }));
+        store.flush();
+        long size = store.getStoreSize();
+
+        assertFalse(store.put("a/b", 1, new byte[] { 1, 2 }));
+        store.flush();
+        assertThat(store.getStoreSize(), is(size));
+        assertThat(store.getFlushCount(), is(1L));
+
+        assertTrue(store.put("a/b", 2, new byte[] { 1, 2 }));
+        store.flush();
+        assertThat(store.getFlushCount(), is(2L));
+        store.close();
+    }
+
+    @Test
+    public void compactsOverwrittenMessages() throws IOException {
+        RetainedMessageStore store = open();
+        byte[] payload = new byte[4096];
+        for (int i = 0; i < 1000; i++) {
+            payload[0] = (byte) i;
+            store.put("topic/" + (i % 10), 1, payload.clone());
+            if (i % 100 == 0) {
+                store.flush();
+            }
+        }
+        store.flush();
+        assertTrue(store.getCompactionCount() > 0);
+        assertTrue(store.getStoreSize() < 1000 * 4096 / 2);
+        assertThat(segmentCount(), is(1L));
+        store.close();
+
+        store = open();
+        Map<String, StoredMessage> messages = store.getMessages();
+        assertThat(messages.size(), is(10));
+        assertThat(messages.get("topic/9").payload[0], is((byte) 999));
+        store.close();
+    }
+
+    @Test
+    public void ignoresDamagedTail() throws IOException {
+        RetainedMessageStore store = open();
+        store.put("a/b", 1, new byte[] { 1 });
+        store.close();
+
+        try (Stream<Path> files = Files.list(folder)) {
+            Path segment = files.findFirst().get();
+            Files.write(segment, new byte[] { 0, 0, 0, 20, 1, 1, 0 }, StandardOpenOption.APPEND);
+        }
+
+        store = open();
+        assertThat(store.size(), is(1));
+        store.put("a/c", 1, new byte[] { 2 });
+        store.close();
+        // Changes are not appended after the damaged record
+        assertThat(segmentCount(), is(2L));
+
+        store = open();
+        assertThat(store.size(), is(2));
+        store.close();
+    }
+}
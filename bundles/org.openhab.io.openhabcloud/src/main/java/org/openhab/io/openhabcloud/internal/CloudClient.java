@@ -20,12 +20,13 @@ import java.net.URL;
 import java.net.URLEncoder;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.jetty.client.HttpClient;
 import org.eclipse.jetty.client.api.Request;
@@ -67,6 +68,8 @@ import io.socket.engineio.client.Transport;
  */
 
 public class CloudClient {
+    private static final String THREADPOOL_OPENHABCLOUD = "openhabcloud";
+
     /*
      * Logger for this class
      */
@@ -98,14 +101,20 @@ public class CloudClient {
     private final HttpClient jettyClient;
 
     /*
-     * This hashmap holds HTTP requests to local openHAB which are currently running
+     * This map holds HTTP requests to local openHAB which are currently running
+     */
+    private final Map<Integer, ResponseListener> runningRequests = new ConcurrentHashMap<>();
+
+    /*
+     * These variables hold statistics of the proxied requests
      */
-    private Map<Integer, Request> runningRequests;
+    private final AtomicLong proxiedRequests = new AtomicLong();
+    private final AtomicLong proxiedBytes = new AtomicLong();
 
     /*
      * This variable indicates if connection to the openHAB Cloud is currently in an established state
      */
-    private boolean isConnected;
+    private volatile boolean isConnected;
 
     /*
      * This variable holds version of local openHAB
@@ -131,6 +140,11 @@ public class CloudClient {
     private boolean remoteAccessEnabled;
     private Set<String> exposedItems;
 
+    /*
+     * This variable holds item updates until they are sent to the openHAB Cloud
+     */
+    private final ItemUpdateCoalescer itemUpdates;
+
     /**
      * Constructor of CloudClient
      *
@@ -138,17 +152,28 @@ public class CloudClient {
      * @param secret openHAB's Secret to connect to the openHAB Cloud
      * @param remoteAccessEnabled Allow the openHAB Cloud to be used as a remote proxy
      * @param exposedItems Items that are made available to apps connected to the openHAB Cloud
+     * @param itemUpdateWindow Time window in milliseconds in which only the latest update of an item is sent
      */
     public CloudClient(HttpClient httpClient, String uuid, String secret, String baseURL, String localBaseUrl,
-            boolean remoteAccessEnabled, Set<String> exposedItems) {
+            boolean remoteAccessEnabled, Set<String> exposedItems, long itemUpdateWindow) {
         this.uuid = uuid;
         this.secret = secret;
         this.baseURL = baseURL;
         this.localBaseUrl = localBaseUrl;
         this.remoteAccessEnabled = remoteAccessEnabled;
         this.exposedItems = exposedItems;
-        runningRequests = new HashMap<>();
         this.jettyClient = httpClient;
+        this.itemUpdates = new ItemUpdateCoalescer(new ItemUpdateCoalescer.ItemUpdateSender() {
+            @Override
+            public boolean isConnected() {
+                return CloudClient.this.isConnected();
+            }
+
+            @Override
+            public boolean send(String itemName, String itemState) {
+                return emitItemUpdate(itemName, itemState);
+            }
+        }, ThreadPoolManager.getScheduledPool(THREADPOOL_OPENHABCLOUD), itemUpdateWindow);
     }
 
     /**
@@ -231,6 +256,7 @@ public class CloudClient {
     public void onConnect() {
         logger.info("Connected to the openHAB Cloud service (UUID = {}, base URL = {})", this.uuid, this.localBaseUrl);
         isConnected = true;
+        itemUpdates.connected();
     }
 
     /**
@@ -241,9 +267,11 @@ public class CloudClient {
         logger.info("Disconnected from the openHAB Cloud service (UUID = {}, base URL = {})", this.uuid,
                 this.localBaseUrl);
         isConnected = false;
-        // And clean up the list of running requests
-        if (runningRequests != null) {
-            runningRequests.clear();
+        // And abort the running requests, their responses cannot be delivered anymore
+        for (Iterator<ResponseListener> iterator = runningRequests.values().iterator(); iterator.hasNext();) {
+            ResponseListener listener = iterator.next();
+            iterator.remove();
+            listener.abort();
         }
     }
 
@@ -289,26 +317,25 @@ public class CloudClient {
             String requestBody = data.getString("body");
             // Get JSONObject for request headers
             JSONObject requestHeadersJson = data.getJSONObject("headers");
-            logger.debug("{}", requestHeadersJson.toString());
+            logger.debug("{}", requestHeadersJson);
             // Get JSONObject for request query parameters
             JSONObject requestQueryJson = data.getJSONObject("query");
             // Create URI builder with base request URI of openHAB and path from request
-            String newPath = URIUtil.addPaths(localBaseUrl, requestPath);
+            StringBuilder newPath = new StringBuilder(URIUtil.addPaths(localBaseUrl, requestPath));
             @SuppressWarnings("unchecked")
             Iterator<String> queryIterator = requestQueryJson.keys();
             // Add query parameters to URI builder, if any
-            newPath += "?";
+            newPath.append('?');
             while (queryIterator.hasNext()) {
                 String queryName = queryIterator.next();
-                newPath += queryName;
-                newPath += "=";
-                newPath += URLEncoder.encode(requestQueryJson.getString(queryName), "UTF-8");
+                newPath.append(queryName).append('=');
+                newPath.append(URLEncoder.encode(requestQueryJson.getString(queryName), "UTF-8"));
                 if (queryIterator.hasNext()) {
-                    newPath += "&";
+                    newPath.append('&');
                 }
             }
             // Finally get the future request URI
-            URI requestUri = new URI(newPath);
+            URI requestUri = new URI(newPath.toString());
             // All preparations which are common for different methods are done
             // Now perform the request to openHAB
             // If method is GET
@@ -334,11 +361,11 @@ public class CloudClient {
                 logger.warn("Unsupported request method {}", requestMethod);
                 return;
             }
-            ResponseListener listener = new ResponseListener(requestId);
-            request.onResponseHeaders(listener).onResponseContent(listener).onRequestFailure(listener).send(listener);
-            // If successfully submitted request to http client, add it to the list of currently
-            // running requests to be able to cancel it if needed
-            runningRequests.put(requestId, request);
+            ResponseListener listener = new ResponseListener(requestId, request);
+            // Add the request to the list of currently running requests to be able to cancel it if needed.
+            // This is done before sending, the request might complete before send returns.
+            runningRequests.put(requestId, listener);
+            listener.send();
         } catch (JSONException | IOException | URISyntaxException e) {
             logger.debug("{}", e.getMessage());
         }
@@ -368,10 +395,9 @@ public class CloudClient {
             int requestId = data.getInt("id");
             logger.debug("Received cancel for request {}", requestId);
             // Find and abort running request
-            if (runningRequests.containsKey(requestId)) {
-                Request request = runningRequests.get(requestId);
-                request.abort(new InterruptedException());
-                runningRequests.remove(requestId);
+            ResponseListener listener = runningRequests.remove(requestId);
+            if (listener != null) {
+                listener.abort();
             }
         } catch (JSONException e) {
             logger.debug("{}", e.getMessage());
@@ -469,13 +495,18 @@ public class CloudClient {
     }
 
     /**
-     * Send item update to openHAB Cloud
+     * Send item update to openHAB Cloud. Updates are coalesced per item and sent at the end of the item update
+     * window. While disconnected, the latest state of each item is kept and sent after reconnecting.
      *
      * @param itemName the name of the item
      * @param itemState updated item state
      *
      */
     public void sendItemUpdate(String itemName, String itemState) {
+        itemUpdates.update(itemName, itemState);
+    }
+
+    private boolean emitItemUpdate(String itemName, String itemState) {
         if (isConnected()) {
             logger.debug("Sending update '{}' for item '{}'", itemState, itemName);
             JSONObject itemUpdateMessage = new JSONObject();
@@ -483,12 +514,14 @@ public class CloudClient {
                 itemUpdateMessage.put("itemName", itemName);
                 itemUpdateMessage.put("itemStatus", itemState);
                 socket.emit("itemupdate", itemUpdateMessage);
+                return true;
             } catch (JSONException e) {
                 logger.debug("{}", e.getMessage());
             }
         } else {
             logger.debug("No connection, Item update is not sent");
         }
+        return false;
     }
 
     /**
@@ -503,9 +536,33 @@ public class CloudClient {
      */
     public void shutdown() {
         logger.info("Shutting down openHAB Cloud service connection");
+        itemUpdates.dispose();
+        logger.debug("Item updates sent: {}, coalesced: {}, dropped: {}", getSentItemUpdates(),
+                getCoalescedItemUpdates(), getDroppedItemUpdates());
         socket.disconnect();
     }
 
+    /**
+     * Returns the number of item updates sent to the openHAB Cloud
+     */
+    public long getSentItemUpdates() {
+        return itemUpdates.getSentUpdates();
+    }
+
+    /**
+     * Returns the number of item updates replaced by a newer state of the same item before being sent
+     */
+    public long getCoalescedItemUpdates() {
+        return itemUpdates.getCoalescedUpdates();
+    }
+
+    /**
+     * Returns the number of item updates replaced while disconnected or discarded on shutdown
+     */
+    public long getDroppedItemUpdates() {
+        return itemUpdates.getDroppedUpdates();
+    }
+
     public String getOpenHABVersion() {
         return openHABVersion;
     }
@@ -518,18 +575,39 @@ public class CloudClient {
         this.listener = listener;
     }
 
+    /**
+     * Returns the number of requests proxied from the openHAB Cloud to openHAB
+     */
+    public long getProxiedRequests() {
+        return proxiedRequests.get();
+    }
+
+    /**
+     * Returns the number of response bytes proxied from openHAB to the openHAB Cloud
+     */
+    public long getProxiedBytes() {
+        return proxiedBytes.get();
+    }
+
     /*
-     * An internal class which forwards response headers and data back to the openHAB Cloud
+     * An internal class which forwards response headers and data back to the openHAB Cloud.
+     *
+     * Content is streamed chunk by chunk as it is received from openHAB.
      */
     private class ResponseListener
             implements Response.CompleteListener, HeadersListener, ContentListener, FailureListener {
 
-        private static final String THREADPOOL_OPENHABCLOUD = "openhabcloud";
-        private int mRequestId;
+        private final int mRequestId;
+        private final Request mRequest;
         private boolean mHeadersSent = false;
 
-        public ResponseListener(int requestId) {
+        private final long startNanos = System.nanoTime();
+        private volatile long firstByteNanos;
+        private volatile long bytesProxied;
+
+        public ResponseListener(int requestId, Request request) {
             mRequestId = requestId;
+            mRequest = request;
         }
 
         private JSONObject getJSONHeaders(HttpFields httpFields) {
@@ -544,6 +622,20 @@ public class CloudClient {
             return headersJSON;
         }
 
+        /**
+         * Sends the request to openHAB
+         */
+        public void send() {
+            mRequest.onResponseHeaders(this).onResponseContent(this).onRequestFailure(this).send(this);
+        }
+
+        /**
+         * Aborts the request to openHAB
+         */
+        public void abort() {
+            mRequest.abort(new InterruptedException());
+        }
+
         @Override
         public void onComplete(Result result) {
             // Remove this request from list of running requests
@@ -560,6 +652,14 @@ public class CloudClient {
                     logger.warn("Response Failure: {}", result.getResponseFailure().getMessage());
                 }
             }
+            proxiedRequests.incrementAndGet();
+            if (logger.isDebugEnabled()) {
+                long firstByteNanos = this.firstByteNanos;
+                logger.debug("Request {} proxied {} bytes, time to first byte: {} ms, total: {} ms", mRequestId,
+                        bytesProxied,
+                        firstByteNanos == 0 ? "-" : TimeUnit.NANOSECONDS.toMillis(firstByteNanos - startNanos),
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+            }
 
             /**
              * What is this? In some cases where latency is very low the myopenhab service
@@ -592,7 +692,13 @@ public class CloudClient {
 
         @Override
         public void onContent(Response response, ByteBuffer content) {
-            logger.debug("Jetty received response content of size {}", String.valueOf(content.remaining()));
+            int size = content.remaining();
+            logger.debug("Jetty received response content of size {}", size);
+            if (firstByteNanos == 0) {
+                firstByteNanos = System.nanoTime();
+            }
+            bytesProxied += size;
+            proxiedBytes.addAndGet(size);
             JSONObject responseJson = new JSONObject();
             try {
                 responseJson.put("id", mRequestId);
@@ -617,7 +723,7 @@ public class CloudClient {
                     responseJson.put("responseStatusText", "OK");
                     socket.emit("responseHeader", responseJson);
                     logger.debug("Sent headers to request {}", mRequestId);
-                    logger.debug("{}", responseJson.toString());
+                    logger.debug("{}", responseJson);
                 } catch (JSONException e) {
                     logger.debug("{}", e.getMessage());
                 }
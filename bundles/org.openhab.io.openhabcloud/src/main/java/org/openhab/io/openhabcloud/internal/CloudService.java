@@ -82,11 +82,13 @@ public class CloudService implements ActionService, CloudClientListener, EventSu
     private static final String CFG_EXPOSE = "expose";
     private static final String CFG_BASE_URL = "baseURL";
     private static final String CFG_MODE = "mode";
+    private static final String CFG_ITEM_UPDATE_WINDOW = "itemUpdateWindow";
     private static final String SECRET_FILE_NAME = "openhabcloud" + File.separator + "secret";
     private static final String DEFAULT_URL = "https://myopenhab.org/";
     private static final int DEFAULT_LOCAL_OPENHAB_MAX_CONCURRENT_REQUESTS = 200;
     private static final int DEFAULT_LOCAL_OPENHAB_REQUEST_TIMEOUT = 30000;
     private static final String HTTPCLIENT_NAME = "openhabcloud";
+    private static final long DEFAULT_ITEM_UPDATE_WINDOW = 1000;
 
     private Logger logger = LoggerFactory.getLogger(CloudService.class);
 
@@ -99,6 +101,7 @@ public class CloudService implements ActionService, CloudClientListener, EventSu
 
     private boolean remoteAccessEnabled = true;
     private Set<String> exposedItems = null;
+    private long itemUpdateWindow = DEFAULT_ITEM_UPDATE_WINDOW;
     private int localPort;
 
     public CloudService() {
@@ -199,6 +202,18 @@ public class CloudService implements ActionService, CloudClientListener, EventSu
             cloudBaseUrl = DEFAULT_URL;
         }
 
+        itemUpdateWindow = DEFAULT_ITEM_UPDATE_WINDOW;
+        Object windowCfg = config.get(CFG_ITEM_UPDATE_WINDOW);
+        if (windowCfg instanceof Number) {
+            itemUpdateWindow = ((Number) windowCfg).longValue();
+        } else if (windowCfg instanceof String && !((String) windowCfg).trim().isEmpty()) {
+            try {
+                itemUpdateWindow = Long.parseLong(((String) windowCfg).trim());
+            } catch (NumberFormatException e) {
+                logger.warn("Invalid item update window '{}', using {} ms", windowCfg, DEFAULT_ITEM_UPDATE_WINDOW);
+            }
+        }
+
         exposedItems = new HashSet<>();
         Object expCfg = config.get(CFG_EXPOSE);
         if (expCfg instanceof String) {
@@ -237,7 +252,7 @@ public class CloudService implements ActionService, CloudClientListener, EventSu
 
         String localBaseUrl = "http://localhost:" + localPort;
         cloudClient = new CloudClient(httpClient, InstanceUUID.get(), getSecret(), cloudBaseUrl, localBaseUrl,
-                remoteAccessEnabled, exposedItems);
+                remoteAccessEnabled, exposedItems, itemUpdateWindow);
         cloudClient.setOpenHABVersion(OpenHAB.getVersion());
         cloudClient.connect();
         cloudClient.setListener(this);
@@ -0,0 +1,220 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.openhabcloud.internal;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collects item updates for the openHAB Cloud and sends only the latest state of each item per time window.
+ *
+ * The first update after a flush starts the window, all updates arriving within the window are sent together when it
+ * ends. While the connection is down, only the latest state of each item is kept and sent after reconnecting. The
+ * pending updates are therefore bounded by the number of exposed items. Updates are sent in the order of their latest
+ * state change.
+ *
+ * @author Markus Lindqvist - Initial contribution
+ */
+public class ItemUpdateCoalescer {
+
+    /**
+     * Receiver of the coalesced item updates
+     */
+    public interface ItemUpdateSender {
+        /**
+         * Returns true if updates can be sent now
+         */
+        boolean isConnected();
+
+        /**
+         * Sends an item update
+         *
+         * @return true if the update was sent, false if it could not be sent
+         */
+        boolean send(String itemName, String itemState);
+    }
+
+    private final ItemUpdateSender sender;
+    private final ScheduledExecutorService scheduler;
+    private final long windowMillis;
+
+    /*
+     * Latest pending state by item name, in the order of the latest update. Guarded by "this".
+     */
+    private final Map<String, String> pending = new LinkedHashMap<>();
+    private ScheduledFuture<?> flushJob;
+    private boolean disposed;
+
+    /*
+     * Serializes flushes, so that an older state of an item is never sent after a newer one
+     */
+    private final Object flushLock = new Object();
+
+    private final AtomicLong sentUpdates = new AtomicLong();
+    private final AtomicLong coalescedUpdates = new AtomicLong();
+    private final AtomicLong droppedUpdates = new AtomicLong();
+
+    /**
+     * Constructor of ItemUpdateCoalescer
+     *
+     * @param sender receives the coalesced updates
+     * @param scheduler runs the flushes
+     * @param windowMillis time window in milliseconds in which updates of an item are coalesced. With 0 updates are
+     *            sent as soon as possible.
+     */
+    public ItemUpdateCoalescer(ItemUpdateSender sender, ScheduledExecutorService scheduler, long windowMillis) {
+        this.sender = sender;
+        this.scheduler = scheduler;
+        this.windowMillis = Math.max(0, windowMillis);
+    }
+
+    /**
+     * Queues an item update. A pending update of the same item is replaced.
+     *
+     * @param itemName the name of the item
+     * @param itemState updated item state
+     */
+    public void update(String itemName, String itemState) {
+        boolean connected = sender.isConnected();
+        synchronized (this) {
+            if (disposed) {
+                droppedUpdates.incrementAndGet();
+                return;
+            }
+            if (pending.remove(itemName) != null) {
+                if (connected) {
+                    coalescedUpdates.incrementAndGet();
+                } else {
+                    droppedUpdates.incrementAndGet();
+                }
+            }
+            pending.put(itemName, itemState);
+            if (connected) {
+                scheduleFlush(windowMillis);
+            }
+        }
+    }
+
+    /**
+     * Sends the pending updates as soon as possible, for example after the connection has been established
+     */
+    public void connected() {
+        synchronized (this) {
+            if (!disposed && !pending.isEmpty()) {
+                scheduleFlush(0);
+            }
+        }
+    }
+
+    private void scheduleFlush(long delayMillis) {
+        // A running flush has already reset the job, so the updates are never left without a scheduled flush
+        ScheduledFuture<?> job = flushJob;
+        if (job == null || (delayMillis == 0 && job.cancel(false))) {
+            flushJob = scheduler.schedule(this::flush, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Sends all pending updates if the connection is established
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            List<Map.Entry<String, String>> batch;
+            synchronized (this) {
+                flushJob = null;
+                if (pending.isEmpty() || !sender.isConnected()) {
+                    return;
+                }
+                batch = new ArrayList<>(pending.entrySet());
+                pending.clear();
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                Map.Entry<String, String> update = batch.get(i);
+                if (sender.send(update.getKey(), update.getValue())) {
+                    sentUpdates.incrementAndGet();
+                } else if (sender.isConnected()) {
+                    droppedUpdates.incrementAndGet();
+                } else {
+                    // Connection lost while sending, keep the rest for the next connection
+                    requeue(batch.subList(i, batch.size()));
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Puts unsent updates back in front of the pending updates, unless a newer state of the item is pending already
+     */
+    private synchronized void requeue(List<Map.Entry<String, String>> updates) {
+        if (disposed) {
+            droppedUpdates.addAndGet(updates.size());
+            return;
+        }
+        Map<String, String> newer = new LinkedHashMap<>(pending);
+        pending.clear();
+        for (Map.Entry<String, String> update : updates) {
+            if (newer.containsKey(update.getKey())) {
+                droppedUpdates.incrementAndGet();
+            } else {
+                pending.put(update.getKey(), update.getValue());
+            }
+        }
+        pending.putAll(newer);
+        // The connection might have been established again in the meantime
+        if (!pending.isEmpty() && sender.isConnected()) {
+            scheduleFlush(0);
+        }
+    }
+
+    /**
+     * Stops sending updates. Pending updates are dropped.
+     */
+    public synchronized void dispose() {
+        disposed = true;
+        ScheduledFuture<?> job = flushJob;
+        if (job != null) {
+            job.cancel(false);
+            flushJob = null;
+        }
+        droppedUpdates.addAndGet(pending.size());
+        pending.clear();
+    }
+
+    /**
+     * Returns the number of updates actually sent to the openHAB Cloud
+     */
+    public long getSentUpdates() {
+        return sentUpdates.get();
+    }
+
+    /**
+     * Returns the number of updates replaced by a newer state of the same item within the time window
+     */
+    public long getCoalescedUpdates() {
+        return coalescedUpdates.get();
+    }
+
+    /**
+     * Returns the number of updates replaced while disconnected, not sent because of an error or discarded on shutdown
+     */
+    public long getDroppedUpdates() {
+        return droppedUpdates.get();
+    }
+}
@@ -0,0 +1,167 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.openhabcloud.internal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.io.openhabcloud.internal.ItemUpdateCoalescer.ItemUpdateSender;
+
+/**
+ * Tests the {@link ItemUpdateCoalescer}.
+ *
+ * @author Markus Lindqvist - Initial contribution
+ */
+public class ItemUpdateCoalescerTest {
+    private static final long LONG_WINDOW = 60000;
+
+    private ScheduledExecutorService scheduler;
+    private TestSender sender;
+
+    private static class TestSender implements ItemUpdateSender {
+        private final List<String> sent = new ArrayList<>();
+        private volatile boolean connected = true;
+        private volatile int failAfter = Integer.MAX_VALUE;
+        private volatile CountDownLatch sentLatch = new CountDownLatch(1);
+
+        @Override
+        public boolean isConnected() {
+            return connected;
+        }
+
+        @Override
+        public synchronized boolean send(String itemName, String itemState) {
+            if (!connected) {
+                return false;
+            }
+            if (sent.size() >= failAfter) {
+                // Connection lost while sending
+                connected = false;
+                return false;
+            }
+            sent.add(itemName + "=" + itemState);
+            sentLatch.countDown();
+            return true;
+        }
+
+        public synchronized List<String> getSent() {
+            return new ArrayList<>(sent);
+        }
+    }
+
+    @Before
+    public void setUp() {
+        scheduler = new ScheduledThreadPoolExecutor(1);
+        sender = new TestSender();
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void updatesWithinWindowAreCoalesced() {
+        ItemUpdateCoalescer coalescer = new ItemUpdateCoalescer(sender, scheduler, LONG_WINDOW);
+        coalescer.update("a", "1");
+        coalescer.update("b", "1");
+        coalescer.update("a", "2");
+        assertTrue(sender.getSent().isEmpty());
+
+        coalescer.flush();
+        // Sent in the order of the latest update
+        assertThat(sender.getSent(), is(Arrays.asList("b=1", "a=2")));
+        assertThat(coalescer.getSentUpdates(), is(2L));
+        assertThat(coalescer.getCoalescedUpdates(), is(1L));
+        assertThat(coalescer.getDroppedUpdates(), is(0L));
+    }
+
+    @Test
+    public void updatesAreSentAtEndOfWindow() throws InterruptedException {
+        ItemUpdateCoalescer coalescer = new ItemUpdateCoalescer(sender, scheduler, 100);
+        long start = System.nanoTime();
+        coalescer.update("a", "1");
+
+        assertTrue(sender.sentLatch.await(5, TimeUnit.SECONDS));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 100);
+        assertThat(sender.getSent(), is(Arrays.asList("a=1")));
+
+        // The next update starts a new window
+        sender.sentLatch = new CountDownLatch(1);
+        coalescer.update("a", "2");
+        assertTrue(sender.sentLatch.await(5, TimeUnit.SECONDS));
+        assertThat(sender.getSent(), is(Arrays.asList("a=1", "a=2")));
+    }
+
+    @Test
+    public void latestStateIsKeptWhileDisconnected() throws InterruptedException {
+        ItemUpdateCoalescer coalescer = new ItemUpdateCoalescer(sender, scheduler, LONG_WINDOW);
+        sender.connected = false;
+        coalescer.update("a", "1");
+        coalescer.update("a", "2");
+        coalescer.flush();
+        assertTrue(sender.getSent().isEmpty());
+
+        sender.connected = true;
+        coalescer.connected();
+        assertTrue(sender.sentLatch.await(5, TimeUnit.SECONDS));
+        assertThat(sender.getSent(), is(Arrays.asList("a=2")));
+        assertThat(coalescer.getSentUpdates(), is(1L));
+        assertThat(coalescer.getDroppedUpdates(), is(1L));
+    }
+
+    @Test
+    public void unsentUpdatesAreNotCounted() {
+        ItemUpdateCoalescer coalescer = new ItemUpdateCoalescer(sender, scheduler, LONG_WINDOW);
+        coalescer.update("a", "1");
+        coalescer.update("b", "1");
+        coalescer.update("c", "1");
+        sender.failAfter = 1;
+        coalescer.flush();
+        assertThat(sender.getSent(), is(Arrays.asList("a=1")));
+        assertThat(coalescer.getSentUpdates(), is(1L));
+
+        // Unsent updates are kept, unless a newer state arrived in the meantime
+        coalescer.update("c", "2");
+        sender.failAfter = Integer.MAX_VALUE;
+        sender.connected = true;
+        coalescer.flush();
+        assertThat(sender.getSent(), is(Arrays.asList("a=1", "b=1", "c=2")));
+        assertThat(coalescer.getSentUpdates(), is(3L));
+        assertThat(coalescer.getDroppedUpdates(), is(1L));
+    }
+
+    @Test
+    public void pendingUpdatesAreDroppedOnDispose() {
+        ItemUpdateCoalescer coalescer = new ItemUpdateCoalescer(sender, scheduler, LONG_WINDOW);
+        coalescer.update("a", "1");
+        coalescer.dispose();
+        coalescer.update("b", "1");
+        coalescer.flush();
+
+        assertTrue(sender.getSent().isEmpty());
+        assertThat(coalescer.getSentUpdates(), is(0L));
+        assertThat(coalescer.getDroppedUpdates(), is(2L));
+    }
+}
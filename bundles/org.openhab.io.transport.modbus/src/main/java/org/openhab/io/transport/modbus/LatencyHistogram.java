@@ -0,0 +1,115 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Thread-safe histogram of durations, using fixed buckets
+ *
+ * Durations are recorded in milliseconds. Percentiles are approximated using the upper bound of the bucket.
+ *
+ * @author Markus Lindqvist - Initial contribution
+ */
+@NonNullByDefault
+public class LatencyHistogram {
+
+    /**
+     * Upper bounds (inclusive) of the buckets, in milliseconds. Last bucket collects all the larger values.
+     */
+    private static final long[] BUCKET_UPPER_BOUNDS = new long[] { 1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000,
+            5000, 10000, Long.MAX_VALUE };
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_UPPER_BOUNDS.length);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Record single duration
+     *
+     * @param millis duration in milliseconds
+     */
+    public void record(long millis) {
+        long value = Math.max(0, millis);
+        int index = 0;
+        while (value > BUCKET_UPPER_BOUNDS[index]) {
+            index++;
+        }
+        buckets.incrementAndGet(index);
+        count.increment();
+        sum.add(value);
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * Get number of recorded durations
+     *
+     * @return number of recorded durations
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Get mean of the recorded durations
+     *
+     * @return mean duration in milliseconds, or zero if nothing has been recorded
+     */
+    public double getMean() {
+        long count = getCount();
+        return count == 0 ? 0 : (double) sum.sum() / count;
+    }
+
+    /**
+     * Get largest recorded duration
+     *
+     * @return largest duration in milliseconds
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Get approximate percentile of the recorded durations
+     *
+     * @param percentile percentile to query, between 0 and 100
+     * @return upper bound of the bucket containing the percentile in milliseconds, or largest recorded duration if that
+     *         is smaller
+     */
+    public long getPercentile(double percentile) {
+        long count = getCount();
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(count * Math.min(100, Math.max(0, percentile)) / 100);
+        long seen = 0;
+        for (int i = 0; i < BUCKET_UPPER_BOUNDS.length; i++) {
+            seen += buckets.get(i);
+            if (seen >= rank && seen > 0) {
+                return Math.min(BUCKET_UPPER_BOUNDS[i], getMax());
+            }
+        }
+        return getMax();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("count=%d, mean=%.1f ms, p50<=%d ms, p95<=%d ms, p99<=%d ms, max=%d ms", getCount(),
+                getMean(), getPercentile(50), getPercentile(95), getPercentile(99), getMax());
+    }
+}
@@ -0,0 +1,179 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+
+/**
+ * Performance metrics of a single {@link ModbusSlaveEndpoint}
+ *
+ * The metrics are collected by the {@link ModbusManager} over the lifetime of the manager, and can be queried at
+ * any time.
+ *
+ * @author Markus Lindqvist - Initial contribution
+ */
+@NonNullByDefault
+public class ModbusEndpointMetrics {
+
+    private final LatencyHistogram queueWait = new LatencyHistogram();
+    private final LatencyHistogram connect = new LatencyHistogram();
+    private final LatencyHistogram transaction = new LatencyHistogram();
+    private final LatencyHistogram callback = new LatencyHistogram();
+    private final LongAdder operations = new LongAdder();
+    private final LongAdder pollOverruns = new LongAdder();
+    private final LongAdder coalescedPolls = new LongAdder();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+    private final IntSupplier idleConnections;
+    private final IntSupplier activeConnections;
+
+    /**
+     * Constructor
+     *
+     * @param idleConnections supplier for the current number of idle connections of the endpoint
+     * @param activeConnections supplier for the current number of active (borrowed) connections of the endpoint
+     */
+    public ModbusEndpointMetrics(IntSupplier idleConnections, IntSupplier activeConnections) {
+        this.idleConnections = idleConnections;
+        this.activeConnections = activeConnections;
+    }
+
+    /**
+     * Time spent in the executor queue before the operation started
+     */
+    public LatencyHistogram getQueueWait() {
+        return queueWait;
+    }
+
+    /**
+     * Time spent acquiring (and possibly establishing) connections, per operation
+     */
+    public LatencyHistogram getConnect() {
+        return connect;
+    }
+
+    /**
+     * Time spent in transactions with the slave, per operation. Includes all the tries.
+     */
+    public LatencyHistogram getTransaction() {
+        return transaction;
+    }
+
+    /**
+     * Time spent calling the result or failure callbacks, per operation
+     */
+    public LatencyHistogram getCallback() {
+        return callback;
+    }
+
+    /**
+     * Number of executed operations (reads and writes)
+     */
+    public long getOperations() {
+        return operations.sum();
+    }
+
+    /**
+     * Number of regular polls that took longer than the poll period
+     */
+    public long getPollOverruns() {
+        return pollOverruns.sum();
+    }
+
+    /**
+     * Number of regular polls that were not queued since the previous poll of the same task was still waiting. Only
+     * counted with adaptive poll scheduling.
+     */
+    public long getCoalescedPolls() {
+        return coalescedPolls.sum();
+    }
+
+    /**
+     * Number of idle connections in the connection pool
+     */
+    public int getIdleConnections() {
+        return idleConnections.getAsInt();
+    }
+
+    /**
+     * Number of active (borrowed) connections in the connection pool
+     */
+    public int getActiveConnections() {
+        return activeConnections.getAsInt();
+    }
+
+    /**
+     * Get number of failed operations, by exception type
+     *
+     * @return map from simple class name of the error to number of errors
+     */
+    public Map<String, Long> getErrorCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        errors.forEach((type, count) -> counts.put(type, count.sum()));
+        return counts;
+    }
+
+    /**
+     * Record timings of a single operation
+     *
+     * @param connectMillis time spent acquiring connections
+     * @param transactionMillis time spent in transactions
+     * @param callbackMillis time spent calling callbacks
+     */
+    public void recordOperation(long connectMillis, long transactionMillis, long callbackMillis) {
+        operations.increment();
+        connect.record(connectMillis);
+        transaction.record(transactionMillis);
+        callback.record(callbackMillis);
+    }
+
+    /**
+     * Record failed operation
+     *
+     * @param error error passed to the failure callback
+     */
+    public void recordError(Exception error) {
+        errors.computeIfAbsent(error.getClass().getSimpleName(), type -> new LongAdder()).increment();
+    }
+
+    /**
+     * Record regular poll that took longer than the poll period
+     */
+    public void recordPollOverrun() {
+        pollOverruns.increment();
+    }
+
+    /**
+     * Record regular poll that was merged with the previous, still queued, poll of the same task
+     */
+    public void recordCoalescedPoll() {
+        coalescedPolls.increment();
+    }
+
+    @Override
+    public String toString() {
+        return new StringBuilder("ModbusEndpointMetrics(operations=").append(getOperations())
+                .append(", pollOverruns=").append(getPollOverruns()).append(", coalescedPolls=")
+                .append(getCoalescedPolls()).append(", idleConnections=")
+                .append(getIdleConnections()).append(", activeConnections=").append(getActiveConnections())
+                .append(", errors=").append(getErrorCounts()).append(", queueWait={").append(queueWait)
+                .append("}, connect={").append(connect).append("}, transaction={").append(transaction)
+                .append("}, callback={").append(callback).append("})").toString();
+    }
+}
@@ -12,6 +12,8 @@
  */
 package org.openhab.io.transport.modbus;
 
+import java.util.Map;
+
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.io.transport.modbus.endpoint.EndpointPoolConfiguration;
@@ -46,4 +48,11 @@ public interface ModbusManager {
      * @return general connection settings of the given endpoint
      */
     public @Nullable EndpointPoolConfiguration getEndpointPoolConfiguration(ModbusSlaveEndpoint endpoint);
+
+    /**
+     * Get performance metrics of all the endpoints that have been communicated with
+     *
+     * @return metrics by endpoint
+     */
+    public Map<ModbusSlaveEndpoint, ModbusEndpointMetrics> getEndpointMetrics();
 }
@@ -61,6 +61,30 @@ public class EndpointPoolConfiguration {
      */
     private int connectTimeoutMillis;
 
+    /**
+     * Time window for coalescing regular polls. Polls of this endpoint becoming due within the window are merged into
+     * as few read requests as possible. In milliseconds. Default of 0 means that polls are not coalesced.
+     */
+    private long pollCoalescingWindowMillis;
+
+    /**
+     * Maximum number of unrequested registers (or bits) that are allowed between two polls when merging them into a
+     * single read request. Only relevant when poll coalescing is enabled.
+     */
+    private int pollCoalescingMaxGap;
+
+    /**
+     * Maximum number of transactions that are sent without waiting for the previous responses. Applies only to TCP
+     * endpoints. Default of 1 means that transactions are executed one at a time using the connection pool.
+     */
+    private int maxPipelinedTransactions = 1;
+
+    /**
+     * Whether operations of the endpoint are scheduled adaptively. With adaptive scheduling writes are executed before
+     * queued polls, and polls that are still waiting from the previous period are executed only once.
+     */
+    private boolean adaptivePollScheduling;
+
     private static StandardToStringStyle toStringStyle = new StandardToStringStyle();
 
     static {
@@ -107,10 +131,44 @@ public class EndpointPoolConfiguration {
         this.connectTimeoutMillis = connectTimeoutMillis;
     }
 
+    public long getPollCoalescingWindowMillis() {
+        return pollCoalescingWindowMillis;
+    }
+
+    public void setPollCoalescingWindowMillis(long pollCoalescingWindowMillis) {
+        this.pollCoalescingWindowMillis = pollCoalescingWindowMillis;
+    }
+
+    public int getPollCoalescingMaxGap() {
+        return pollCoalescingMaxGap;
+    }
+
+    public void setPollCoalescingMaxGap(int pollCoalescingMaxGap) {
+        this.pollCoalescingMaxGap = pollCoalescingMaxGap;
+    }
+
+    public int getMaxPipelinedTransactions() {
+        return maxPipelinedTransactions;
+    }
+
+    public void setMaxPipelinedTransactions(int maxPipelinedTransactions) {
+        this.maxPipelinedTransactions = maxPipelinedTransactions;
+    }
+
+    public boolean isAdaptivePollScheduling() {
+        return adaptivePollScheduling;
+    }
+
+    public void setAdaptivePollScheduling(boolean adaptivePollScheduling) {
+        this.adaptivePollScheduling = adaptivePollScheduling;
+    }
+
     @Override
     public int hashCode() {
         return new HashCodeBuilder(2149, 3117).append(interTransactionDelayMillis).append(interConnectDelayMillis)
-                .append(connectMaxTries).append(reconnectAfterMillis).append(connectTimeoutMillis).toHashCode();
+                .append(connectMaxTries).append(reconnectAfterMillis).append(connectTimeoutMillis)
+                .append(pollCoalescingWindowMillis).append(pollCoalescingMaxGap).append(maxPipelinedTransactions)
+                .append(adaptivePollScheduling).toHashCode();
     }
 
     @Override
@@ -119,7 +177,11 @@ public class EndpointPoolConfiguration {
                 .append("interTransactionDelayMillis", interTransactionDelayMillis)
                 .append("interConnectDelayMillis", interConnectDelayMillis).append("connectMaxTries", connectMaxTries)
                 .append("reconnectAfterMillis", reconnectAfterMillis)
-                .append("connectTimeoutMillis", connectTimeoutMillis).toString();
+                .append("connectTimeoutMillis", connectTimeoutMillis)
+                .append("pollCoalescingWindowMillis", pollCoalescingWindowMillis)
+                .append("pollCoalescingMaxGap", pollCoalescingMaxGap)
+                .append("maxPipelinedTransactions", maxPipelinedTransactions)
+                .append("adaptivePollScheduling", adaptivePollScheduling).toString();
     }
 
     @Override
@@ -137,6 +199,10 @@ public class EndpointPoolConfiguration {
         return new EqualsBuilder().append(interTransactionDelayMillis, rhs.interTransactionDelayMillis)
                 .append(interConnectDelayMillis, rhs.interConnectDelayMillis)
                 .append(connectMaxTries, rhs.connectMaxTries).append(reconnectAfterMillis, rhs.reconnectAfterMillis)
-                .append(connectTimeoutMillis, rhs.connectTimeoutMillis).isEquals();
+                .append(connectTimeoutMillis, rhs.connectTimeoutMillis)
+                .append(pollCoalescingWindowMillis, rhs.pollCoalescingWindowMillis)
+                .append(pollCoalescingMaxGap, rhs.pollCoalescingMaxGap)
+                .append(maxPipelinedTransactions, rhs.maxPipelinedTransactions)
+                .append(adaptivePollScheduling, rhs.adaptivePollScheduling).isEquals();
     }
 }
@@ -0,0 +1,162 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Schedules the operations of a single endpoint when adaptive poll scheduling is enabled
+ *
+ * Operations are executed one at a time, in a single task of the executor. Writes are always executed before the
+ * queued polls. A poll that becomes due while its previous execution is still waiting in the queue is not queued
+ * again, the queued poll is executed only once. Polls are identified by a key with stable identity (e.g. the poll
+ * task, or the request of merged polls), which keeps the queue bounded by the number of distinct polls even when the
+ * endpoint cannot keep up with the poll periods.
+ *
+ * When the executor is not available or rejects the execution, queued writes are cancelled and queued polls are
+ * discarded.
+ *
+ * @author Markus Lindqvist - Initial contribution
+ *
+ */
+@NonNullByDefault
+public class EndpointScheduler {
+
+    private final Logger logger = LoggerFactory.getLogger(EndpointScheduler.class);
+
+    private final ModbusSlaveEndpoint endpoint;
+    private final Supplier<@Nullable Executor> executorSupplier;
+    private final Runnable coalescedPollListener;
+    private final Queue<FutureTask<?>> writes = new ConcurrentLinkedQueue<>();
+    private final Map<Object, Runnable> polls = new LinkedHashMap<>();
+    private boolean draining;
+
+    /**
+     * Constructor
+     *
+     * @param endpoint endpoint of the operations, used for logging
+     * @param executorSupplier supplier of the executor to drain the queue with. The supplier returns null when the
+     *            executor is not available anymore.
+     * @param coalescedPollListener called when a queued poll is submitted again, and thus polled only once
+     */
+    public EndpointScheduler(ModbusSlaveEndpoint endpoint, Supplier<@Nullable Executor> executorSupplier,
+            Runnable coalescedPollListener) {
+        this.endpoint = endpoint;
+        this.executorSupplier = executorSupplier;
+        this.coalescedPollListener = coalescedPollListener;
+    }
+
+    /**
+     * Submit write for execution. Writes are executed in the order of submission, before any queued polls.
+     *
+     * @param write write to execute. The write is cancelled if it cannot be executed.
+     */
+    public void submitWrite(FutureTask<?> write) {
+        writes.add(write);
+        drainLater();
+    }
+
+    /**
+     * Submit poll for execution
+     *
+     * If a poll with equal key is still waiting in the queue, it is replaced with this poll and executed only once.
+     *
+     * @param key key identifying the poll
+     * @param poll poll to execute
+     */
+    public void submitPoll(Object key, Runnable poll) {
+        boolean coalesced;
+        synchronized (this) {
+            coalesced = polls.put(key, poll) != null;
+        }
+        if (coalesced) {
+            // Previous execution of the same poll still waiting, endpoint is saturated
+            logger.debug("Poll {} of endpoint {} still queued from previous period, polling only once", key,
+                    endpoint);
+            coalescedPollListener.run();
+        }
+        drainLater();
+    }
+
+    /**
+     * Cancel queued writes and discard queued polls
+     */
+    public synchronized void cancelAll() {
+        FutureTask<?> write;
+        while ((write = writes.poll()) != null) {
+            write.cancel(false);
+        }
+        polls.clear();
+    }
+
+    private synchronized void drainLater() {
+        if (draining) {
+            return;
+        }
+        Executor executor = executorSupplier.get();
+        if (executor == null) {
+            // manager deactivated
+            cancelAll();
+            return;
+        }
+        draining = true;
+        try {
+            executor.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            logger.warn("Could not schedule operations of endpoint {}, cancelling the queued operations: {}",
+                    endpoint, e.getMessage());
+            draining = false;
+            cancelAll();
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            Runnable next = writes.poll();
+            if (next == null) {
+                synchronized (this) {
+                    next = writes.poll();
+                    if (next == null) {
+                        Iterator<Runnable> iterator = polls.values().iterator();
+                        if (!iterator.hasNext()) {
+                            draining = false;
+                            return;
+                        }
+                        next = iterator.next();
+                        iterator.remove();
+                    }
+                }
+            }
+            try {
+                next.run();
+            } catch (RuntimeException e) {
+                logger.warn("Execution of operation with endpoint {} failed unexpectedly. Ignoring exception.",
+                        endpoint, e);
+            }
+        }
+    }
+}
@@ -13,21 +13,26 @@
 package org.openhab.io.transport.modbus.internal;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
-import javax.imageio.IIOException;
-
 import org.apache.commons.pool2.KeyedObjectPool;
 import org.apache.commons.pool2.SwallowedExceptionListener;
 import org.apache.commons.pool2.impl.GenericKeyedObjectPool;
@@ -39,6 +44,7 @@ import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.openhab.io.transport.modbus.AsyncModbusFailure;
 import org.openhab.io.transport.modbus.AsyncModbusWriteResult;
 import org.openhab.io.transport.modbus.ModbusCommunicationInterface;
+import org.openhab.io.transport.modbus.ModbusEndpointMetrics;
 import org.openhab.io.transport.modbus.ModbusFailureCallback;
 import org.openhab.io.transport.modbus.ModbusManager;
 import org.openhab.io.transport.modbus.ModbusReadCallback;
@@ -59,6 +65,7 @@ import org.openhab.io.transport.modbus.exception.ModbusConnectionException;
 import org.openhab.io.transport.modbus.exception.ModbusUnexpectedResponseFunctionCodeException;
 import org.openhab.io.transport.modbus.exception.ModbusUnexpectedResponseSizeException;
 import org.openhab.io.transport.modbus.exception.ModbusUnexpectedTransactionIdException;
+import org.openhab.io.transport.modbus.internal.ModbusReadRequestPlanner.MergedReadRequest;
 import org.openhab.io.transport.modbus.internal.pooling.ModbusSlaveConnectionFactoryImpl;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
@@ -96,6 +103,22 @@ public class ModbusManagerImpl implements ModbusManager {
         private static final long serialVersionUID = 6939730579178506885L;
     }
 
+    @FunctionalInterface
+    private interface ModbusRequestExecutor {
+
+        /**
+         * Send the request to the slave and wait for the response
+         *
+         * @param libRequest modbus request
+         * @return response from the slave
+         *
+         * @throws IOException on generic IO errors
+         * @throws ModbusException on Modbus protocol errors (e.g. ModbusIOException on I/O, ModbusSlaveException on
+         *             slave exception responses)
+         */
+        public ModbusResponse execute(ModbusRequest libRequest) throws IOException, ModbusException;
+    }
+
     @FunctionalInterface
     private interface ModbusOperation<T> {
 
@@ -106,9 +129,9 @@ public class ModbusManagerImpl implements ModbusManager {
          *
          * @param timer aggregate stop watch for performance profiling
          * @param task task to execute
-         * @param connection connection to use
+         * @param executor executor sending the request to the slave
          *
-         * @throws IIOException on generic IO errors
+         * @throws IOException on generic IO errors
          * @throws ModbusException on Modbus protocol errors (e.g. ModbusIOException on I/O, ModbusSlaveException on
          *             slave exception responses)
          * @throws ModbusUnexpectedTransactionIdException when transaction IDs of the request and
@@ -117,8 +140,8 @@ public class ModbusManagerImpl implements ModbusManager {
          *             (ill-behaving slave)
          * @throws ModbusUnexpectedResponseSizeException when data length of the response and request do not match
          */
-        public void accept(AggregateStopWatch timer, T task, ModbusSlaveConnection connection)
-                throws ModbusException, IIOException, ModbusUnexpectedTransactionIdException,
+        public void accept(AggregateStopWatch timer, T task, ModbusRequestExecutor executor)
+                throws ModbusException, IOException, ModbusUnexpectedTransactionIdException,
                 ModbusUnexpectedResponseFunctionCodeException, ModbusUnexpectedResponseSizeException;
     }
 
@@ -189,24 +212,20 @@ public class ModbusManagerImpl implements ModbusManager {
      */
     private class PollOperation implements ModbusOperation<PollTask> {
         @Override
-        public void accept(AggregateStopWatch timer, PollTask task, ModbusSlaveConnection connection)
-                throws ModbusException, ModbusUnexpectedTransactionIdException,
+        public void accept(AggregateStopWatch timer, PollTask task, ModbusRequestExecutor executor)
+                throws ModbusException, IOException, ModbusUnexpectedTransactionIdException,
                 ModbusUnexpectedResponseFunctionCodeException, ModbusUnexpectedResponseSizeException {
-            ModbusSlaveEndpoint endpoint = task.getEndpoint();
             ModbusReadRequestBlueprint request = task.getRequest();
             ModbusReadCallback callback = task.getResultCallback();
             String operationId = timer.operationId;
 
-            ModbusTransaction transaction = ModbusLibraryWrapper.createTransactionForEndpoint(endpoint, connection);
             ModbusRequest libRequest = ModbusLibraryWrapper.createRequest(request);
-            transaction.setRequest(libRequest);
 
             logger.trace("Going execute transaction with request request (FC={}): {} [operation ID {}]",
                     request.getFunctionCode(), libRequest.getHexMessage(), operationId);
             // Might throw ModbusIOException (I/O error) or ModbusSlaveException (explicit exception response from
             // slave)
-            timer.transaction.timeRunnableWithModbusException(() -> transaction.execute());
-            ModbusResponse response = transaction.getResponse();
+            ModbusResponse response = executor.execute(libRequest);
             logger.trace("Response for read request (FC={}, transaction ID={}): {} [operation ID {}]",
                     response.getFunctionCode(), response.getTransactionID(), response.getHexMessage(), operationId);
             checkTransactionId(response, libRequest, operationId);
@@ -225,26 +244,22 @@ public class ModbusManagerImpl implements ModbusManager {
      */
     private class WriteOperation implements ModbusOperation<WriteTask> {
         @Override
-        public void accept(AggregateStopWatch timer, WriteTask task, ModbusSlaveConnection connection)
-                throws ModbusException, ModbusUnexpectedTransactionIdException,
+        public void accept(AggregateStopWatch timer, WriteTask task, ModbusRequestExecutor executor)
+                throws ModbusException, IOException, ModbusUnexpectedTransactionIdException,
                 ModbusUnexpectedResponseFunctionCodeException {
-            ModbusSlaveEndpoint endpoint = task.getEndpoint();
             ModbusWriteRequestBlueprint request = task.getRequest();
             @Nullable
             ModbusWriteCallback callback = task.getResultCallback();
             String operationId = timer.operationId;
 
-            ModbusTransaction transaction = ModbusLibraryWrapper.createTransactionForEndpoint(endpoint, connection);
             ModbusRequest libRequest = ModbusLibraryWrapper.createRequest(request);
-            transaction.setRequest(libRequest);
 
             logger.trace("Going execute transaction with read request (FC={}): {} [operation ID {}]",
                     request.getFunctionCode(), libRequest.getHexMessage(), operationId);
 
             // Might throw ModbusIOException (I/O error) or ModbusSlaveException (explicit exception response from
             // slave)
-            timer.transaction.timeRunnableWithModbusException(() -> transaction.execute());
-            ModbusResponse response = transaction.getResponse();
+            ModbusResponse response = executor.execute(libRequest);
             logger.trace("Response for write request (FC={}, transaction ID={}): {} [operation ID {}]",
                     response.getFunctionCode(), response.getTransactionID(), response.getHexMessage(), operationId);
             checkTransactionId(response, libRequest, operationId);
@@ -312,6 +327,10 @@ public class ModbusManagerImpl implements ModbusManager {
     private volatile @Nullable KeyedObjectPool<ModbusSlaveEndpoint, ModbusSlaveConnection> connectionPool;
     private volatile @Nullable ModbusSlaveConnectionFactoryImpl connectionFactory;
     private volatile Map<PollTask, ScheduledFuture<?>> scheduledPollTasks = new ConcurrentHashMap<>();
+    private volatile Map<ModbusSlaveEndpoint, PollCoalescer> pollCoalescers = new ConcurrentHashMap<>();
+    private volatile Map<ModbusSlaveEndpoint, PipelinedConnectionEntry> pipelinedConnections = new ConcurrentHashMap<>();
+    private final Map<ModbusSlaveEndpoint, ModbusEndpointMetrics> endpointMetrics = new ConcurrentHashMap<>();
+    private volatile Map<ModbusSlaveEndpoint, EndpointScheduler> endpointSchedulers = new ConcurrentHashMap<>();
     /**
      * Executor for requests
      */
@@ -472,12 +491,52 @@ public class ModbusManagerImpl implements ModbusManager {
             logger.warn("Could not connect to endpoint {} -- aborting request {} [operation ID {}]", endpoint, request,
                     operationId);
             timer.callback.timeRunnable(
-                    () -> invokeCallbackWithError(request, failureCallback, new ModbusConnectionException(endpoint)));
+                    () -> invokeCallbackWithError(endpoint, request, failureCallback,
+                            new ModbusConnectionException(endpoint)));
         }
         return connection;
     }
 
-    private <R> void invokeCallbackWithError(R request, ModbusFailureCallback<R> callback, Exception error) {
+    /**
+     * Create executor sending the requests using a transaction over the given (pooled) connection
+     *
+     * @param timer aggregate stop watch for performance profiling
+     * @param endpoint endpoint of the connection
+     * @param connection connection to use
+     * @return executor using the connection
+     */
+    private ModbusRequestExecutor createTransactionExecutor(AggregateStopWatch timer, ModbusSlaveEndpoint endpoint,
+            ModbusSlaveConnection connection) {
+        return libRequest -> {
+            ModbusTransaction transaction = ModbusLibraryWrapper.createTransactionForEndpoint(endpoint, connection);
+            transaction.setRequest(libRequest);
+            timer.transaction.timeRunnableWithModbusException(() -> transaction.execute());
+            return transaction.getResponse();
+        };
+    }
+
+    /**
+     * Create executor sending the requests over the pipelined connection
+     *
+     * @param timer aggregate stop watch for performance profiling
+     * @param connection pipelined connection to use
+     * @return executor using the pipelined connection
+     */
+    private ModbusRequestExecutor createPipelinedExecutor(AggregateStopWatch timer,
+            ModbusTCPPipelinedConnection connection) {
+        return libRequest -> {
+            timer.transaction.resume();
+            try {
+                return connection.execute(libRequest);
+            } finally {
+                timer.transaction.suspend();
+            }
+        };
+    }
+
+    private <R> void invokeCallbackWithError(ModbusSlaveEndpoint endpoint, R request, ModbusFailureCallback<R> callback,
+            Exception error) {
+        getMetrics(endpoint).recordError(error);
         try {
             logger.trace("Calling error response callback {} for request {}. Error was {} {}", callback, request,
                     error.getClass().getName(), error.getMessage());
@@ -500,6 +559,21 @@ public class ModbusManagerImpl implements ModbusManager {
         }
     }
 
+    private ModbusEndpointMetrics getMetrics(ModbusSlaveEndpoint endpoint) {
+        return endpointMetrics.computeIfAbsent(endpoint, key -> new ModbusEndpointMetrics(() -> {
+            KeyedObjectPool<ModbusSlaveEndpoint, ModbusSlaveConnection> pool = connectionPool;
+            return pool == null ? 0 : pool.getNumIdle(key);
+        }, () -> {
+            KeyedObjectPool<ModbusSlaveEndpoint, ModbusSlaveConnection> pool = connectionPool;
+            return pool == null ? 0 : pool.getNumActive(key);
+        }));
+    }
+
+    private void recordTimings(ModbusSlaveEndpoint endpoint, AggregateStopWatch timer) {
+        getMetrics(endpoint).recordOperation(timer.connection.getTotalTimeMillis(),
+                timer.transaction.getTotalTimeMillis(), timer.callback.getTotalTimeMillis());
+    }
+
     private void verifyTaskIsRegistered(PollTask task) throws PollTaskUnregistered {
         if (!this.scheduledPollTasks.containsKey(task)) {
             String msg = String.format("Poll task %s is unregistered", task);
@@ -549,6 +623,12 @@ public class ModbusManagerImpl implements ModbusManager {
             throw new IllegalArgumentException("maxTries should be positive");
         }
 
+        Optional<ModbusTCPPipelinedConnection> pipelinedConnection = getPipelinedConnection(endpoint);
+        if (pipelinedConnection.isPresent()) {
+            executePipelinedOperation(timer, task, oneOffTask, operation, pipelinedConnection.get(), retryDelay);
+            return;
+        }
+
         Optional<ModbusSlaveConnection> connection = Optional.empty();
         try {
             logger.trace("Starting new operation with task {}. Trying to get connection [operation ID {}]", task,
@@ -605,7 +685,7 @@ public class ModbusManagerImpl implements ModbusManager {
                 try {
                     tryIndex++;
                     willRetry = tryIndex < maxTries;
-                    operation.accept(timer, task, connection.get());
+                    operation.accept(timer, task, createTransactionExecutor(timer, endpoint, connection.get()));
                     lastError.set(null);
                     break;
                 } catch (IOException e) {
@@ -701,7 +781,7 @@ public class ModbusManagerImpl implements ModbusManager {
             if (exception != null) {
                 // All retries failed with some error
                 timer.callback.timeRunnable(() -> {
-                    invokeCallbackWithError(request, failureCallback, exception);
+                    invokeCallbackWithError(endpoint, request, failureCallback, exception);
                 });
             }
         } catch (PollTaskUnregistered e) {
@@ -718,6 +798,273 @@ public class ModbusManagerImpl implements ModbusManager {
             timer.connection.timeConsumer(c -> returnConnection(endpoint, c), connection);
             logger.trace("Connection was returned to the pool, ending operation [operation ID {}]", operationId);
             timer.suspendAllRunning();
+            recordTimings(endpoint, timer);
+            logger.debug("Modbus operation ended, timing info: {} [operation ID {}]", timer, operationId);
+        }
+    }
+
+    /**
+     * Coalesces regular polls of a single endpoint
+     *
+     * Poll tasks becoming due are collected for the duration of the coalescing window. After the window, the collected
+     * requests are merged using {@link ModbusReadRequestPlanner} and executed with as few transactions as possible.
+     *
+     * A poll task that becomes due again before the previous execution has been flushed is executed only once.
+     *
+     * @author Markus Lindqvist - Initial contribution
+     *
+     */
+    private class PollCoalescer {
+        private final ModbusSlaveEndpoint endpoint;
+        private final Set<PollTask> pendingTasks = new LinkedHashSet<>();
+        private @Nullable ScheduledFuture<?> flushFuture;
+
+        public PollCoalescer(ModbusSlaveEndpoint endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        public synchronized void enqueue(PollTask task, long windowMillis) {
+            pendingTasks.add(task);
+            if (flushFuture != null) {
+                return;
+            }
+            ScheduledExecutorService executor = scheduledThreadPoolExecutor;
+            if (executor == null) {
+                // manager deactivated
+                pendingTasks.clear();
+                return;
+            }
+            flushFuture = executor.schedule(this::flush, windowMillis, TimeUnit.MILLISECONDS);
+        }
+
+        private void flush() {
+            List<PollTask> tasks;
+            synchronized (this) {
+                tasks = new ArrayList<>(pendingTasks);
+                pendingTasks.clear();
+                flushFuture = null;
+            }
+            // Poll tasks might have been unregistered while waiting
+            tasks.removeIf(task -> !scheduledPollTasks.containsKey(task));
+            if (tasks.isEmpty()) {
+                return;
+            }
+            List<MergedReadRequest> mergedRequests = ModbusReadRequestPlanner.plan(tasks, getMaxGap());
+            logger.debug("Coalesced {} poll tasks of endpoint {} into {} requests", tasks.size(), endpoint,
+                    mergedRequests.size());
+            boolean adaptiveScheduling = isAdaptivePollScheduling(endpoint);
+            for (MergedReadRequest merged : mergedRequests) {
+                PollTask mergedTask = merged.toPollTask(endpoint);
+                if (adaptiveScheduling) {
+                    // New task is created on every flush, merged request identifies the poll
+                    getScheduler(endpoint).submitPoll(merged.getRequest(),
+                            () -> executeOperation(mergedTask, true, pollOperation));
+                    continue;
+                }
+                try {
+                    // Merged task is not registered, and thus executed like an one-off task
+                    executeOperation(mergedTask, true, pollOperation);
+                } catch (RuntimeException e) {
+                    logger.warn("Execution of coalesced poll task {} failed unexpectedly. Ignoring exception.",
+                            mergedTask, e);
+                }
+            }
+        }
+
+        private int getMaxGap() {
+            ModbusSlaveConnectionFactoryImpl localConnectionFactory = connectionFactory;
+            if (localConnectionFactory == null) {
+                return 0;
+            }
+            return Optional.ofNullable(localConnectionFactory.getEndpointPoolConfiguration(endpoint))
+                    .map(cfg -> cfg.getPollCoalescingMaxGap()).orElse(0);
+        }
+    }
+
+    private EndpointScheduler getScheduler(ModbusSlaveEndpoint endpoint) {
+        return endpointSchedulers.computeIfAbsent(endpoint, key -> new EndpointScheduler(key,
+                () -> scheduledThreadPoolExecutor, () -> getMetrics(key).recordCoalescedPoll()));
+    }
+
+    /**
+     * Tells whether adaptive poll scheduling is enabled for the endpoint
+     *
+     * @param endpoint endpoint to query
+     * @return whether operations of the endpoint should be executed using {@link EndpointScheduler}
+     */
+    private boolean isAdaptivePollScheduling(ModbusSlaveEndpoint endpoint) {
+        ModbusSlaveConnectionFactoryImpl localConnectionFactory = connectionFactory;
+        if (localConnectionFactory == null) {
+            return false;
+        }
+        return Optional.ofNullable(localConnectionFactory.getEndpointPoolConfiguration(endpoint))
+                .map(cfg -> cfg.isAdaptivePollScheduling()).orElse(false);
+    }
+
+    /**
+     * Get the poll coalescing window of the endpoint
+     *
+     * @param endpoint endpoint to query
+     * @return coalescing window in milliseconds, or zero if polls of the endpoint are not coalesced
+     */
+    private long getPollCoalescingWindowMillis(ModbusSlaveEndpoint endpoint) {
+        ModbusSlaveConnectionFactoryImpl localConnectionFactory = connectionFactory;
+        if (localConnectionFactory == null) {
+            return 0;
+        }
+        return Optional.ofNullable(localConnectionFactory.getEndpointPoolConfiguration(endpoint))
+                .map(cfg -> cfg.getPollCoalescingWindowMillis()).orElse(0L);
+    }
+
+    /**
+     * Get pipelined connection of the endpoint
+     *
+     * @param endpoint endpoint of the connection
+     * @return pipelined connection, or empty {@link Optional} when pipelining is not enabled for the endpoint
+     */
+    private Optional<ModbusTCPPipelinedConnection> getPipelinedConnection(ModbusSlaveEndpoint endpoint) {
+        ModbusSlaveConnectionFactoryImpl localConnectionFactory = connectionFactory;
+        if (localConnectionFactory == null || !(endpoint instanceof ModbusTCPSlaveEndpoint)) {
+            return Optional.empty();
+        }
+        EndpointPoolConfiguration configuration = localConnectionFactory.getEndpointPoolConfiguration(endpoint);
+        if (configuration == null || configuration.getMaxPipelinedTransactions() <= 1) {
+            closePipelinedConnection(endpoint);
+            return Optional.empty();
+        }
+        int maxTransactions = configuration.getMaxPipelinedTransactions();
+        int connectTimeoutMillis = configuration.getConnectTimeoutMillis();
+        PipelinedConnectionEntry entry = pipelinedConnections.get(endpoint);
+        if (entry == null || !entry.hasConfiguration(maxTransactions, connectTimeoutMillis)) {
+            entry = pipelinedConnections.compute(endpoint, (key, existing) -> {
+                if (existing != null && existing.hasConfiguration(maxTransactions, connectTimeoutMillis)) {
+                    return existing;
+                }
+                if (existing != null) {
+                    logger.debug("Configuration of endpoint {} changed, replacing pipelined connection", key);
+                    existing.connection.close();
+                }
+                return new PipelinedConnectionEntry(maxTransactions, connectTimeoutMillis,
+                        new ModbusTCPPipelinedConnection((ModbusTCPSlaveEndpoint) key, maxTransactions,
+                                connectTimeoutMillis, Modbus.DEFAULT_TIMEOUT));
+            });
+        }
+        return Optional.of(entry.connection);
+    }
+
+    private void closePipelinedConnection(ModbusSlaveEndpoint endpoint) {
+        PipelinedConnectionEntry entry = pipelinedConnections.remove(endpoint);
+        if (entry != null) {
+            entry.connection.close();
+        }
+    }
+
+    /**
+     * Pipelined connection with the configuration it was created with
+     *
+     * @author Markus Lindqvist - Initial contribution
+     *
+     */
+    private static class PipelinedConnectionEntry {
+        private final int maxTransactions;
+        private final int connectTimeoutMillis;
+        private final ModbusTCPPipelinedConnection connection;
+
+        public PipelinedConnectionEntry(int maxTransactions, int connectTimeoutMillis,
+                ModbusTCPPipelinedConnection connection) {
+            this.maxTransactions = maxTransactions;
+            this.connectTimeoutMillis = connectTimeoutMillis;
+            this.connection = connection;
+        }
+
+        public boolean hasConfiguration(int maxTransactions, int connectTimeoutMillis) {
+            return this.maxTransactions == maxTransactions && this.connectTimeoutMillis == connectTimeoutMillis;
+        }
+    }
+
+    /**
+     * Execute operation over pipelined connection using a retry mechanism.
+     *
+     * Unlike with pooled connections, the operation does not wait for the other operations with the same endpoint to
+     * finish. In case of I/O errors the pipelined connection is reset.
+     *
+     * @param timer aggregate stop watch for performance profiling
+     * @param task task to execute
+     * @param oneOffTask whether this is one-off, or execution of previously scheduled poll
+     * @param operation operation to execute
+     * @param connection pipelined connection to use
+     * @param retryDelay minimum delay between the tries, in milliseconds
+     */
+    private <R, C extends ModbusResultCallback, F extends ModbusFailureCallback<R>, T extends TaskWithEndpoint<R, C, F>> void executePipelinedOperation(
+            AggregateStopWatch timer, T task, boolean oneOffTask, ModbusOperation<T> operation,
+            ModbusTCPPipelinedConnection connection, long retryDelay) {
+        String operationId = timer.operationId;
+        R request = task.getRequest();
+        int maxTries = task.getMaxTries();
+        @Nullable
+        Exception lastError = null;
+        @Nullable
+        Long lastTryMillis = null;
+        try {
+            for (int tryIndex = 1; tryIndex <= maxTries; tryIndex++) {
+                if (scheduledThreadPoolExecutor == null) {
+                    logger.debug("Manager has been shut down, aborting proecssing request {} [operation ID {}]",
+                            request, operationId);
+                    return;
+                }
+                // Check poll task is still registered (this is all asynchronous)
+                if (!oneOffTask && task instanceof PollTask) {
+                    verifyTaskIsRegistered((PollTask) task);
+                }
+                ModbusSlaveConnectionFactoryImpl.waitAtleast(lastTryMillis, retryDelay);
+                // Connection is replaced if the endpoint was reconfigured in the meanwhile
+                connection = getPipelinedConnection(task.getEndpoint()).orElse(connection);
+                try {
+                    operation.accept(timer, task, createPipelinedExecutor(timer, connection));
+                    lastError = null;
+                    break;
+                } catch (InterruptedIOException e) {
+                    logger.warn("Thread interrupted. Aborting operation [operation ID {}]", operationId);
+                    return;
+                } catch (IOException e) {
+                    // The pipelined connection has already disconnected itself, and failed the other ongoing
+                    // transactions. New connection is established on next try.
+                    lastError = new ModbusSlaveIOExceptionImpl(e);
+                } catch (ModbusIOException e) {
+                    lastError = new ModbusSlaveIOExceptionImpl(e);
+                } catch (ModbusSlaveException e) {
+                    lastError = new ModbusSlaveErrorResponseExceptionImpl(e);
+                } catch (ModbusUnexpectedTransactionIdException | ModbusUnexpectedResponseFunctionCodeException
+                        | ModbusUnexpectedResponseSizeException e) {
+                    lastError = e;
+                } catch (ModbusException e) {
+                    lastError = e;
+                } finally {
+                    lastTryMillis = System.currentTimeMillis();
+                }
+                Exception error = lastError;
+                if (error != null) {
+                    logger.warn(
+                            "Try {} out of {} failed when executing request ({}) over pipelined connection. Error details: {} {} [operation ID {}]",
+                            tryIndex, maxTries, request, error.getClass().getName(), error.getMessage(), operationId);
+                }
+            }
+            Exception exception = lastError;
+            if (exception != null) {
+                // All retries failed with some error
+                timer.callback.timeRunnable(() -> {
+                    invokeCallbackWithError(task.getEndpoint(), request, task.getFailureCallback(), exception);
+                });
+            }
+        } catch (PollTaskUnregistered e) {
+            logger.warn("Poll task was unregistered -- not executing/proceeding with the poll: {} [operation ID {}]",
+                    e.getMessage(), operationId);
+        } catch (InterruptedException e) {
+            logger.warn("Poll task was canceled -- not executing/proceeding with the poll: {} [operation ID {}]",
+                    e.getMessage(), operationId);
+        } finally {
+            timer.suspendAllRunning();
+            recordTimings(task.getEndpoint(), timer);
             logger.debug("Modbus operation ended, timing info: {} [operation ID {}]", timer, operationId);
         }
     }
@@ -752,6 +1099,7 @@ public class ModbusManagerImpl implements ModbusManager {
                 long millisInThreadPoolWaiting = System.currentTimeMillis() - scheduleTime;
                 logger.debug("Will now execute one-off poll task {}, waited in thread pool for {}", task,
                         millisInThreadPoolWaiting);
+                getMetrics(endpoint).getQueueWait().record(millisInThreadPoolWaiting);
                 executeOperation(task, true, pollOperation);
             });
             return future;
@@ -774,12 +1122,30 @@ public class ModbusManagerImpl implements ModbusManager {
                     logger.trace("Unregistering previous poll task (possibly with different period)");
                     unregisterRegularPoll(task);
                 }
+                // Time when the next execution should start, used for measuring time waiting in the thread pool
+                AtomicLong nextExecutionMillis = new AtomicLong(System.currentTimeMillis() + initialDelayMillis);
                 ScheduledFuture<?> future = executor.scheduleWithFixedDelay(() -> {
                     long started = System.currentTimeMillis();
                     logger.debug("Executing scheduled ({}ms) poll task {}. Current millis: {}", pollPeriodMillis, task,
                             started);
+                    ModbusEndpointMetrics metrics = getMetrics(endpoint);
+                    metrics.getQueueWait().record(started - nextExecutionMillis.get());
                     try {
-                        executeOperation(task, false, pollOperation);
+                        long coalescingWindowMillis = getPollCoalescingWindowMillis(endpoint);
+                        if (coalescingWindowMillis > 0) {
+                            pollCoalescers.computeIfAbsent(endpoint, PollCoalescer::new).enqueue(task,
+                                    coalescingWindowMillis);
+                        } else if (isAdaptivePollScheduling(endpoint)) {
+                            getScheduler(endpoint).submitPoll(task, () -> {
+                                executeOperation(task, false, pollOperation);
+                                // Poll is executed later from the queue, measure from the time it became due
+                                if (System.currentTimeMillis() - started > pollPeriodMillis) {
+                                    metrics.recordPollOverrun();
+                                }
+                            });
+                        } else {
+                            executeOperation(task, false, pollOperation);
+                        }
                     } catch (RuntimeException e) {
                         // We want to catch all unexpected exceptions since all unhandled exceptions make
                         // ScheduledExecutorService halt the polling. It is better to print out the exception, and try
@@ -790,6 +1156,10 @@ public class ModbusManagerImpl implements ModbusManager {
                                 pollPeriodMillis, task, e);
                     }
                     long finished = System.currentTimeMillis();
+                    nextExecutionMillis.set(finished + pollPeriodMillis);
+                    if (finished - started > pollPeriodMillis) {
+                        metrics.recordPollOverrun();
+                    }
                     logger.debug(
                             "Execution of scheduled ({}ms) poll task {} finished at {}. Was started at millis: {} (=duration of {} millis)",
                             pollPeriodMillis, task, finished, started, finished - started);
@@ -841,12 +1211,20 @@ public class ModbusManagerImpl implements ModbusManager {
             WriteTask task = new BasicWriteTask(endpoint, request, resultCallback, failureCallback);
             long scheduleTime = System.currentTimeMillis();
             logger.debug("Scheduling one-off write task {}", task);
-            Future<?> future = localScheduledThreadPoolExecutor.submit(() -> {
+            Runnable write = () -> {
                 long millisInThreadPoolWaiting = System.currentTimeMillis() - scheduleTime;
                 logger.debug("Will now execute one-off write task {}, waited in thread pool for {}", task,
                         millisInThreadPoolWaiting);
+                getMetrics(endpoint).getQueueWait().record(millisInThreadPoolWaiting);
                 executeOperation(task, true, writeOperation);
-            });
+            };
+            if (isAdaptivePollScheduling(endpoint)) {
+                // Writes are executed before any queued polls of the endpoint
+                FutureTask<?> future = new FutureTask<>(write, null);
+                getScheduler(endpoint).submitWrite(future);
+                return future;
+            }
+            Future<?> future = localScheduledThreadPoolExecutor.submit(write);
             return future;
         }
 
@@ -897,6 +1275,11 @@ public class ModbusManagerImpl implements ModbusManager {
         return connectionFactory.getEndpointPoolConfiguration(endpoint);
     }
 
+    @Override
+    public Map<ModbusSlaveEndpoint, ModbusEndpointMetrics> getEndpointMetrics() {
+        return Collections.unmodifiableMap(endpointMetrics);
+    }
+
     private void unregisterCommunicationInterface(ModbusCommunicationInterface commInterface) {
         communicationInterfaces.remove(commInterface);
         maybeCloseConnections(commInterface.getEndpoint());
@@ -908,6 +1291,13 @@ public class ModbusManagerImpl implements ModbusManager {
         if (lastCommWithThisEndpointWasRemoved) {
             // Since last communication interface pointing to this endpoint was closed, we can clean up resources
             // and disconnect connections.
+            pollCoalescers.remove(endpoint);
+            endpointMetrics.remove(endpoint);
+            EndpointScheduler scheduler = endpointSchedulers.remove(endpoint);
+            if (scheduler != null) {
+                scheduler.cancelAll();
+            }
+            closePipelinedConnection(endpoint);
 
             // Make sure connections to this endpoint are closed when they are returned to pool (which
             // is usually pretty soon as transactions should be relatively short-lived)
@@ -973,6 +1363,12 @@ public class ModbusManagerImpl implements ModbusManager {
             // when pool is received from ThreadPoolManager is called
             scheduledThreadPoolExecutor = null;
             connectionFactory = null;
+            pollCoalescers.clear();
+            endpointSchedulers.values().forEach(EndpointScheduler::cancelAll);
+            endpointSchedulers.clear();
+            endpointMetrics.clear();
+            pipelinedConnections.values().forEach(entry -> entry.connection.close());
+            pipelinedConnections.clear();
             logger.debug("Modbus manager deactivated");
         }
     }
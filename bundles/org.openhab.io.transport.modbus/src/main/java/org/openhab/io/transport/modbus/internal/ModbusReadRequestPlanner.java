@@ -0,0 +1,233 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.io.transport.modbus.AsyncModbusFailure;
+import org.openhab.io.transport.modbus.AsyncModbusReadResult;
+import org.openhab.io.transport.modbus.BitArray;
+import org.openhab.io.transport.modbus.ModbusConstants;
+import org.openhab.io.transport.modbus.ModbusReadFunctionCode;
+import org.openhab.io.transport.modbus.ModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.ModbusRegister;
+import org.openhab.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.io.transport.modbus.PollTask;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Planner merging read requests of several poll tasks into as few read requests as possible.
+ *
+ * Requests can be merged when they have the same slave id and function code, and the resulting request does not
+ * exceed the maximum read count allowed by the protocol (see {@link ModbusConstants}). Requests that are not
+ * overlapping or adjacent are merged only if the amount of unrequested data in between does not exceed the given gap.
+ *
+ * The data read with merged request is sliced back to the original requests with
+ * {@link MergedReadRequest#handleResult(AsyncModbusReadResult)}.
+ *
+ * @author Markus Lindqvist - Initial contribution
+ */
+@NonNullByDefault
+public class ModbusReadRequestPlanner {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ModbusReadRequestPlanner.class);
+
+    private static final Comparator<PollTask> REQUEST_ORDER = Comparator
+            .<PollTask> comparingInt(task -> task.getRequest().getUnitID())
+            .thenComparing(task -> task.getRequest().getFunctionCode())
+            .thenComparingInt(task -> task.getRequest().getReference())
+            .thenComparingInt(task -> task.getRequest().getDataLength());
+
+    /**
+     * Read request covering the requests of one or more poll tasks
+     *
+     * @author Markus Lindqvist - Initial contribution
+     */
+    public static class MergedReadRequest {
+        private final ModbusReadRequestBlueprint request;
+        private final List<PollTask> tasks;
+
+        private MergedReadRequest(ModbusReadRequestBlueprint request, List<PollTask> tasks) {
+            this.request = request;
+            this.tasks = tasks;
+        }
+
+        /**
+         * Get the merged request to send to the slave
+         *
+         * @return merged read request
+         */
+        public ModbusReadRequestBlueprint getRequest() {
+            return request;
+        }
+
+        /**
+         * Get the poll tasks covered by the merged request
+         *
+         * @return poll tasks, sorted by start address
+         */
+        public List<PollTask> getTasks() {
+            return Collections.unmodifiableList(tasks);
+        }
+
+        /**
+         * Construct poll task executing the merged request and distributing the results to the original poll tasks
+         *
+         * @param endpoint endpoint of the poll tasks
+         * @return poll task for the merged request
+         */
+        public PollTask toPollTask(ModbusSlaveEndpoint endpoint) {
+            return new BasicPollTask(endpoint, request, this::handleResult, this::handleFailure);
+        }
+
+        /**
+         * Slice the result of merged request and call result callbacks of the original poll tasks
+         *
+         * @param result result of the merged read request
+         */
+        public void handleResult(AsyncModbusReadResult result) {
+            for (PollTask task : tasks) {
+                ModbusReadRequestBlueprint taskRequest = task.getRequest();
+                int offset = taskRequest.getReference() - request.getReference();
+                final AsyncModbusReadResult taskResult;
+                if (result.getRegisters().isPresent()) {
+                    taskResult = new AsyncModbusReadResult(taskRequest,
+                            sliceRegisters(result.getRegisters().get(), offset, taskRequest.getDataLength()));
+                } else if (result.getBits().isPresent()) {
+                    taskResult = new AsyncModbusReadResult(taskRequest,
+                            sliceBits(result.getBits().get(), offset, taskRequest.getDataLength()));
+                } else {
+                    continue;
+                }
+                try {
+                    task.getResultCallback().handle(taskResult);
+                } catch (RuntimeException e) {
+                    LOGGER.warn("Result callback of poll task {} failed unexpectedly", task, e);
+                }
+            }
+        }
+
+        /**
+         * Call failure callbacks of the original poll tasks
+         *
+         * @param failure failure of the merged read request
+         */
+        public void handleFailure(AsyncModbusFailure<ModbusReadRequestBlueprint> failure) {
+            for (PollTask task : tasks) {
+                try {
+                    task.getFailureCallback().handle(new AsyncModbusFailure<>(task.getRequest(), failure.getCause()));
+                } catch (RuntimeException e) {
+                    LOGGER.warn("Failure callback of poll task {} failed unexpectedly", task, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Maximum number of items that can be read with single request using the given function code
+     *
+     * @param functionCode read function code
+     * @return maximum number of bits or registers
+     */
+    public static int getMaxReadCount(ModbusReadFunctionCode functionCode) {
+        switch (functionCode) {
+            case READ_COILS:
+            case READ_INPUT_DISCRETES:
+                return ModbusConstants.MAX_BITS_READ_COUNT;
+            default:
+                return ModbusConstants.MAX_REGISTERS_READ_COUNT;
+        }
+    }
+
+    /**
+     * Merge requests of the poll tasks
+     *
+     * @param tasks poll tasks to merge
+     * @param maxGap maximum number of unrequested items between two requests that are merged together
+     * @return merged requests, covering all the given poll tasks
+     */
+    public static List<MergedReadRequest> plan(Collection<PollTask> tasks, int maxGap) {
+        List<PollTask> sorted = new ArrayList<>(tasks);
+        sorted.sort(REQUEST_ORDER);
+
+        List<MergedReadRequest> merged = new ArrayList<>();
+        List<PollTask> group = new ArrayList<>();
+        int groupStart = 0;
+        int groupEnd = 0;
+        for (PollTask task : sorted) {
+            ModbusReadRequestBlueprint request = task.getRequest();
+            int start = request.getReference();
+            int end = start + request.getDataLength();
+            if (!group.isEmpty()) {
+                ModbusReadRequestBlueprint first = group.get(0).getRequest();
+                boolean compatible = first.getUnitID() == request.getUnitID()
+                        && first.getFunctionCode() == request.getFunctionCode();
+                boolean closeEnough = start - groupEnd <= Math.max(0, maxGap);
+                boolean fits = Math.max(groupEnd, end) - groupStart <= getMaxReadCount(request.getFunctionCode());
+                if (compatible && closeEnough && fits) {
+                    group.add(task);
+                    groupEnd = Math.max(groupEnd, end);
+                    continue;
+                }
+                merged.add(createMergedRequest(group, groupStart, groupEnd));
+                group = new ArrayList<>();
+            }
+            group.add(task);
+            groupStart = start;
+            groupEnd = end;
+        }
+        if (!group.isEmpty()) {
+            merged.add(createMergedRequest(group, groupStart, groupEnd));
+        }
+        return merged;
+    }
+
+    private static MergedReadRequest createMergedRequest(List<PollTask> group, int start, int end) {
+        ModbusReadRequestBlueprint first = group.get(0).getRequest();
+        if (group.size() == 1) {
+            return new MergedReadRequest(first, group);
+        }
+        int maxTries = group.stream().mapToInt(task -> task.getRequest().getMaxTries()).max().orElse(1);
+        return new MergedReadRequest(new ModbusReadRequestBlueprint(first.getUnitID(), first.getFunctionCode(), start,
+                end - start, maxTries), group);
+    }
+
+    private static ModbusRegisterArray sliceRegisters(ModbusRegisterArray registers, int offset, int length) {
+        if (offset == 0 && length == registers.size()) {
+            return registers;
+        }
+        ModbusRegister[] slice = new ModbusRegister[length];
+        for (int i = 0; i < length; i++) {
+            slice[i] = registers.getRegister(offset + i);
+        }
+        return new ModbusRegisterArray(slice);
+    }
+
+    private static BitArray sliceBits(BitArray bits, int offset, int length) {
+        if (offset == 0 && length == bits.size()) {
+            return bits;
+        }
+        BitArray slice = new BitArray(length);
+        for (int i = 0; i < length; i++) {
+            slice.setBit(i, bits.getBit(offset + i));
+        }
+        return slice;
+    }
+}
@@ -0,0 +1,270 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.io.transport.modbus.endpoint.ModbusTCPSlaveEndpoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.wimpi.modbus.ModbusException;
+import net.wimpi.modbus.ModbusIOException;
+import net.wimpi.modbus.ModbusSlaveException;
+import net.wimpi.modbus.msg.ExceptionResponse;
+import net.wimpi.modbus.msg.ModbusRequest;
+import net.wimpi.modbus.msg.ModbusResponse;
+
+/**
+ * Modbus TCP connection allowing several outstanding transactions.
+ *
+ * Requests are written to the socket as they are submitted, up to the configured number of transactions in flight.
+ * A dedicated reader thread reads the responses and matches them to the waiting requests using the transaction
+ * identifier of the MBAP header. This way the responses can arrive in any order.
+ *
+ * On I/O errors the socket is closed and all the outstanding transactions fail. New connection is established on
+ * next request.
+ *
+ * @author Markus Lindqvist - Initial contribution
+ */
+@NonNullByDefault
+public class ModbusTCPPipelinedConnection implements AutoCloseable {
+
+    private static final int MBAP_HEADER_LENGTH = 6;
+    /**
+     * Maximum length of Modbus TCP ADU, not including the first six bytes of MBAP header
+     */
+    private static final int MAX_ADU_REMAINING_LENGTH = 254;
+
+    private final Logger logger = LoggerFactory.getLogger(ModbusTCPPipelinedConnection.class);
+
+    private final ModbusTCPSlaveEndpoint endpoint;
+    private final int connectTimeoutMillis;
+    private final long responseTimeoutMillis;
+    private final Semaphore transactionSlots;
+    private final Map<Integer, CompletableFuture<ModbusResponse>> outstanding = new ConcurrentHashMap<>();
+
+    private int lastTransactionId;
+    private @Nullable Socket socket;
+    private @Nullable DataOutputStream output;
+
+    /**
+     * Constructor
+     *
+     * @param endpoint endpoint to connect to
+     * @param maxTransactions maximum number of transactions in flight
+     * @param connectTimeoutMillis connect timeout in milliseconds, zero for system default
+     * @param responseTimeoutMillis how long to wait for response, in milliseconds
+     */
+    public ModbusTCPPipelinedConnection(ModbusTCPSlaveEndpoint endpoint, int maxTransactions, int connectTimeoutMillis,
+            long responseTimeoutMillis) {
+        if (maxTransactions <= 0) {
+            throw new IllegalArgumentException("maxTransactions should be positive");
+        }
+        this.endpoint = endpoint;
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        this.responseTimeoutMillis = responseTimeoutMillis;
+        this.transactionSlots = new Semaphore(maxTransactions, true);
+    }
+
+    /**
+     * Send request and wait for the matching response
+     *
+     * Transaction identifier of the request is overwritten.
+     *
+     * @param request request to send
+     * @return response matching the request
+     * @throws IOException on connection errors. Also all other outstanding transactions fail.
+     * @throws ModbusIOException when response is not received in time
+     * @throws ModbusSlaveException when slave responds with exception response
+     */
+    public ModbusResponse execute(ModbusRequest request) throws IOException, ModbusException {
+        try {
+            if (!transactionSlots.tryAcquire(responseTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new ModbusIOException("Timeout waiting for free transaction slot");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for free transaction slot");
+        }
+        try {
+            CompletableFuture<ModbusResponse> future = new CompletableFuture<>();
+            int transactionId = send(request, future);
+            ModbusResponse response;
+            try {
+                response = future.get(responseTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                throw new ModbusIOException(String.format("No response for transaction %d in %d ms", transactionId,
+                        responseTimeoutMillis));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for response");
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                }
+                throw new IOException(cause);
+            } finally {
+                outstanding.remove(transactionId);
+            }
+            if (response instanceof ExceptionResponse) {
+                throw new ModbusSlaveException(((ExceptionResponse) response).getExceptionCode());
+            }
+            return response;
+        } finally {
+            transactionSlots.release();
+        }
+    }
+
+    /**
+     * Get number of transactions waiting for response
+     *
+     * @return number of outstanding transactions
+     */
+    public int getOutstandingTransactions() {
+        return outstanding.size();
+    }
+
+    private synchronized int send(ModbusRequest request, CompletableFuture<ModbusResponse> future)
+            throws IOException {
+        DataOutputStream output = connect();
+        int transactionId;
+        do {
+            // Skip identifiers that are still waiting for response (e.g. late responses)
+            lastTransactionId = (lastTransactionId + 1) & 0xFFFF;
+            transactionId = lastTransactionId;
+        } while (outstanding.containsKey(transactionId));
+        request.setHeadless(false);
+        request.setTransactionID(transactionId);
+        outstanding.put(transactionId, future);
+        try {
+            request.writeTo(output);
+            output.flush();
+        } catch (IOException e) {
+            disconnect(e);
+            throw e;
+        }
+        logger.trace("Sent request with transaction ID {} to {}: {}", transactionId, endpoint,
+                request.getHexMessage());
+        return transactionId;
+    }
+
+    private synchronized DataOutputStream connect() throws IOException {
+        DataOutputStream output = this.output;
+        if (output != null) {
+            return output;
+        }
+        Socket socket = new Socket();
+        try {
+            socket.setTcpNoDelay(true);
+            socket.connect(new InetSocketAddress(endpoint.getAddress(), endpoint.getPort()), connectTimeoutMillis);
+        } catch (IOException e) {
+            socket.close();
+            throw e;
+        }
+        DataInputStream input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        this.socket = socket;
+        this.output = output;
+        Thread reader = new Thread(() -> readResponses(socket, input),
+                "OH-modbus-pipeline-" + endpoint.getAddress() + ":" + endpoint.getPort());
+        reader.setDaemon(true);
+        reader.start();
+        logger.debug("Connected pipelined connection to {}", endpoint);
+        return output;
+    }
+
+    private void readResponses(Socket socket, DataInputStream input) {
+        try {
+            while (!socket.isClosed()) {
+                int transactionId = input.readUnsignedShort();
+                int protocolId = input.readUnsignedShort();
+                int length = input.readUnsignedShort();
+                if (length < 2 || length > MAX_ADU_REMAINING_LENGTH) {
+                    throw new IOException(String.format("Invalid length %d in MBAP header", length));
+                }
+                byte[] frame = new byte[MBAP_HEADER_LENGTH + length];
+                frame[0] = (byte) (transactionId >> 8);
+                frame[1] = (byte) transactionId;
+                frame[2] = (byte) (protocolId >> 8);
+                frame[3] = (byte) protocolId;
+                frame[4] = (byte) (length >> 8);
+                frame[5] = (byte) length;
+                input.readFully(frame, MBAP_HEADER_LENGTH, length);
+
+                ModbusResponse response = ModbusResponse.createModbusResponse(frame[7] & 0xFF);
+                response.setHeadless(false);
+                response.readFrom(new DataInputStream(new ByteArrayInputStream(frame)));
+
+                CompletableFuture<ModbusResponse> future = outstanding.get(transactionId);
+                if (future == null) {
+                    logger.debug("Ignoring response with unexpected transaction ID {} from {}: {}", transactionId,
+                            endpoint, response.getHexMessage());
+                } else {
+                    future.complete(response);
+                }
+            }
+        } catch (IOException e) {
+            synchronized (this) {
+                if (this.socket == socket) {
+                    disconnect(e);
+                }
+            }
+        }
+    }
+
+    private synchronized void disconnect(Exception reason) {
+        Socket socket = this.socket;
+        this.socket = null;
+        this.output = null;
+        if (socket != null) {
+            logger.debug("Disconnecting pipelined connection to {}: {} {}", endpoint, reason.getClass().getName(),
+                    reason.getMessage());
+            try {
+                socket.close();
+            } catch (IOException e) {
+                logger.debug("Error closing socket to {}: {}", endpoint, e.getMessage());
+            }
+        }
+        IOException error = reason instanceof IOException ? (IOException) reason : new IOException(reason);
+        outstanding.values().forEach(future -> future.completeExceptionally(error));
+    }
+
+    /**
+     * Close the connection. Outstanding transactions fail with {@link IOException}.
+     *
+     * The connection can be still used after close, a new connection is established on next request.
+     */
+    @Override
+    public void close() {
+        disconnect(new IOException("Connection closed"));
+    }
+}
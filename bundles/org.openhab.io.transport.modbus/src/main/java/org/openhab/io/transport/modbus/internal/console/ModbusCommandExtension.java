@@ -0,0 +1,84 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.internal.console;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.smarthome.io.console.Console;
+import org.eclipse.smarthome.io.console.extensions.AbstractConsoleCommandExtension;
+import org.eclipse.smarthome.io.console.extensions.ConsoleCommandExtension;
+import org.openhab.io.transport.modbus.LatencyHistogram;
+import org.openhab.io.transport.modbus.ModbusEndpointMetrics;
+import org.openhab.io.transport.modbus.ModbusManager;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * The {@link ModbusCommandExtension} prints the performance metrics of the Modbus endpoints to the console
+ *
+ * @author Markus Lindqvist - Initial contribution
+ */
+@NonNullByDefault
+@Component(service = ConsoleCommandExtension.class)
+public class ModbusCommandExtension extends AbstractConsoleCommandExtension {
+
+    private static final String METRICS = "metrics";
+
+    private final ModbusManager manager;
+
+    @Activate
+    public ModbusCommandExtension(final @Reference ModbusManager manager) {
+        super("modbus", "Inspect the Modbus transport.");
+        this.manager = manager;
+    }
+
+    @Override
+    public void execute(String[] args, Console console) {
+        if (args.length == 1 && METRICS.equals(args[0])) {
+            Map<ModbusSlaveEndpoint, ModbusEndpointMetrics> metrics = manager.getEndpointMetrics();
+            if (metrics.isEmpty()) {
+                console.println("No endpoints have been communicated with");
+            }
+            metrics.forEach((endpoint, endpointMetrics) -> printMetrics(console, endpoint, endpointMetrics));
+        } else {
+            printUsage(console);
+        }
+    }
+
+    private void printMetrics(Console console, ModbusSlaveEndpoint endpoint, ModbusEndpointMetrics metrics) {
+        console.println(endpoint.toString());
+        console.println(String.format(
+                "  operations: %d, poll overruns: %d, coalesced polls: %d, connections idle: %d, active: %d",
+                metrics.getOperations(), metrics.getPollOverruns(), metrics.getCoalescedPolls(),
+                metrics.getIdleConnections(), metrics.getActiveConnections()));
+        console.println("  errors: " + metrics.getErrorCounts());
+        printHistogram(console, "queue wait", metrics.getQueueWait());
+        printHistogram(console, "connect", metrics.getConnect());
+        printHistogram(console, "transaction", metrics.getTransaction());
+        printHistogram(console, "callback", metrics.getCallback());
+    }
+
+    private void printHistogram(Console console, String name, LatencyHistogram histogram) {
+        console.println(String.format("  %s: %s", name, histogram));
+    }
+
+    @Override
+    public List<String> getUsages() {
+        return Arrays.asList(buildCommandUsage(METRICS, "show performance metrics of the Modbus endpoints"));
+    }
+}
@@ -0,0 +1,92 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.junit.Test;
+import org.openhab.io.transport.modbus.ModbusBitUtilities;
+import org.openhab.io.transport.modbus.ModbusConstants.ValueType;
+import org.openhab.io.transport.modbus.ModbusRegisterArray;
+
+/**
+ * @author Markus Lindqvist - Initial contribution
+ */
+public class BitUtilitiesExtractPrimitiveFromRegistersTest {
+
+    private final ModbusRegisterArray registers = new ModbusRegisterArray(0xFFFE, 0x8001, 0x1234, 0xC000, 0x7FFF);
+
+    @Test
+    public void testIntegerTypes() {
+        assertThat(ModbusBitUtilities.extractLongFromRegisters(registers, 1, ValueType.BIT), is(equalTo(1L)));
+        assertThat(ModbusBitUtilities.extractLongFromRegisters(registers, 0, ValueType.BIT), is(equalTo(0L)));
+        assertThat(ModbusBitUtilities.extractLongFromRegisters(registers, 0, ValueType.INT8), is(equalTo(-2L)));
+        assertThat(ModbusBitUtilities.extractLongFromRegisters(registers, 0, ValueType.UINT8), is(equalTo(254L)));
+        assertThat(ModbusBitUtilities.extractLongFromRegisters(registers, 4, ValueType.UINT8), is(equalTo(0x34L)));
+        assertThat(ModbusBitUtilities.extractLongFromRegisters(registers, 5, ValueType.INT8), is(equalTo(0x12L)));
+        assertThat(ModbusBitUtilities.extractLongFromRegisters(registers, 0, ValueType.INT16), is(equalTo(-2L)));
+        assertThat(ModbusBitUtilities.extractLongFromRegisters(registers, 0, ValueType.UINT16), is(equalTo(0xFFFEL)));
+        assertThat(ModbusBitUtilities.extractLongFromRegisters(registers, 0, ValueType.INT32),
+                is(equalTo((long) 0xFFFE8001)));
+        assertThat(ModbusBitUtilities.extractLongFromRegisters(registers, 0, ValueType.UINT32),
+                is(equalTo(0xFFFE8001L)));
+        assertThat(ModbusBitUtilities.extractLongFromRegisters(registers, 0, ValueType.INT32_SWAP),
+                is(equalTo((long) 0x8001FFFE)));
+        assertThat(ModbusBitUtilities.extractLongFromRegisters(registers, 0, ValueType.UINT32_SWAP),
+                is(equalTo(0x8001FFFEL)));
+        assertThat(ModbusBitUtilities.extractLongFromRegisters(registers, 1, ValueType.INT64),
+                is(equalTo(0x80011234C0007FFFL)));
+        assertThat(ModbusBitUtilities.extractLongFromRegisters(registers, 1, ValueType.UINT64),
+                is(equalTo(0x80011234C0007FFFL)));
+        assertThat(ModbusBitUtilities.extractLongFromRegisters(registers, 1, ValueType.INT64_SWAP),
+                is(equalTo(0x7FFFC00012348001L)));
+        assertThat(ModbusBitUtilities.extractLongFromRegisters(registers, 1, ValueType.UINT64_SWAP),
+                is(equalTo(0x7FFFC00012348001L)));
+    }
+
+    @Test
+    public void testFloatTypes() {
+        ModbusRegisterArray floats = new ModbusRegisterArray(0x3FC0, 0x0000, 0x7FC0, 0x0000);
+        assertThat(ModbusBitUtilities.extractFloatFromRegisters(floats, 0, ValueType.FLOAT32), is(equalTo(1.5f)));
+        assertThat(ModbusBitUtilities.extractFloatFromRegisters(floats, 1, ValueType.FLOAT32_SWAP),
+                is(equalTo(Float.intBitsToFloat(0x7FC00000))));
+        assertThat(Float.isNaN(ModbusBitUtilities.extractFloatFromRegisters(floats, 2, ValueType.FLOAT32)),
+                is(equalTo(true)));
+    }
+
+    @Test
+    public void testUnsigned64StateIsNotNegative() {
+        Optional<DecimalType> state = ModbusBitUtilities.extractStateFromRegisters(registers, 1, ValueType.UINT64);
+        assertThat(state.get().toBigDecimal(), is(equalTo(new BigDecimal("9223673529600344063"))));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFloatTypeWithLong() {
+        ModbusBitUtilities.extractLongFromRegisters(registers, 0, ValueType.FLOAT32);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIntegerTypeWithFloat() {
+        ModbusBitUtilities.extractFloatFromRegisters(registers, 0, ValueType.INT32);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOutOfBounds() {
+        ModbusBitUtilities.extractLongFromRegisters(registers, 2, ValueType.INT64);
+    }
+}
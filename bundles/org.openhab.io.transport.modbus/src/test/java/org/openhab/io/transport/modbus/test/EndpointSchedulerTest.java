@@ -0,0 +1,147 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.io.transport.modbus.endpoint.ModbusTCPSlaveEndpoint;
+import org.openhab.io.transport.modbus.internal.EndpointScheduler;
+
+/**
+ * @author Markus Lindqvist - Initial contribution
+ */
+public class EndpointSchedulerTest {
+
+    private final List<Runnable> submitted = new ArrayList<>();
+    private final List<String> executed = new ArrayList<>();
+    private final AtomicInteger coalescedPolls = new AtomicInteger();
+    private @Nullable Executor executor = submitted::add;
+    private EndpointScheduler scheduler;
+
+    @Before
+    public void setUp() {
+        scheduler = new EndpointScheduler(new ModbusTCPSlaveEndpoint("localhost", 502), () -> executor,
+                coalescedPolls::incrementAndGet);
+    }
+
+    private Runnable operation(String name) {
+        return () -> executed.add(name);
+    }
+
+    private FutureTask<?> write(String name) {
+        return new FutureTask<>(operation(name), null);
+    }
+
+    private void runSubmitted() {
+        while (!submitted.isEmpty()) {
+            submitted.remove(0).run();
+        }
+    }
+
+    @Test
+    public void testWritesBeforePolls() {
+        scheduler.submitPoll("poll1", operation("poll1"));
+        scheduler.submitWrite(write("write1"));
+        scheduler.submitPoll("poll2", operation("poll2"));
+        scheduler.submitWrite(write("write2"));
+        // Queue is drained in a single task
+        assertThat(submitted.size(), is(equalTo(1)));
+
+        runSubmitted();
+        assertThat(executed, is(equalTo(Arrays.asList("write1", "write2", "poll1", "poll2"))));
+    }
+
+    @Test
+    public void testSamePollQueuedOnlyOnce() {
+        scheduler.submitPoll("poll1", operation("poll1-first"));
+        scheduler.submitPoll("poll2", operation("poll2"));
+        scheduler.submitPoll("poll1", operation("poll1-second"));
+        assertThat(coalescedPolls.get(), is(equalTo(1)));
+
+        runSubmitted();
+        // Latest submission is executed, in the original position of the queue
+        assertThat(executed, is(equalTo(Arrays.asList("poll1-second", "poll2"))));
+    }
+
+    @Test
+    public void testEqualKeysAreQueuedOnlyOnce() {
+        // Keys with equal value, but different identity, e.g. merged requests re-created on every flush
+        scheduler.submitPoll(new ArrayList<>(Arrays.asList(1, 2)), operation("merged-first"));
+        scheduler.submitPoll(new ArrayList<>(Arrays.asList(1, 2)), operation("merged-second"));
+        assertThat(coalescedPolls.get(), is(equalTo(1)));
+
+        runSubmitted();
+        assertThat(executed, is(equalTo(Arrays.asList("merged-second"))));
+    }
+
+    @Test
+    public void testPollQueuedAgainAfterExecution() {
+        scheduler.submitPoll("poll1", operation("poll1"));
+        runSubmitted();
+        scheduler.submitPoll("poll1", operation("poll1"));
+        runSubmitted();
+        assertThat(coalescedPolls.get(), is(equalTo(0)));
+        assertThat(executed, is(equalTo(Arrays.asList("poll1", "poll1"))));
+    }
+
+    @Test
+    public void testWritesCancelledWithoutExecutor() {
+        executor = null;
+        FutureTask<?> write = write("write1");
+        scheduler.submitWrite(write);
+        scheduler.submitPoll("poll1", operation("poll1"));
+
+        assertThat(write.isCancelled(), is(true));
+        assertThat(executed.isEmpty(), is(true));
+    }
+
+    @Test
+    public void testRejectedExecution() {
+        executor = command -> {
+            throw new RejectedExecutionException("rejected");
+        };
+        FutureTask<?> write = write("write1");
+        scheduler.submitWrite(write);
+        assertThat(write.isCancelled(), is(true));
+
+        // Scheduler recovers once the executor accepts tasks again
+        executor = submitted::add;
+        scheduler.submitWrite(write("write2"));
+        runSubmitted();
+        assertThat(executed, is(equalTo(Arrays.asList("write2"))));
+    }
+
+    @Test
+    public void testCancelAll() {
+        FutureTask<?> write = write("write1");
+        scheduler.submitWrite(write);
+        scheduler.submitPoll("poll1", operation("poll1"));
+        scheduler.cancelAll();
+        runSubmitted();
+
+        assertThat(write.isCancelled(), is(true));
+        assertThat(executed.isEmpty(), is(true));
+    }
+}
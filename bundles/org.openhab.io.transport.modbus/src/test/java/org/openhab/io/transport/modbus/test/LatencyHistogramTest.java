@@ -0,0 +1,68 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+import org.openhab.io.transport.modbus.LatencyHistogram;
+import org.openhab.io.transport.modbus.ModbusEndpointMetrics;
+import org.openhab.io.transport.modbus.endpoint.ModbusTCPSlaveEndpoint;
+import org.openhab.io.transport.modbus.exception.ModbusConnectionException;
+
+/**
+ * @author Markus Lindqvist - Initial contribution
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void testEmpty() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertThat(histogram.getCount(), is(equalTo(0L)));
+        assertThat(histogram.getMax(), is(equalTo(0L)));
+        assertThat(histogram.getPercentile(50), is(equalTo(0L)));
+    }
+
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 90; i++) {
+            histogram.record(3);
+        }
+        for (int i = 0; i < 10; i++) {
+            histogram.record(150);
+        }
+        assertThat(histogram.getCount(), is(equalTo(100L)));
+        assertThat(histogram.getMax(), is(equalTo(150L)));
+        assertThat(histogram.getMean(), is(equalTo(17.7)));
+        assertThat(histogram.getPercentile(50), is(equalTo(5L)));
+        assertThat(histogram.getPercentile(90), is(equalTo(5L)));
+        assertThat(histogram.getPercentile(95), is(equalTo(150L)));
+    }
+
+    @Test
+    public void testMetricsErrorCounts() {
+        ModbusEndpointMetrics metrics = new ModbusEndpointMetrics(() -> 1, () -> 2);
+        ModbusTCPSlaveEndpoint endpoint = new ModbusTCPSlaveEndpoint("localhost", 502);
+        metrics.recordError(new ModbusConnectionException(endpoint));
+        metrics.recordError(new ModbusConnectionException(endpoint));
+        metrics.recordOperation(1, 2, 3);
+
+        assertThat(metrics.getErrorCounts().get("ModbusConnectionException"), is(equalTo(2L)));
+        assertThat(metrics.getOperations(), is(equalTo(1L)));
+        assertThat(metrics.getTransaction().getMax(), is(equalTo(2L)));
+        assertThat(metrics.getIdleConnections(), is(equalTo(1)));
+        assertThat(metrics.getActiveConnections(), is(equalTo(2)));
+    }
+}
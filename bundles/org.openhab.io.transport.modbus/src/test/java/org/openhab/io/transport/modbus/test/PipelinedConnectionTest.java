@@ -0,0 +1,167 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.io.transport.modbus.endpoint.ModbusTCPSlaveEndpoint;
+import org.openhab.io.transport.modbus.internal.ModbusTCPPipelinedConnection;
+
+import net.wimpi.modbus.ModbusSlaveException;
+import net.wimpi.modbus.msg.ModbusResponse;
+import net.wimpi.modbus.msg.ReadInputRegistersRequest;
+import net.wimpi.modbus.msg.ReadMultipleRegistersRequest;
+import net.wimpi.modbus.msg.ReadMultipleRegistersResponse;
+
+/**
+ * Tests for {@link ModbusTCPPipelinedConnection} using a minimal slave that answers the requests in reverse order
+ *
+ * @author Markus Lindqvist - Initial contribution
+ */
+public class PipelinedConnectionTest {
+
+    private static class Request {
+        final int transactionId;
+        final int functionCode;
+        final int reference;
+
+        Request(int transactionId, int functionCode, int reference) {
+            this.transactionId = transactionId;
+            this.functionCode = functionCode;
+            this.reference = reference;
+        }
+    }
+
+    private ServerSocket serverSocket;
+    private Thread slaveThread;
+    private ModbusTCPPipelinedConnection connection;
+
+    /**
+     * Start slave that waits for given number of requests and answers them in reverse order. Response to read
+     * holding registers request has single register with value equal to the request start address. Other requests
+     * are answered with exception response.
+     */
+    private void startSlave(int requestsPerBatch) {
+        slaveThread = new Thread(() -> {
+            try (Socket socket = serverSocket.accept()) {
+                DataInputStream input = new DataInputStream(socket.getInputStream());
+                DataOutputStream output = new DataOutputStream(socket.getOutputStream());
+                while (true) {
+                    List<Request> requests = new ArrayList<>();
+                    for (int i = 0; i < requestsPerBatch; i++) {
+                        int transactionId = input.readUnsignedShort();
+                        input.readUnsignedShort(); // protocol id
+                        int length = input.readUnsignedShort();
+                        byte[] pdu = new byte[length];
+                        input.readFully(pdu);
+                        int reference = ((pdu[2] & 0xFF) << 8) | (pdu[3] & 0xFF);
+                        requests.add(new Request(transactionId, pdu[1] & 0xFF, reference));
+                    }
+                    for (int i = requests.size() - 1; i >= 0; i--) {
+                        Request request = requests.get(i);
+                        output.writeShort(request.transactionId);
+                        output.writeShort(0);
+                        if (request.functionCode == 3) {
+                            output.writeShort(5);
+                            output.writeByte(1);
+                            output.writeByte(3);
+                            output.writeByte(2);
+                            output.writeShort(request.reference);
+                        } else {
+                            output.writeShort(3);
+                            output.writeByte(1);
+                            output.writeByte(request.functionCode | 0x80);
+                            output.writeByte(2);
+                        }
+                    }
+                    output.flush();
+                }
+            } catch (IOException e) {
+                // connection closed
+            }
+        });
+        slaveThread.start();
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        serverSocket = new ServerSocket(0);
+        connection = new ModbusTCPPipelinedConnection(
+                new ModbusTCPSlaveEndpoint("127.0.0.1", serverSocket.getLocalPort()), 2, 1000, 3000);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        connection.close();
+        serverSocket.close();
+        slaveThread.join(1000);
+    }
+
+    private ReadMultipleRegistersRequest request(int reference) {
+        ReadMultipleRegistersRequest request = new ReadMultipleRegistersRequest(reference, 1);
+        request.setUnitID(1);
+        return request;
+    }
+
+    @Test
+    public void testOutOfOrderResponsesAreMatched() throws Exception {
+        startSlave(2);
+        CompletableFuture<ModbusResponse> first = CompletableFuture.supplyAsync(() -> execute(request(5)));
+        CompletableFuture<ModbusResponse> second = CompletableFuture.supplyAsync(() -> execute(request(7)));
+
+        assertThat(((ReadMultipleRegistersResponse) first.get(5, TimeUnit.SECONDS)).getRegisterValue(0),
+                is(equalTo(5)));
+        assertThat(((ReadMultipleRegistersResponse) second.get(5, TimeUnit.SECONDS)).getRegisterValue(0),
+                is(equalTo(7)));
+        assertThat(connection.getOutstandingTransactions(), is(equalTo(0)));
+    }
+
+    @Test
+    public void testSequentialRequests() throws Exception {
+        startSlave(1);
+        for (int i = 0; i < 10; i++) {
+            ModbusResponse response = connection.execute(request(i));
+            assertThat(((ReadMultipleRegistersResponse) response).getRegisterValue(0), is(equalTo(i)));
+        }
+    }
+
+    @Test(expected = ModbusSlaveException.class)
+    public void testExceptionResponse() throws Exception {
+        startSlave(1);
+        ReadInputRegistersRequest request = new ReadInputRegistersRequest(1, 1);
+        request.setUnitID(1);
+        connection.execute(request);
+    }
+
+    private ModbusResponse execute(ReadMultipleRegistersRequest request) {
+        try {
+            return connection.execute(request);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
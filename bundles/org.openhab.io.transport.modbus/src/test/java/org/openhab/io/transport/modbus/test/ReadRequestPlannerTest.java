@@ -0,0 +1,143 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.openhab.io.transport.modbus.AsyncModbusFailure;
+import org.openhab.io.transport.modbus.AsyncModbusReadResult;
+import org.openhab.io.transport.modbus.BitArray;
+import org.openhab.io.transport.modbus.ModbusReadFunctionCode;
+import org.openhab.io.transport.modbus.ModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.io.transport.modbus.PollTask;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+import org.openhab.io.transport.modbus.endpoint.ModbusTCPSlaveEndpoint;
+import org.openhab.io.transport.modbus.internal.BasicPollTask;
+import org.openhab.io.transport.modbus.internal.ModbusReadRequestPlanner;
+import org.openhab.io.transport.modbus.internal.ModbusReadRequestPlanner.MergedReadRequest;
+
+/**
+ * @author Markus Lindqvist - Initial contribution
+ */
+public class ReadRequestPlannerTest {
+
+    private final ModbusSlaveEndpoint endpoint = new ModbusTCPSlaveEndpoint("localhost", 502);
+    private final List<AsyncModbusReadResult> results = new ArrayList<>();
+    private final List<AsyncModbusFailure<ModbusReadRequestBlueprint>> failures = new ArrayList<>();
+
+    private PollTask task(int slaveId, ModbusReadFunctionCode functionCode, int start, int length) {
+        return new BasicPollTask(endpoint, new ModbusReadRequestBlueprint(slaveId, functionCode, start, length, 1),
+                results::add, failures::add);
+    }
+
+    @Test
+    public void testAdjacentAndOverlappingRequestsAreMerged() {
+        List<MergedReadRequest> plan = ModbusReadRequestPlanner.plan(
+                Arrays.asList(task(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 4, 2),
+                        task(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 4),
+                        task(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 5, 3)),
+                0);
+        assertThat(plan.size(), is(equalTo(1)));
+        ModbusReadRequestBlueprint request = plan.get(0).getRequest();
+        assertThat(request.getReference(), is(equalTo(0)));
+        assertThat(request.getDataLength(), is(equalTo(8)));
+        assertThat(plan.get(0).getTasks().size(), is(equalTo(3)));
+    }
+
+    @Test
+    public void testGapTolerance() {
+        List<PollTask> tasks = Arrays.asList(task(1, ModbusReadFunctionCode.READ_INPUT_REGISTERS, 0, 2),
+                task(1, ModbusReadFunctionCode.READ_INPUT_REGISTERS, 5, 2));
+        assertThat(ModbusReadRequestPlanner.plan(tasks, 2).size(), is(equalTo(2)));
+        List<MergedReadRequest> plan = ModbusReadRequestPlanner.plan(tasks, 3);
+        assertThat(plan.size(), is(equalTo(1)));
+        assertThat(plan.get(0).getRequest().getDataLength(), is(equalTo(7)));
+    }
+
+    @Test
+    public void testIncompatibleRequestsAreNotMerged() {
+        List<MergedReadRequest> plan = ModbusReadRequestPlanner.plan(
+                Arrays.asList(task(1, ModbusReadFunctionCode.READ_INPUT_REGISTERS, 0, 2),
+                        task(2, ModbusReadFunctionCode.READ_INPUT_REGISTERS, 2, 2),
+                        task(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 2, 2)),
+                10);
+        assertThat(plan.size(), is(equalTo(3)));
+    }
+
+    @Test
+    public void testMaximumReadCountIsRespected() {
+        List<MergedReadRequest> plan = ModbusReadRequestPlanner.plan(
+                Arrays.asList(task(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 100),
+                        task(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 100, 26)),
+                0);
+        assertThat(plan.size(), is(equalTo(2)));
+
+        plan = ModbusReadRequestPlanner.plan(Arrays.asList(task(1, ModbusReadFunctionCode.READ_COILS, 0, 1000),
+                task(1, ModbusReadFunctionCode.READ_COILS, 1000, 1000)), 0);
+        assertThat(plan.size(), is(equalTo(1)));
+    }
+
+    @Test
+    public void testRegistersAreSliced() {
+        MergedReadRequest merged = ModbusReadRequestPlanner
+                .plan(Arrays.asList(task(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 10, 2),
+                        task(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 13, 1)), 1)
+                .get(0);
+        merged.handleResult(new AsyncModbusReadResult(merged.getRequest(), new ModbusRegisterArray(1, 2, 3, 4)));
+
+        assertThat(results.size(), is(equalTo(2)));
+        assertThat(results.get(0).getRequest().getReference(), is(equalTo(10)));
+        assertThat(results.get(0).getRegisters().get().size(), is(equalTo(2)));
+        assertThat(results.get(0).getRegisters().get().getRegister(1).getValue(), is(equalTo(2)));
+        assertThat(results.get(1).getRequest().getReference(), is(equalTo(13)));
+        assertThat(results.get(1).getRegisters().get().size(), is(equalTo(1)));
+        assertThat(results.get(1).getRegisters().get().getRegister(0).getValue(), is(equalTo(4)));
+    }
+
+    @Test
+    public void testBitsAreSliced() {
+        MergedReadRequest merged = ModbusReadRequestPlanner
+                .plan(Arrays.asList(task(1, ModbusReadFunctionCode.READ_COILS, 0, 2),
+                        task(1, ModbusReadFunctionCode.READ_COILS, 2, 3)), 0)
+                .get(0);
+        merged.handleResult(
+                new AsyncModbusReadResult(merged.getRequest(), new BitArray(true, false, false, true, true)));
+
+        assertThat(results.size(), is(equalTo(2)));
+        assertThat(results.get(0).getBits().get(), is(equalTo(new BitArray(true, false))));
+        assertThat(results.get(1).getBits().get(), is(equalTo(new BitArray(false, true, true))));
+    }
+
+    @Test
+    public void testFailureIsPassedToAllTasks() {
+        MergedReadRequest merged = ModbusReadRequestPlanner
+                .plan(Arrays.asList(task(1, ModbusReadFunctionCode.READ_INPUT_DISCRETES, 0, 2),
+                        task(1, ModbusReadFunctionCode.READ_INPUT_DISCRETES, 2, 3)), 0)
+                .get(0);
+        Exception error = new Exception("fail");
+        merged.handleFailure(new AsyncModbusFailure<>(merged.getRequest(), error));
+
+        assertThat(results.size(), is(equalTo(0)));
+        assertThat(failures.size(), is(equalTo(2)));
+        assertThat(failures.get(0).getRequest().getReference(), is(equalTo(0)));
+        assertThat(failures.get(1).getRequest().getReference(), is(equalTo(2)));
+        assertThat(failures.get(1).getCause(), is(sameInstance(error)));
+    }
+}
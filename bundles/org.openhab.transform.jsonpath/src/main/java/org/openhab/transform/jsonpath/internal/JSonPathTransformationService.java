@@ -12,7 +12,10 @@
  */
 package org.openhab.transform.jsonpath.internal;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -24,6 +27,7 @@ import org.osgi.service.component.annotations.Component;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.jayway.jsonpath.DocumentContext;
 import com.jayway.jsonpath.InvalidJsonException;
 import com.jayway.jsonpath.InvalidPathException;
 import com.jayway.jsonpath.JsonPath;
@@ -41,8 +45,53 @@ import com.jayway.jsonpath.PathNotFoundException;
 @Component(immediate = true, property = { "smarthome.transform=JSONPATH" })
 public class JSonPathTransformationService implements TransformationService {
 
+    /**
+     * Maximum number of compiled JsonPath expressions to keep
+     */
+    private static final int MAX_CACHED_PATHS = 256;
+
+    /**
+     * Maximum number of parsed JSON documents to keep. Typically the same document is transformed with several
+     * expressions (one per channel) right after it has been received, so only the most recent documents are kept.
+     */
+    private static final int MAX_CACHED_DOCUMENTS = 4;
+
+    /**
+     * How long parsed JSON documents are kept, in milliseconds
+     */
+    private static final long DOCUMENT_CACHE_EXPIRY_MILLIS = 1000;
+
     private final Logger logger = LoggerFactory.getLogger(JSonPathTransformationService.class);
 
+    private final Map<String, JsonPath> pathCache = new LinkedHashMap<String, JsonPath>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(@Nullable Entry<String, JsonPath> eldest) {
+            return size() > MAX_CACHED_PATHS;
+        }
+    };
+
+    private final Map<String, CachedDocument> documentCache = new LinkedHashMap<String, CachedDocument>(16, 0.75f,
+            true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(@Nullable Entry<String, CachedDocument> eldest) {
+            return size() > MAX_CACHED_DOCUMENTS;
+        }
+    };
+
+    private static class CachedDocument {
+        private final DocumentContext document;
+        private final long parsedMillis;
+
+        private CachedDocument(DocumentContext document, long parsedMillis) {
+            this.document = document;
+            this.parsedMillis = parsedMillis;
+        }
+    }
+
     /**
      * Transforms the input <code>source</code> by JSonPath expression.
      *
@@ -60,7 +109,7 @@ public class JSonPathTransformationService implements TransformationService {
         logger.debug("about to transform '{}' by the function '{}'", source, jsonPathExpression);
 
         try {
-            Object transformationResult = JsonPath.read(source, jsonPathExpression);
+            Object transformationResult = getDocument(source).read(getPath(jsonPathExpression));
             logger.debug("transformation resulted in '{}'", transformationResult);
             if (transformationResult == null) {
                 return null;
@@ -76,6 +125,44 @@ public class JSonPathTransformationService implements TransformationService {
         }
     }
 
+    /**
+     * Get compiled JsonPath for the expression
+     *
+     * @throws InvalidPathException if the expression is invalid
+     */
+    private JsonPath getPath(String jsonPathExpression) {
+        synchronized (pathCache) {
+            JsonPath path = pathCache.get(jsonPathExpression);
+            if (path == null) {
+                path = JsonPath.compile(jsonPathExpression);
+                pathCache.put(jsonPathExpression, path);
+            }
+            return path;
+        }
+    }
+
+    /**
+     * Get parsed JSON document for the source. Recently parsed documents are reused.
+     *
+     * @throws InvalidJsonException if the source is not valid JSON
+     */
+    private DocumentContext getDocument(String source) {
+        long now = System.currentTimeMillis();
+        synchronized (documentCache) {
+            CachedDocument cached = documentCache.get(source);
+            // String.equals compares identity first, the same source instance is thus found quickly
+            if (cached != null && now - cached.parsedMillis <= DOCUMENT_CACHE_EXPIRY_MILLIS) {
+                return cached.document;
+            }
+        }
+        // Parse outside the lock, the documents are only read after this
+        DocumentContext document = JsonPath.parse(source);
+        synchronized (documentCache) {
+            documentCache.put(source, new CachedDocument(document, now));
+        }
+        return document;
+    }
+
     private String flattenList(List<?> list) {
         if (list.size() == 1) {
             return list.get(0).toString();
@@ -73,6 +73,20 @@ public class JSonPathTransformationServiceTest {
         processor.transform("$", "{id:");
     }
 
+    @Test
+    public void testSameSourceWithSeveralPaths() throws TransformationException {
+        assertEquals("bob", processor.transform("$[0].name", jsonArray));
+        assertEquals("alice", processor.transform("$[1].name", jsonArray));
+        assertEquals("1", processor.transform("$[0].id", new String(jsonArray)));
+    }
+
+    @Test
+    public void testSamePathWithChangingSource() throws TransformationException {
+        assertEquals("1", processor.transform("$.value", "{ \"value\": 1 }"));
+        assertEquals("2", processor.transform("$.value", "{ \"value\": 2 }"));
+        assertEquals("1", processor.transform("$.value", "{ \"value\": 1 }"));
+    }
+
     @Test
     public void testNullValue() throws TransformationException {
         String transformedResponse = processor.transform("$[0].empty", jsonArray);
@@ -12,6 +12,10 @@
  */
 package org.openhab.transform.regex.internal;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -40,6 +44,40 @@ public class RegExTransformationService implements TransformationService {
 
     private static final Pattern SUBSTR_PATTERN = Pattern.compile("^s/(.*?[^\\\\])/(.*?[^\\\\])/(.*)$");
 
+    /**
+     * Maximum number of compiled expressions to keep
+     */
+    private static final int MAX_CACHED_EXPRESSIONS = 256;
+
+    private final Map<String, CompiledExpression> cache = new LinkedHashMap<String, CompiledExpression>(16, 0.75f,
+            true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(@Nullable Entry<String, CompiledExpression> eldest) {
+            return size() > MAX_CACHED_EXPRESSIONS;
+        }
+    };
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong cacheMisses = new AtomicLong();
+
+    /**
+     * Regular expression compiled either to the substitution form (s/regex/substitution/options) or the match form
+     *
+     * @author Markus Lindqvist - Initial contribution
+     */
+    private static class CompiledExpression {
+        private final Pattern pattern;
+        private final @Nullable String substitution;
+        private final boolean global;
+
+        private CompiledExpression(Pattern pattern, @Nullable String substitution, boolean global) {
+            this.pattern = pattern;
+            this.substitution = substitution;
+            this.global = global;
+        }
+    }
+
     @Override
     public @Nullable String transform(String regExpression, String source) throws TransformationException {
         if (regExpression == null || source == null) {
@@ -50,23 +88,20 @@ public class RegExTransformationService implements TransformationService {
 
         String result = "";
 
-        Matcher substMatcher = SUBSTR_PATTERN.matcher(regExpression);
-        if (substMatcher.matches()) {
+        CompiledExpression expression = getCompiledExpression(regExpression);
+        String substitution = expression.substitution;
+        if (substitution != null) {
             logger.debug("Using substitution form of regex transformation");
-            String regex = substMatcher.group(1);
-            String substitution = substMatcher.group(2);
-            String options = substMatcher.group(3);
-            if (options.equals("g")) {
-                result = source.trim().replaceAll(regex, substitution);
+            Matcher substMatcher = expression.pattern.matcher(source.trim());
+            if (expression.global) {
+                result = substMatcher.replaceAll(substitution);
             } else {
-                result = source.trim().replaceFirst(regex, substitution);
-            }
-            if (result != null) {
-                return result;
+                result = substMatcher.replaceFirst(substitution);
             }
+            return result;
         }
 
-        Matcher matcher = Pattern.compile("^" + regExpression + "$", Pattern.DOTALL).matcher(source.trim());
+        Matcher matcher = expression.pattern.matcher(source.trim());
         if (!matcher.matches()) {
             logger.debug(
                     "the given regex '^{}$' doesn't match the given content '{}' -> couldn't compute transformation",
@@ -94,4 +129,48 @@ public class RegExTransformationService implements TransformationService {
 
         return result;
     }
+
+    private CompiledExpression getCompiledExpression(String regExpression) {
+        synchronized (cache) {
+            CompiledExpression expression = cache.get(regExpression);
+            if (expression != null) {
+                cacheHits.incrementAndGet();
+                return expression;
+            }
+        }
+        cacheMisses.incrementAndGet();
+        CompiledExpression expression;
+        Matcher substMatcher = SUBSTR_PATTERN.matcher(regExpression);
+        if (substMatcher.matches()) {
+            expression = new CompiledExpression(Pattern.compile(substMatcher.group(1)), substMatcher.group(2),
+                    substMatcher.group(3).equals("g"));
+        } else {
+            expression = new CompiledExpression(Pattern.compile("^" + regExpression + "$", Pattern.DOTALL), null,
+                    false);
+        }
+        synchronized (cache) {
+            cache.put(regExpression, expression);
+        }
+        logger.debug("Compiled regular expression '{}', cache hits {}, misses {}", regExpression, cacheHits.get(),
+                cacheMisses.get());
+        return expression;
+    }
+
+    /**
+     * Get number of transformations that used an already compiled expression
+     *
+     * @return number of cache hits
+     */
+    public long getCacheHits() {
+        return cacheHits.get();
+    }
+
+    /**
+     * Get number of transformations that had to compile the expression
+     *
+     * @return number of cache misses
+     */
+    public long getCacheMisses() {
+        return cacheMisses.get();
+    }
 }
@@ -75,4 +75,15 @@ public class RegExTransformationServiceTest extends AbstractTransformationServic
         // Asserts
         assertEquals("varX=12 varY=54 ", transformedResponse);
     }
+
+    @Test
+    public void testCompiledExpressionIsReused() throws TransformationException {
+        assertEquals("SetMode(42)", processor.transform("s/^OP:(.*?),ARG:(.*)$/$1($2)/", "OP:SetMode,ARG:42"));
+        assertEquals("Get(1)", processor.transform("s/^OP:(.*?),ARG:(.*)$/$1($2)/", "OP:Get,ARG:1"));
+        assertEquals("8", processor.transform("temp=(.*)", "temp=8"));
+        assertEquals("9", processor.transform("temp=(.*)", "temp=9"));
+
+        assertEquals(2, processor.getCacheMisses());
+        assertEquals(2, processor.getCacheHits());
+    }
 }
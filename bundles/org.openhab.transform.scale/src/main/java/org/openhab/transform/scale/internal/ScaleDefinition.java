@@ -0,0 +1,174 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.scale.internal;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Scale file compiled for fast lookups.
+ *
+ * The number line is split into elementary segments at the bounds of the ranges: each bound itself, and the open
+ * intervals between consecutive bounds. Each range either contains a segment completely or not at all, so the label of
+ * the first range (in file order) containing the segment can be resolved when loading the file. Label of a value is
+ * then looked up with binary search over the bounds.
+ *
+ * The format is split into parts at the <code>%value%</code> and <code>%label%</code> placeholders when loading the
+ * file.
+ *
+ * @author Markus Lindqvist - Initial contribution
+ */
+public class ScaleDefinition {
+
+    private static final String FORMAT_VALUE = "%value%";
+    private static final String FORMAT_LABEL = "%label%";
+    private static final BigDecimal TWO = BigDecimal.valueOf(2);
+
+    /** Distinct bounds of the ranges, sorted in ascending order */
+    private final BigDecimal[] bounds;
+    /**
+     * Labels of the elementary segments. Segment 2i+1 is the bound i, and segment 2i is the open interval below bound
+     * i. The last segment is the open interval above the largest bound. Null if no range contains the segment.
+     */
+    private final String[] segmentLabels;
+    private final String nonNumericLabel;
+    /** Parts of the format, each part being either a placeholder or literal text without placeholders */
+    private final String[] formatParts;
+
+    /**
+     * Constructor
+     *
+     * @param ranges ranges with their labels, in file order. First matching range wins.
+     * @param nonNumericLabel label for non numeric values, or null if not defined
+     * @param format presentation format
+     */
+    public ScaleDefinition(Map<Range, String> ranges, String nonNumericLabel, String format) {
+        TreeSet<BigDecimal> distinctBounds = new TreeSet<>();
+        for (Range range : ranges.keySet()) {
+            if (range.min != null) {
+                distinctBounds.add(range.min);
+            }
+            if (range.max != null) {
+                distinctBounds.add(range.max);
+            }
+        }
+        this.bounds = distinctBounds.toArray(new BigDecimal[distinctBounds.size()]);
+        this.segmentLabels = new String[2 * bounds.length + 1];
+        for (int segment = 0; segment < segmentLabels.length; segment++) {
+            BigDecimal representative = getRepresentative(segment);
+            for (Map.Entry<Range, String> entry : ranges.entrySet()) {
+                if (entry.getKey().contains(representative)) {
+                    segmentLabels[segment] = entry.getValue();
+                    break;
+                }
+            }
+        }
+        this.nonNumericLabel = nonNumericLabel;
+        this.formatParts = splitFormat(format);
+    }
+
+    private BigDecimal getRepresentative(int segment) {
+        if (bounds.length == 0) {
+            return BigDecimal.ZERO;
+        }
+        if (segment % 2 == 1) {
+            return bounds[segment / 2];
+        }
+        int upperBound = segment / 2;
+        if (upperBound == 0) {
+            return bounds[0].subtract(BigDecimal.ONE);
+        }
+        if (upperBound == bounds.length) {
+            return bounds[bounds.length - 1].add(BigDecimal.ONE);
+        }
+        return bounds[upperBound - 1].add(bounds[upperBound]).divide(TWO);
+    }
+
+    private static String[] splitFormat(String format) {
+        List<String> parts = new ArrayList<>();
+        int start = 0;
+        while (true) {
+            int valueIndex = format.indexOf(FORMAT_VALUE, start);
+            int labelIndex = format.indexOf(FORMAT_LABEL, start);
+            int index;
+            String placeholder;
+            if (valueIndex >= 0 && (labelIndex < 0 || valueIndex < labelIndex)) {
+                index = valueIndex;
+                placeholder = FORMAT_VALUE;
+            } else if (labelIndex >= 0) {
+                index = labelIndex;
+                placeholder = FORMAT_LABEL;
+            } else {
+                break;
+            }
+            if (index > start) {
+                parts.add(format.substring(start, index));
+            }
+            parts.add(placeholder);
+            start = index + placeholder.length();
+        }
+        if (start < format.length()) {
+            parts.add(format.substring(start));
+        }
+        return parts.toArray(new String[parts.size()]);
+    }
+
+    /**
+     * Get label of the first range containing the value
+     *
+     * @param value value to look up
+     * @return label, or null if no range contains the value
+     */
+    public String getLabel(BigDecimal value) {
+        int index = Arrays.binarySearch(bounds, value);
+        return segmentLabels[index >= 0 ? 2 * index + 1 : 2 * (-index - 1)];
+    }
+
+    /**
+     * Get label for non numeric values
+     *
+     * @return label, or null if not defined
+     */
+    public String getNonNumericLabel() {
+        return nonNumericLabel;
+    }
+
+    /**
+     * Format the result using the presentation format
+     *
+     * @param source value that was transformed
+     * @param label label of the matching range
+     * @return formatted result
+     */
+    public String format(String source, String label) {
+        if (formatParts.length == 1 && FORMAT_LABEL.equals(formatParts[0])) {
+            // Default format
+            return label;
+        }
+        StringBuilder result = new StringBuilder();
+        for (String part : formatParts) {
+            if (FORMAT_VALUE.equals(part)) {
+                result.append(source);
+            } else if (FORMAT_LABEL.equals(part)) {
+                result.append(label);
+            } else {
+                result.append(part);
+            }
+        }
+        return result.toString();
+    }
+}
@@ -42,7 +42,7 @@ import org.slf4j.LoggerFactory;
  * @author Markus Rathgeb - drop usage of Guava
  */
 @Component(immediate = true, service = TransformationService.class, property = { "smarthome.transform=SCALE" })
-public class ScaleTransformationService extends AbstractFileTransformationService<Map<Range, String>> {
+public class ScaleTransformationService extends AbstractFileTransformationService<ScaleDefinition> {
 
     private final Logger logger = LoggerFactory.getLogger(ScaleTransformationService.class);
 
@@ -51,12 +51,8 @@ public class ScaleTransformationService extends AbstractFileTransformationServic
 
     private static final String NON_NUMBER = "NaN";
     private static final String FORMAT = "format";
-    private static final String FORMAT_VALUE = "%value%";
     private static final String FORMAT_LABEL = "%label%";
 
-    /** Inaccessible range used to store presentation format ]0..0[ */
-    private static final Range FORMAT_RANGE = Range.range(BigDecimal.ZERO, false, BigDecimal.ZERO, false);
-
     /**
      * The implementation of {@link OrderedProperties} that let access
      * properties in the same order than presented in the source file
@@ -93,52 +89,119 @@ public class ScaleTransformationService extends AbstractFileTransformationServic
      * The method transforms the input <code>source</code> by matching searching
      * the range where it fits i.e. [min..max]=value or ]min..max]=value
      *
-     * @param properties the list of properties defining all the available ranges
+     * @param scale the compiled scale file defining all the available ranges
      * @param source the input to transform
      *
      */
     @Override
-    protected String internalTransform(Map<Range, String> data, String source) throws TransformationException {
-        try {
-            final BigDecimal value = new BigDecimal(source);
-
-            return formatResult(data, source, value);
-        } catch (NumberFormatException e) {
+    protected String internalTransform(ScaleDefinition scale, String source) throws TransformationException {
+        BigDecimal value = parseNumber(source);
+        if (value == null) {
             // Scale can only be used with numeric inputs, so lets try to see if ever its a valid quantity type
-            try {
-                final QuantityType<?> quantity = new QuantityType<>(source);
-                return formatResult(data, source, quantity.toBigDecimal());
-            } catch (NumberFormatException e2) {
-                String nonNumeric = data.get(null);
-                if (nonNumeric != null) {
-                    return nonNumeric;
-                } else {
-                    throw new TransformationException(
-                            "Scale must be used with numeric inputs, valid quantity types or a 'NaN' entry.");
-                }
+            value = parseQuantity(source);
+        }
+        if (value == null) {
+            String nonNumeric = scale.getNonNumericLabel();
+            if (nonNumeric != null) {
+                return nonNumeric;
+            } else {
+                throw new TransformationException(
+                        "Scale must be used with numeric inputs, valid quantity types or a 'NaN' entry.");
             }
         }
+        String label = scale.getLabel(value);
+        if (label == null) {
+            throw new TransformationException("No matching range for '" + source + "'");
+        }
+        return scale.format(source, label);
+    }
+
+    /**
+     * Parse plain decimal number
+     *
+     * @return parsed number, or null if the source is not a number
+     */
+    private static BigDecimal parseNumber(String source) {
+        if (source.isEmpty() || getNumberLength(source) != source.length()) {
+            return null;
+        }
+        try {
+            return new BigDecimal(source);
+        } catch (NumberFormatException e) {
+            // e.g. exponent out of range
+            return null;
+        }
     }
 
-    private String formatResult(Map<Range, String> data, String source, final BigDecimal value)
-            throws TransformationException {
-        String format = data.get(FORMAT_RANGE);
-        String result = getScaleResult(data, source, value);
-        return format.replaceAll(FORMAT_VALUE, source).replaceAll(FORMAT_LABEL, result);
+    /**
+     * Parse number part of a quantity, e.g. 992 ppm
+     *
+     * @return number part of the quantity, or null if the source is not a valid quantity
+     */
+    private static BigDecimal parseQuantity(String source) {
+        if (getNumberLength(source.trim()) == 0) {
+            // Quantity starts always with a number, avoid parsing the unit in vain
+            return null;
+        }
+        try {
+            return new QuantityType<>(source).toBigDecimal();
+        } catch (NumberFormatException e) {
+            return null;
+        }
     }
 
-    private String getScaleResult(Map<Range, String> data, String source, final BigDecimal value)
-            throws TransformationException {
-        return data.entrySet().stream().filter(entry -> entry.getKey() != null && entry.getKey().contains(value))
-                .findFirst().map(Map.Entry::getValue)
-                .orElseThrow(() -> new TransformationException("No matching range for '" + source + "'"));
+    /**
+     * Length of the leading decimal number (as accepted by {@link BigDecimal#BigDecimal(String)}) in the string
+     *
+     * @return number of characters forming a number at the beginning of the string, or 0 if the string does not start
+     *         with a number
+     */
+    private static int getNumberLength(String source) {
+        int length = source.length();
+        int i = 0;
+        if (i < length && (source.charAt(i) == '+' || source.charAt(i) == '-')) {
+            i++;
+        }
+        int digits = 0;
+        while (i < length && Character.isDigit(source.charAt(i))) {
+            i++;
+            digits++;
+        }
+        if (i < length && source.charAt(i) == '.') {
+            i++;
+            while (i < length && Character.isDigit(source.charAt(i))) {
+                i++;
+                digits++;
+            }
+        }
+        if (digits == 0) {
+            return 0;
+        }
+        if (i < length && (source.charAt(i) == 'e' || source.charAt(i) == 'E')) {
+            int exponentStart = i;
+            i++;
+            if (i < length && (source.charAt(i) == '+' || source.charAt(i) == '-')) {
+                i++;
+            }
+            int exponentDigits = 0;
+            while (i < length && Character.isDigit(source.charAt(i))) {
+                i++;
+                exponentDigits++;
+            }
+            if (exponentDigits == 0) {
+                // Not an exponent after all
+                return exponentStart;
+            }
+        }
+        return i;
     }
 
     @Override
-    protected Map<Range, String> internalLoadTransform(String filename) throws TransformationException {
+    protected ScaleDefinition internalLoadTransform(String filename) throws TransformationException {
         try (FileReader reader = new FileReader(filename)) {
             final Map<Range, String> data = new LinkedHashMap<>();
-            data.put(FORMAT_RANGE, FORMAT_LABEL);
+            String nonNumeric = null;
+            String format = FORMAT_LABEL;
             final OrderedProperties properties = new OrderedProperties();
             properties.load(reader);
 
@@ -164,9 +227,9 @@ public class ScaleTransformationService extends AbstractFileTransformationServic
                     }
                 } else {
                     if (NON_NUMBER.equals(entry)) {
-                        data.put(null, value);
+                        nonNumeric = value;
                     } else if (FORMAT.equals(entry)) {
-                        data.put(FORMAT_RANGE, value);
+                        format = value;
                     } else {
                         logger.warn("Scale transform file '{}' does not comply with syntax for entry : '{}', '{}'",
                                 filename, entry, value);
@@ -174,7 +237,7 @@ public class ScaleTransformationService extends AbstractFileTransformationServic
                 }
             }
 
-            return data;
+            return new ScaleDefinition(data, nonNumeric, format);
         } catch (final IOException ex) {
             throw new TransformationException("An error occurred while opening file.", ex);
         }
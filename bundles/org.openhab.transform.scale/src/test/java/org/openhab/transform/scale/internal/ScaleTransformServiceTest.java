@@ -75,6 +75,17 @@ public class ScaleTransformServiceTest {
         Assert.assertEquals("catchall", transformedResponse);
     }
 
+    @Test
+    public void testTransformByScaleBounds() throws TransformationException {
+        String existingscale = "scale/limits.scale";
+
+        Assert.assertEquals("low", processor.transform(existingscale, "9.999"));
+        Assert.assertEquals("middle", processor.transform(existingscale, "10.00"));
+        Assert.assertEquals("high", processor.transform(existingscale, "+2e1"));
+        Assert.assertEquals("extreme", processor.transform(existingscale, "3E2"));
+        Assert.assertEquals("low", processor.transform(existingscale, "-1e10"));
+    }
+
     @Test
     public void testTransformByScaleUndef() throws TransformationException {
         // check that for undefined/non numeric value we return empty string
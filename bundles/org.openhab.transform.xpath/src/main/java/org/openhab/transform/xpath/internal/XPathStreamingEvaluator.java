@@ -0,0 +1,150 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.xpath.internal;
+
+import java.io.StringReader;
+import java.util.regex.Pattern;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Evaluates simple XPath expressions while streaming the document with StAX, without building a DOM.
+ *
+ * Only absolute child paths without namespace prefixes, such as <code>/root/child/value</code> or
+ * <code>/root/child/@attribute</code>, are supported. The result equals the string value the XPath expression would
+ * evaluate to, that is, the text content of the first matching element or the value of the first matching attribute.
+ * Documents with a DTD are not evaluated since the DTD might declare entities or default attributes.
+ *
+ * @author Markus Lindqvist - Initial contribution
+ */
+@NonNullByDefault
+public class XPathStreamingEvaluator {
+
+    private static final Pattern SIMPLE_PATH = Pattern
+            .compile("(/[A-Za-z_][A-Za-z0-9_.\\-]*)+(/@[A-Za-z_][A-Za-z0-9_.\\-]*)?");
+
+    private final String[] elementNames;
+    private final @Nullable String attributeName;
+
+    private XPathStreamingEvaluator(String[] elementNames, @Nullable String attributeName) {
+        this.elementNames = elementNames;
+        this.attributeName = attributeName;
+    }
+
+    /**
+     * Create evaluator for the expression
+     *
+     * @param xpathExpression XPath expression
+     * @return evaluator, or null if the expression is not simple enough to be evaluated by streaming
+     */
+    public static @Nullable XPathStreamingEvaluator forExpression(String xpathExpression) {
+        if (!SIMPLE_PATH.matcher(xpathExpression).matches()) {
+            return null;
+        }
+        String[] steps = xpathExpression.substring(1).split("/");
+        String lastStep = steps[steps.length - 1];
+        if (lastStep.startsWith("@")) {
+            String[] elementNames = new String[steps.length - 1];
+            System.arraycopy(steps, 0, elementNames, 0, elementNames.length);
+            return new XPathStreamingEvaluator(elementNames, lastStep.substring(1));
+        }
+        return new XPathStreamingEvaluator(steps, null);
+    }
+
+    /**
+     * Evaluate the expression against the document
+     *
+     * The whole document is read to detect malformed documents, as with DOM parsing.
+     *
+     * @param factory factory for creating the stream reader. Should be namespace aware and coalescing.
+     * @param source XML document
+     * @return string value of the expression, or null if the document cannot be evaluated by streaming
+     * @throws XMLStreamException if the document is malformed
+     */
+    public @Nullable String evaluate(XMLInputFactory factory, String source) throws XMLStreamException {
+        XMLStreamReader reader = factory.createXMLStreamReader(new StringReader(source));
+        try {
+            String result = null;
+            // Number of leading path steps matched by the current element ancestry
+            int matchedDepth = 0;
+            int depth = 0;
+            // Depth of the element whose text content is collected, -1 when not collecting
+            int collectingDepth = -1;
+            StringBuilder text = new StringBuilder();
+            while (reader.hasNext()) {
+                switch (reader.next()) {
+                    case XMLStreamConstants.DTD:
+                        return null;
+                    case XMLStreamConstants.START_ELEMENT:
+                        depth++;
+                        if (result == null && collectingDepth < 0 && matchedDepth == depth - 1
+                                && depth <= elementNames.length && matches(reader, elementNames[depth - 1])) {
+                            matchedDepth = depth;
+                            if (depth == elementNames.length) {
+                                String localAttributeName = attributeName;
+                                if (localAttributeName == null) {
+                                    collectingDepth = depth;
+                                } else {
+                                    result = getAttribute(reader, localAttributeName);
+                                }
+                            }
+                        }
+                        break;
+                    case XMLStreamConstants.END_ELEMENT:
+                        if (collectingDepth == depth) {
+                            result = text.toString();
+                            collectingDepth = -1;
+                        }
+                        if (matchedDepth == depth) {
+                            matchedDepth--;
+                        }
+                        depth--;
+                        break;
+                    case XMLStreamConstants.CHARACTERS:
+                    case XMLStreamConstants.CDATA:
+                    case XMLStreamConstants.SPACE:
+                        if (collectingDepth >= 0) {
+                            text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            }
+            return result == null ? "" : result;
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static boolean matches(XMLStreamReader reader, String localName) {
+        String namespace = reader.getNamespaceURI();
+        return localName.equals(reader.getLocalName()) && (namespace == null || namespace.isEmpty());
+    }
+
+    private static @Nullable String getAttribute(XMLStreamReader reader, String localName) {
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            String namespace = reader.getAttributeNamespace(i);
+            if (localName.equals(reader.getAttributeLocalName(i)) && (namespace == null || namespace.isEmpty())) {
+                return reader.getAttributeValue(i);
+            }
+        }
+        return null;
+    }
+}
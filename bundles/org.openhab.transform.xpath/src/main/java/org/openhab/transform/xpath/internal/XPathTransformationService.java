@@ -13,9 +13,17 @@
 package org.openhab.transform.xpath.internal;
 
 import java.io.StringReader;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
 import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpression;
@@ -41,8 +49,48 @@ import org.xml.sax.InputSource;
 @Component(immediate = true, property = { "smarthome.transform=XPATH" })
 public class XPathTransformationService implements TransformationService {
 
+    /**
+     * Maximum number of compiled expressions to keep per thread
+     */
+    private static final int MAX_CACHED_EXPRESSIONS = 64;
+
     private final Logger logger = LoggerFactory.getLogger(XPathTransformationService.class);
 
+    private final XMLInputFactory streamFactory = createStreamFactory();
+
+    /*
+     * DocumentBuilder, XPath and XPathExpression are not thread safe, these are thus kept per thread.
+     */
+    private final ThreadLocal<DocumentBuilder> documentBuilders = ThreadLocal.withInitial(() -> {
+        DocumentBuilderFactory domFactory = DocumentBuilderFactory.newInstance();
+        domFactory.setNamespaceAware(true);
+        domFactory.setValidating(false);
+        try {
+            return domFactory.newDocumentBuilder();
+        } catch (ParserConfigurationException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+    private final ThreadLocal<XPath> xpaths = ThreadLocal.withInitial(() -> XPathFactory.newInstance().newXPath());
+    private final ThreadLocal<Map<String, XPathExpression>> expressions = ThreadLocal
+            .withInitial(() -> new LinkedHashMap<String, XPathExpression>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(@Nullable Entry<String, XPathExpression> eldest) {
+                    return size() > MAX_CACHED_EXPRESSIONS;
+                }
+            });
+    private final Map<String, Optional<XPathStreamingEvaluator>> streamingEvaluators = new ConcurrentHashMap<>();
+
+    private static XMLInputFactory createStreamFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
     @Override
     public @Nullable String transform(String xpathExpression, String source) throws TransformationException {
         if (xpathExpression == null || source == null) {
@@ -51,34 +99,53 @@ public class XPathTransformationService implements TransformationService {
 
         logger.debug("about to transform '{}' by the function '{}'", source, xpathExpression);
 
-        StringReader stringReader = null;
-
         try {
-            DocumentBuilderFactory domFactory = DocumentBuilderFactory.newInstance();
-            domFactory.setNamespaceAware(true);
-            domFactory.setValidating(false);
-            DocumentBuilder builder = domFactory.newDocumentBuilder();
-
-            stringReader = new StringReader(source);
-            InputSource inputSource = new InputSource(stringReader);
-            inputSource.setEncoding("UTF-8");
-
-            Document doc = builder.parse(inputSource);
-
-            XPath xpath = XPathFactory.newInstance().newXPath();
-            XPathExpression expr = xpath.compile(xpathExpression);
-
-            String transformationResult = (String) expr.evaluate(doc, XPathConstants.STRING);
+            String transformationResult = evaluateStreaming(xpathExpression, source);
+            if (transformationResult == null) {
+                transformationResult = evaluateDocument(xpathExpression, source);
+            }
 
             logger.debug("transformation resulted in '{}'", transformationResult);
 
             return transformationResult;
         } catch (Exception e) {
             throw new TransformationException("transformation throws exceptions", e);
-        } finally {
-            if (stringReader != null) {
-                stringReader.close();
-            }
         }
     }
+
+    /**
+     * Evaluate simple path expressions without building a DOM
+     *
+     * @return result of the evaluation, or null if the expression or document is not supported by streaming
+     */
+    private @Nullable String evaluateStreaming(String xpathExpression, String source) throws XMLStreamException {
+        if (streamingEvaluators.size() > MAX_CACHED_EXPRESSIONS) {
+            streamingEvaluators.clear();
+        }
+        Optional<XPathStreamingEvaluator> evaluator = streamingEvaluators.computeIfAbsent(xpathExpression,
+                expression -> Optional.ofNullable(XPathStreamingEvaluator.forExpression(expression)));
+        if (!evaluator.isPresent()) {
+            return null;
+        }
+        return evaluator.get().evaluate(streamFactory, source);
+    }
+
+    private String evaluateDocument(String xpathExpression, String source) throws Exception {
+        DocumentBuilder builder = documentBuilders.get();
+        builder.reset();
+
+        InputSource inputSource = new InputSource(new StringReader(source));
+        inputSource.setEncoding("UTF-8");
+
+        Document doc = builder.parse(inputSource);
+
+        Map<String, XPathExpression> cachedExpressions = expressions.get();
+        XPathExpression expr = cachedExpressions.get(xpathExpression);
+        if (expr == null) {
+            expr = xpaths.get().compile(xpathExpression);
+            cachedExpressions.put(xpathExpression, expr);
+        }
+
+        return (String) expr.evaluate(doc, XPathConstants.STRING);
+    }
 }
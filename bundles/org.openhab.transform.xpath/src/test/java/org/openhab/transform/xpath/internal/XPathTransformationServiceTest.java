@@ -38,4 +38,22 @@ public class XPathTransformationServiceTest extends AbstractTransformationServic
         // Asserts
         assertEquals("8", transformedResponse);
     }
+
+    @Test
+    public void testTransformBySimplePath() throws TransformationException {
+        assertEquals("8", processor.transform("/xml_api_reply/weather/current_conditions/temp_c/@data", source));
+        assertEquals("1", processor.transform("/xml_api_reply/@version", source));
+        assertEquals("", processor.transform("/xml_api_reply/missing", source));
+        assertEquals("xyz", processor.transform("/a/b", "<a><b>x<c>y</c>z</b><b>2</b></a>"));
+    }
+
+    @Test
+    public void testSimplePathDoesNotMatchNamespacedElements() throws TransformationException {
+        assertEquals("", processor.transform("/a/b", "<a xmlns=\"urn:test\"><b>1</b></a>"));
+    }
+
+    @Test(expected = TransformationException.class)
+    public void testSimplePathWithMalformedDocument() throws TransformationException {
+        processor.transform("/a/b", "<a><b>1</b><c></a>");
+    }
 }
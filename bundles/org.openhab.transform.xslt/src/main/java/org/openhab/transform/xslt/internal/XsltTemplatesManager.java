@@ -0,0 +1,147 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.xslt.internal;
+
+import java.io.File;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import javax.xml.transform.Templates;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.stream.StreamSource;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.smarthome.core.transform.TransformationException;
+import org.osgi.service.component.annotations.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cache for compiled XSLT stylesheets.
+ *
+ * {@link Templates} are thread safe and shared, while the {@link Transformer} instances created from them are not.
+ * Transformers are thus pooled per stylesheet, each transformer being used by one thread at a time.
+ *
+ * @author Markus Lindqvist - Initial contribution
+ */
+@NonNullByDefault
+@Component(service = XsltTemplatesManager.class)
+public class XsltTemplatesManager {
+
+    /**
+     * Maximum number of idle transformers to keep per stylesheet
+     */
+    private static final int MAX_POOLED_TRANSFORMERS = 4;
+
+    private final Logger logger = LoggerFactory.getLogger(XsltTemplatesManager.class);
+    private final Map<String, CompiledStylesheet> stylesheets = new ConcurrentHashMap<>();
+
+    /**
+     * Compiled stylesheet with a pool of idle transformers
+     *
+     * @author Markus Lindqvist - Initial contribution
+     */
+    static class CompiledStylesheet {
+        private final String filename;
+        private final File file;
+        private final Templates templates;
+        private final Queue<Transformer> idleTransformers = new ConcurrentLinkedQueue<>();
+
+        private CompiledStylesheet(String filename, File file, Templates templates) {
+            this.filename = filename;
+            this.file = file;
+            this.templates = templates;
+        }
+
+        /**
+         * Get a transformer for exclusive use of the caller. The transformer must be returned with
+         * {@link #releaseTransformer(Transformer)} after use.
+         *
+         * @return idle transformer from the pool, or a new one
+         * @throws TransformationException if a new transformer cannot be created
+         */
+        Transformer borrowTransformer() throws TransformationException {
+            Transformer transformer = idleTransformers.poll();
+            if (transformer != null) {
+                return transformer;
+            }
+            try {
+                return templates.newTransformer();
+            } catch (TransformerConfigurationException e) {
+                throw new TransformationException("Could not create transformer for '" + filename + "'", e);
+            }
+        }
+
+        /**
+         * Return a transformer obtained with {@link #borrowTransformer()} back to the pool
+         *
+         * @param transformer transformer to return
+         */
+        void releaseTransformer(Transformer transformer) {
+            if (idleTransformers.size() >= MAX_POOLED_TRANSFORMERS) {
+                return;
+            }
+            transformer.reset();
+            idleTransformers.add(transformer);
+        }
+    }
+
+    /**
+     * Get the compiled stylesheet. The stylesheet is compiled and cached on first use.
+     *
+     * @param filename name of the stylesheet, relative to the transform folder
+     * @return compiled stylesheet
+     * @throws TransformationException if the stylesheet cannot be compiled
+     */
+    CompiledStylesheet getStylesheet(String filename) throws TransformationException {
+        CompiledStylesheet stylesheet = stylesheets.get(filename);
+        if (stylesheet != null) {
+            return stylesheet;
+        }
+        synchronized (stylesheets) {
+            stylesheet = stylesheets.get(filename);
+            if (stylesheet == null) {
+                File file = new File(XsltTransformationScriptWatcher.TRANSFORM_FOLDER + File.separator + filename);
+                logger.debug("Compiling XSLT stylesheet {}", file);
+                try {
+                    Templates templates = TransformerFactory.newInstance().newTemplates(new StreamSource(file));
+                    stylesheet = new CompiledStylesheet(filename, file, templates);
+                } catch (TransformerConfigurationException e) {
+                    throw new TransformationException("Could not compile XSLT stylesheet '" + filename + "'", e);
+                }
+                stylesheets.put(filename, stylesheet);
+            }
+            return stylesheet;
+        }
+    }
+
+    /**
+     * Remove compiled stylesheets of the file from cache
+     *
+     * @param fileName name of the modified or deleted file, without folders
+     */
+    protected void removeFromCache(String fileName) {
+        // Watch events might not tell the sub folder, compare only the file names
+        stylesheets.entrySet().removeIf(entry -> {
+            boolean modified = entry.getValue().file.getName().equals(fileName);
+            if (modified) {
+                logger.debug("Removing XSLT stylesheet {} from cache.", entry.getKey());
+            }
+            return modified;
+        });
+    }
+}
@@ -12,22 +12,20 @@
  */
 package org.openhab.transform.xslt.internal;
 
-import java.io.File;
 import java.io.StringReader;
 import java.io.StringWriter;
 
-import javax.xml.transform.Source;
 import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
-import org.eclipse.smarthome.config.core.ConfigConstants;
 import org.eclipse.smarthome.core.transform.TransformationException;
 import org.eclipse.smarthome.core.transform.TransformationService;
+import org.openhab.transform.xslt.internal.XsltTemplatesManager.CompiledStylesheet;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -42,13 +40,24 @@ import org.slf4j.LoggerFactory;
 public class XsltTransformationService implements TransformationService {
 
     private final Logger logger = LoggerFactory.getLogger(XsltTransformationService.class);
+    private @NonNullByDefault({}) XsltTemplatesManager manager;
+
+    @Reference
+    public void setXsltTemplatesManager(XsltTemplatesManager manager) {
+        this.manager = manager;
+    }
+
+    public void unsetXsltTemplatesManager(XsltTemplatesManager manager) {
+        this.manager = null;
+    }
 
     /**
      * Transforms the input <code>source</code> by XSLT.
      *
      * The method expects the transformation rule to be read from a file which
      * is stored under the 'configurations/transform' folder. To organize the
-     * various transformations one should use subfolders.
+     * various transformations one should use subfolders. The compiled
+     * transformation rule is cached until the file is modified.
      *
      * @param filename the name of the file which contains the XSLT transformation rule.
      *            The name may contain subfoldernames as well
@@ -60,32 +69,29 @@ public class XsltTransformationService implements TransformationService {
             throw new TransformationException("the given parameters 'filename' and 'source' must not be null");
         }
 
-        Source xsl = null;
-
-        try {
-            String path = ConfigConstants.getConfigFolder() + File.separator
-                    + TransformationService.TRANSFORM_FOLDER_NAME + File.separator + filename;
-            xsl = new StreamSource(new File(path));
-        } catch (Exception e) {
-            String message = "opening file '" + filename + "' throws exception";
-
-            logger.error("{}", message, e);
-            throw new TransformationException(message, e);
-        }
-
-        logger.debug("about to transform '{}' by the function '{}'", source, xsl);
+        logger.debug("about to transform '{}' by the function '{}'", source, filename);
 
         StringReader xml = new StringReader(source);
         StringWriter out = new StringWriter();
 
+        CompiledStylesheet stylesheet;
         Transformer transformer;
 
         try {
-            transformer = TransformerFactory.newInstance().newTransformer(xsl);
+            stylesheet = manager.getStylesheet(filename);
+            transformer = stylesheet.borrowTransformer();
+        } catch (TransformationException e) {
+            logger.error("opening file '{}' throws exception", filename, e);
+            throw e;
+        }
+
+        try {
             transformer.transform(new StreamSource(xml), new StreamResult(out));
         } catch (Exception e) {
             logger.error("transformation throws exception", e);
             throw new TransformationException("transformation throws exception", e);
+        } finally {
+            stylesheet.releaseTransformer(transformer);
         }
 
         logger.debug("transformation resulted in '{}'", out.toString());
@@ -28,6 +28,7 @@ public class XsltTransformationServiceTest extends AbstractTransformationService
     @Before
     public void init() {
         processor = new XsltTransformationService();
+        processor.setXsltTemplatesManager(new XsltTemplatesManager());
     }
 
     @Test
@@ -38,4 +39,15 @@ public class XsltTransformationServiceTest extends AbstractTransformationService
         // Asserts
         assertEquals("8", transformedResponse);
     }
+
+    @Test
+    public void testTransformTwiceWithCachedStylesheet() throws TransformationException {
+        assertEquals("8", processor.transform("http/google_weather.xsl", source));
+        assertEquals("8", processor.transform("http/google_weather.xsl", source));
+    }
+
+    @Test(expected = TransformationException.class)
+    public void testMissingStylesheet() throws TransformationException {
+        processor.transform("http/missing.xsl", source);
+    }
 }